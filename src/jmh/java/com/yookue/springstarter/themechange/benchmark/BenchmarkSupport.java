@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.benchmark;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+
+
+/**
+ * Shared fixtures of the benchmarks
+ *
+ * @author David Hsing
+ */
+abstract class BenchmarkSupport {
+    static final List<String> THEME_NAMES = Collections.unmodifiableList(Arrays.asList("light", "blue", "dark"));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+    static final String TAG_CODE_PREFIX = "theme-change.tag.";    // $NON-NLS-1$
+    static final String BASENAME_PREFIX = "theme.";    // $NON-NLS-1$
+
+    @Nonnull
+    static ThemeChangeProperties newProperties(boolean multilingual) {
+        ThemeChangeProperties result = new ThemeChangeProperties();
+        ThemeChangeProperties.ModelAndView props = result.getModelAndView();
+        props.setTagMultilingual(multilingual);
+        THEME_NAMES.forEach(theme -> props.getTagNames().put(theme, multilingual ? TAG_CODE_PREFIX + theme : theme));
+        result.getThemeSource().setBasenamePrefix(BASENAME_PREFIX);
+        return result;
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.benchmark;
+
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.Filter;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.ui.context.Theme;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.ConfigurableWebApplicationContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+
+/**
+ * Load test that drives a mix of requests through the full Spring MVC stack of a minimal application with this starter
+ * <p>
+ * Each scenario boots the application with its own properties, then reports the throughput, the p50/p99 latency and the allocation per request.
+ * Run with {@code java -cp target/benchmarks.jar com.yookue.springstarter.themechange.benchmark.ThemeChangeLoadTest [options]}, the options are:
+ * <ul>
+ *     <li>{@code --scenarios=cookie,session,...} the scenarios to run, default is all</li>
+ *     <li>{@code --requests=20000} the number of measured requests per scenario</li>
+ *     <li>{@code --warmup=10000} the number of warmup requests per scenario</li>
+ *     <li>{@code --threads=4} the number of concurrent clients</li>
+ *     <li>{@code --users=200} the number of simulated users, each keeps its own cookies and session</li>
+ *     <li>{@code --locales=40} the number of distinct {@code Accept-Language} locales</li>
+ *     <li>{@code --theme-ratio=0.05} the ratio of page requests that switch the theme with {@code ?theme=}</li>
+ *     <li>{@code --api-ratio=0.2} the ratio of {@code @ResponseBody} requests, which render no view</li>
+ *     <li>{@code --set=key=value} an application property that applies to every scenario, repeatable</li>
+ * </ul>
+ *
+ * @author David Hsing
+ */
+public abstract class ThemeChangeLoadTest {
+    private static final String PROPERTIES_PREFIX = "spring.theme-change.";    // $NON-NLS-1$
+    private static final String[] MESSAGE_CODES = {"theme-change.style-sheet", "theme-change.favicon", "theme-change.logo"};    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {    // $NON-NLS-1$
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");    // $NON-NLS-1$ // $NON-NLS-2$
+        }
+        Options options = Options.parse(args);
+        Map<String, Map<String, Object>> scenarios = getScenarios();
+        List<String> names = options.scenarios.isEmpty() ? new ArrayList<>(scenarios.keySet()) : options.scenarios;
+        System.out.printf("%-26s %12s %10s %10s %12s%n", "scenario", "req/s", "p50 us", "p99 us", "bytes/req");    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$ // $NON-NLS-5$ // $NON-NLS-6$
+        for (String name : names) {
+            Map<String, Object> scenario = scenarios.get(name);
+            if (scenario == null) {
+                System.out.printf("%-26s unknown scenario, available are %s%n", name, scenarios.keySet());    // $NON-NLS-1$
+                continue;
+            }
+            Map<String, Object> properties = new LinkedHashMap<>(getBaseProperties());
+            properties.putAll(scenario);
+            properties.putAll(options.properties);
+            runScenario(name, properties, options);
+        }
+    }
+
+    @Nonnull
+    private static Map<String, Object> getBaseProperties() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("spring.main.banner-mode", "off");    // $NON-NLS-1$ // $NON-NLS-2$
+        result.put("logging.level.root", "warn");    // $NON-NLS-1$ // $NON-NLS-2$
+        result.put(PROPERTIES_PREFIX + "theme-source.basename-prefix", BenchmarkSupport.BASENAME_PREFIX);    // $NON-NLS-1$
+        for (String theme : BenchmarkSupport.THEME_NAMES) {
+            result.put(PROPERTIES_PREFIX + "model-and-view.tag-names." + theme, BenchmarkSupport.TAG_CODE_PREFIX + theme);    // $NON-NLS-1$
+        }
+        result.put(PROPERTIES_PREFIX + "cookie-theme-resolver.default-theme-name", BenchmarkSupport.THEME_NAMES.get(0));    // $NON-NLS-1$
+        result.put(PROPERTIES_PREFIX + "session-theme-resolver.default-theme-name", BenchmarkSupport.THEME_NAMES.get(0));    // $NON-NLS-1$
+        return result;
+    }
+
+    @Nonnull
+    private static Map<String, Map<String, Object>> getScenarios() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        result.put("cookie", Collections.singletonMap(PROPERTIES_PREFIX + "theme-resolver-type", "cookie"));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        result.put("session", Collections.singletonMap(PROPERTIES_PREFIX + "theme-resolver-type", "session"));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        result.put("cookie-multilingual", Collections.singletonMap(PROPERTIES_PREFIX + "model-and-view.tag-multilingual", true));    // $NON-NLS-1$ // $NON-NLS-2$
+        result.put("session-multilingual", newScenario("theme-resolver-type", "session", "model-and-view.tag-multilingual", true));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$
+        result.put("cookie-memoized", newScenario("memoize-theme-resolver", true, "model-and-view.tag-multilingual", true));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        result.put("cookie-precompiled", newScenario("model-and-view.tag-multilingual", true, "model-and-view.precompile-paths", true, "theme-interceptor.precompile-paths", true,    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+            "model-and-view.exclude-paths", "/api/**", "theme-interceptor.exclude-paths", "/api/**"));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$
+        result.put("cookie-interceptor-first", newScenario("model-and-view.tag-multilingual", true, "model-and-view.interceptor-order", -100, "theme-interceptor.interceptor-order", -100));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        result.put("cookie-http-caching", newScenario("model-and-view.tag-multilingual", true, "http-caching.enabled", true));    // $NON-NLS-1$ // $NON-NLS-2$
+        return result;
+    }
+
+    @Nonnull
+    private static Map<String, Object> newScenario(@Nonnull Object... pairs) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            result.put(PROPERTIES_PREFIX + pairs[i], pairs[i + 1]);
+        }
+        return result;
+    }
+
+    private static void runScenario(@Nonnull String name, @Nonnull Map<String, Object> properties, @Nonnull Options options) throws Exception {
+        SpringApplication application = new SpringApplication(LoadTestApplication.class);
+        application.setWebApplicationType(WebApplicationType.SERVLET);
+        application.setLogStartupInfo(false);
+        application.setApplicationContextFactory(type -> new AnnotationConfigServletWebApplicationContext());
+        application.addInitializers(context -> ((ConfigurableWebApplicationContext) context).setServletContext(new MockServletContext()));
+        application.setDefaultProperties(properties);
+        try (ConfigurableApplicationContext context = application.run()) {
+            MockMvc mockMvc = buildMockMvc((WebApplicationContext) context);
+            List<Locale> locales = getLocales(options.locales);
+            User[] users = new User[Math.max(options.users, 1)];
+            for (int i = 0; i < users.length; i++) {
+                users[i] = new User(locales.get(i % locales.size()));
+            }
+            runClients(mockMvc, users, options, options.warmup);
+            Result result = runClients(mockMvc, users, options, options.requests);
+            System.out.printf("%-26s %12.0f %10.1f %10.1f %12.0f%n", name, result.throughput, result.p50Micros, result.p99Micros, result.bytesPerRequest);    // $NON-NLS-1$
+        }
+    }
+
+    @Nonnull
+    @SuppressWarnings("rawtypes")
+    private static MockMvc buildMockMvc(@Nonnull WebApplicationContext context) {
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup(context);
+        for (FilterRegistrationBean registration : context.getBeansOfType(FilterRegistrationBean.class).values()) {
+            Filter filter = registration.getFilter();
+            if (filter != null) {
+                builder.addFilter(filter, (String[]) registration.getUrlPatterns().toArray(new String[0]));
+            }
+        }
+        return builder.build();
+    }
+
+    @Nonnull
+    private static List<Locale> getLocales(int count) {
+        List<Locale> result = new ArrayList<>();
+        for (Locale locale : Locale.getAvailableLocales()) {
+            if (StringUtils.isNotBlank(locale.getLanguage()) && StringUtils.isNotBlank(locale.getCountry()) && StringUtils.isBlank(locale.getVariant()) && StringUtils.isBlank(locale.getScript())) {
+                result.add(locale);
+            }
+        }
+        result.sort((left, right) -> left.toLanguageTag().compareTo(right.toLanguageTag()));
+        return result.subList(0, Math.max(Math.min(count, result.size()), 1));
+    }
+
+    @Nonnull
+    private static Result runClients(@Nonnull MockMvc mockMvc, @Nonnull User[] users, @Nonnull Options options, int requests) throws Exception {
+        int threads = Math.max(options.threads, 1);
+        int perThread = Math.max(requests / threads, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>(threads);
+        long[] allocations = new long[threads];
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(index);
+                long[] latencies = new long[perThread];
+                startLatch.await();
+                long startBytes = getAllocatedBytes();
+                for (int j = 0; j < perThread; j++) {
+                    long startTime = System.nanoTime();
+                    perform(mockMvc, users[random.nextInt(users.length)], options, random);
+                    latencies[j] = System.nanoTime() - startTime;
+                }
+                allocations[index] = getAllocatedBytes() - startBytes;
+                return latencies;
+            }));
+        }
+        long startTime = System.nanoTime();
+        startLatch.countDown();
+        long[] latencies = new long[perThread * threads];
+        for (int i = 0; i < threads; i++) {
+            System.arraycopy(futures.get(i).get(), 0, latencies, i * perThread, perThread);
+        }
+        long elapsed = System.nanoTime() - startTime;
+        executor.shutdown();
+        executor.awaitTermination(1L, TimeUnit.MINUTES);
+        Arrays.sort(latencies);
+        Result result = new Result();
+        result.throughput = latencies.length * (double) TimeUnit.SECONDS.toNanos(1L) / elapsed;
+        result.p50Micros = latencies[(int) (latencies.length * 0.50D)] / 1000.0D;
+        result.p99Micros = latencies[Math.min((int) (latencies.length * 0.99D), latencies.length - 1)] / 1000.0D;
+        result.bytesPerRequest = Arrays.stream(allocations).sum() / (double) latencies.length;
+        return result;
+    }
+
+    private static void perform(@Nonnull MockMvc mockMvc, @Nonnull User user, @Nonnull Options options, @Nonnull SplittableRandom random) throws Exception {
+        boolean api = random.nextDouble() < options.apiRatio;
+        MockHttpServletRequestBuilder builder = MockMvcRequestBuilders.get(api ? "/api/{id}" : "/page/{id}", random.nextInt(100))    // $NON-NLS-1$ // $NON-NLS-2$
+            .header(HttpHeaders.ACCEPT_LANGUAGE, user.locale.toLanguageTag())
+            .accept(api ? MediaType.TEXT_PLAIN : MediaType.TEXT_HTML);
+        if (!api && random.nextDouble() < options.themeRatio) {
+            builder.param("theme", BenchmarkSupport.THEME_NAMES.get(random.nextInt(BenchmarkSupport.THEME_NAMES.size())));    // $NON-NLS-1$
+        }
+        synchronized (user) {
+            if (user.cookie != null) {
+                builder.cookie(user.cookie);
+            }
+            builder.session(user.session);
+        }
+        MvcResult result = mockMvc.perform(builder).andReturn();
+        Cookie[] cookies = result.getResponse().getCookies();
+        if (cookies.length > 0) {
+            synchronized (user) {
+                user.cookie = cookies[cookies.length - 1];
+            }
+        }
+    }
+
+    /**
+     * Returns the allocated bytes of the current thread, or zero if the JVM does not support it
+     */
+    private static long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0L;
+    }
+
+
+    /**
+     * Minimal application that renders a view with the theme messages, and a response body endpoint
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(excludeName = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")
+    @Controller
+    public static class LoadTestApplication {
+        private final View pageView = new ThemedView();
+
+        @Bean
+        public MessageSource messageSource() {
+            StaticMessageSource result = new StaticMessageSource();
+            for (Locale locale : Locale.getAvailableLocales()) {
+                for (String theme : BenchmarkSupport.THEME_NAMES) {
+                    result.addMessage(BenchmarkSupport.TAG_CODE_PREFIX + theme, locale, theme + '-' + locale.toLanguageTag());
+                }
+            }
+            return result;
+        }
+
+        @GetMapping(path = "/page/{id}")
+        public ModelAndView page() {
+            return new ModelAndView(pageView);
+        }
+
+        @GetMapping(path = "/api/{id}")
+        @ResponseBody
+        public String api() {
+            return "ok";    // $NON-NLS-1$
+        }
+    }
+
+
+    /**
+     * View that reads the theme messages, as a template would do
+     */
+    private static class ThemedView implements View {
+        @Override
+        public String getContentType() {
+            return MediaType.TEXT_HTML_VALUE;
+        }
+
+        @Override
+        public void render(@Nullable Map<String, ?> model, @Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response) throws Exception {
+            Theme theme = RequestContextUtils.getTheme(request);
+            Locale locale = RequestContextUtils.getLocale(request);
+            StringBuilder builder = new StringBuilder(256);
+            if (theme != null) {
+                for (String code : MESSAGE_CODES) {
+                    builder.append(theme.getMessageSource().getMessage(code, null, StringUtils.EMPTY, locale)).append('\n');
+                }
+            }
+            if (model != null) {
+                builder.append(model.size());
+            }
+            response.setContentType(getContentType());
+            response.getWriter().write(builder.toString());
+        }
+    }
+
+
+    /**
+     * Simulated user, who keeps the theme cookie and the session across requests
+     */
+    private static class User {
+        private final Locale locale;
+        private final MockHttpSession session = new MockHttpSession();
+        private Cookie cookie;
+
+        private User(@Nonnull Locale locale) {
+            this.locale = locale;
+        }
+    }
+
+
+    /**
+     * Measured result of a scenario
+     */
+    private static class Result {
+        private double throughput;
+        private double p50Micros;
+        private double p99Micros;
+        private double bytesPerRequest;
+    }
+
+
+    /**
+     * Command line options
+     */
+    private static class Options {
+        private final List<String> scenarios = new ArrayList<>();
+        private final Map<String, Object> properties = new LinkedHashMap<>();
+        private int requests = 20000;
+        private int warmup = 10000;
+        private int threads = 4;
+        private int users = 200;
+        private int locales = 40;
+        private double themeRatio = 0.05D;
+        private double apiRatio = 0.2D;
+
+        @Nonnull
+        private static Options parse(@Nonnull String[] args) {
+            Options result = new Options();
+            for (String arg : args) {
+                String key = StringUtils.substringBefore(StringUtils.removeStart(arg, "--"), "=");    // $NON-NLS-1$ // $NON-NLS-2$
+                String value = StringUtils.substringAfter(arg, "=");    // $NON-NLS-1$
+                switch (key) {
+                    case "scenarios":    // $NON-NLS-1$
+                        result.scenarios.addAll(Arrays.asList(StringUtils.split(value, ',')));
+                        break;
+                    case "requests":    // $NON-NLS-1$
+                        result.requests = Integer.parseInt(value);
+                        break;
+                    case "warmup":    // $NON-NLS-1$
+                        result.warmup = Integer.parseInt(value);
+                        break;
+                    case "threads":    // $NON-NLS-1$
+                        result.threads = Integer.parseInt(value);
+                        break;
+                    case "users":    // $NON-NLS-1$
+                        result.users = Integer.parseInt(value);
+                        break;
+                    case "locales":    // $NON-NLS-1$
+                        result.locales = Integer.parseInt(value);
+                        break;
+                    case "theme-ratio":    // $NON-NLS-1$
+                        result.themeRatio = Double.parseDouble(value);
+                        break;
+                    case "api-ratio":    // $NON-NLS-1$
+                        result.apiRatio = Double.parseDouble(value);
+                        break;
+                    case "set":    // $NON-NLS-1$
+                        result.properties.put(StringUtils.substringBefore(value, "="), StringUtils.substringAfter(value, "="));    // $NON-NLS-1$ // $NON-NLS-2$
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);    // $NON-NLS-1$
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.benchmark;
+
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.ModelAndView;
+import com.yookue.springstarter.themechange.annotation.ThemeTagNamesOptOut;
+import com.yookue.springstarter.themechange.interceptor.ThemeChangeViewInterceptor;
+
+
+/**
+ * Benchmarks of {@link com.yookue.springstarter.themechange.interceptor.ThemeChangeViewInterceptor#postHandle}
+ *
+ * @author David Hsing
+ */
+@BenchmarkMode(value = Mode.AverageTime)
+@OutputTimeUnit(value = TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@State(value = Scope.Benchmark)
+@SuppressWarnings("unused")
+public class ThemeChangeViewInterceptorBenchmark {
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index");    // $NON-NLS-1$
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private ThemeChangeViewInterceptor plainInterceptor;
+    private ThemeChangeViewInterceptor multilingualInterceptor;
+    private HandlerMethod optedOutHandler;
+
+    @Setup
+    public void setup() {
+        plainInterceptor = new ThemeChangeViewInterceptor(BenchmarkSupport.newProperties(false));
+        multilingualInterceptor = new ThemeChangeViewInterceptor(BenchmarkSupport.newProperties(true));
+        StaticMessageSource messageSource = new StaticMessageSource();
+        BenchmarkSupport.THEME_NAMES.forEach(theme -> {
+            messageSource.addMessage(BenchmarkSupport.TAG_CODE_PREFIX + theme, Locale.ENGLISH, theme);
+            messageSource.addMessage(BenchmarkSupport.TAG_CODE_PREFIX + theme, Locale.SIMPLIFIED_CHINESE, theme);
+        });
+        multilingualInterceptor.setMessageSource(messageSource);
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        optedOutHandler = new HandlerMethod(this, ClassUtils.getMethod(ThemeChangeViewInterceptorBenchmark.class, "postHandleOptedOut"));    // $NON-NLS-1$
+    }
+
+    @Benchmark
+    public ModelAndView postHandlePlain() {
+        ModelAndView view = new ModelAndView("index");    // $NON-NLS-1$
+        plainInterceptor.postHandle(request, response, this, view);
+        return view;
+    }
+
+    @Benchmark
+    public ModelAndView postHandleMultilingual() {
+        ModelAndView view = new ModelAndView("index");    // $NON-NLS-1$
+        multilingualInterceptor.postHandle(request, response, this, view);
+        return view;
+    }
+
+    @Benchmark
+    @ThemeTagNamesOptOut
+    public ModelAndView postHandleOptedOut() {
+        ModelAndView view = new ModelAndView("index");    // $NON-NLS-1$
+        multilingualInterceptor.postHandle(request, response, optedOutHandler, view);
+        return view;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.benchmark;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+
+
+/**
+ * Benchmarks of matching a request path against a long exclude list
+ * <p>
+ * Compares the {@link org.springframework.web.servlet.handler.MappedInterceptor} that registered by {@code addPathPatterns/excludePathPatterns}
+ * with the precompiled {@link com.yookue.springstarter.themechange.support.ThemePathMatcher}
+ *
+ * @author David Hsing
+ */
+@BenchmarkMode(value = Mode.AverageTime)
+@OutputTimeUnit(value = TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@State(value = Scope.Thread)
+@SuppressWarnings("unused")
+public class ThemePathMatcherBenchmark {
+    @Param(value = {"/orders/42/detail", "/static/css/site.css"})    // $NON-NLS-1$ // $NON-NLS-2$
+    private String path;
+
+    private MappedInterceptor mappedInterceptor;
+    private ThemePathMatcher pathMatcher;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        List<String> excludePaths = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            excludePaths.add("/module" + i + "/**");    // $NON-NLS-1$ // $NON-NLS-2$
+        }
+        excludePaths.add("/static/**");    // $NON-NLS-1$
+        excludePaths.add("/favicon.ico");    // $NON-NLS-1$
+        List<String> includePaths = Collections.singletonList("/**");    // $NON-NLS-1$
+        mappedInterceptor = new MappedInterceptor(includePaths.toArray(new String[0]), excludePaths.toArray(new String[0]), new HandlerInterceptor() {
+        }, PathPatternParser.defaultInstance);
+        pathMatcher = new ThemePathMatcher(includePaths, excludePaths);
+        request = new MockHttpServletRequest("GET", path);    // $NON-NLS-1$
+        ServletRequestPathUtils.parseAndCache(request);
+    }
+
+    @Benchmark
+    public boolean mappedInterceptor() {
+        return mappedInterceptor.matches(request);
+    }
+
+    @Benchmark
+    public boolean precompiledMatcher() {
+        return pathMatcher.matches(ServletRequestPathUtils.getCachedPathValue(request));
+    }
+}
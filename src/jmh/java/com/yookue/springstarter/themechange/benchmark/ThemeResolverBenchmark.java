@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.benchmark;
+
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.ThemeResolver;
+import org.springframework.web.servlet.theme.CookieThemeResolver;
+import org.springframework.web.servlet.theme.SessionThemeResolver;
+import com.yookue.springstarter.themechange.config.ThemeChangeResolverConfiguration;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+
+
+/**
+ * Benchmarks of the theme resolvers that built by {@link com.yookue.springstarter.themechange.config.ThemeChangeResolverConfiguration}
+ * <p>
+ * Each resolver is taken from a context that only contains the configuration, so that the decorations of the production resolvers are measured as well.
+ * The request attribute that caches the resolved theme name is removed before each resolution, to measure the cost of a fresh request
+ *
+ * @author David Hsing
+ */
+@BenchmarkMode(value = Mode.AverageTime)
+@OutputTimeUnit(value = TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@State(value = Scope.Thread)
+@SuppressWarnings("unused")
+public class ThemeResolverBenchmark {
+    private static final String PROPERTIES_PREFIX = "spring.theme-change.";    // $NON-NLS-1$
+    private AnnotationConfigServletWebApplicationContext cookieContext;
+    private AnnotationConfigServletWebApplicationContext sessionContext;
+    private AnnotationConfigServletWebApplicationContext fixedContext;
+    private ThemeResolver cookieResolver;
+    private ThemeResolver sessionResolver;
+    private ThemeResolver fixedResolver;
+    private MockHttpServletRequest cookieRequest;
+    private MockHttpServletRequest sessionRequest;
+    private MockHttpServletRequest fixedRequest;
+
+    @Setup
+    public void setup() {
+        cookieContext = newContext("cookie");    // $NON-NLS-1$
+        sessionContext = newContext("session");    // $NON-NLS-1$
+        fixedContext = newContext("fixed");    // $NON-NLS-1$
+        cookieResolver = cookieContext.getBean(DispatcherServlet.THEME_RESOLVER_BEAN_NAME, ThemeResolver.class);
+        sessionResolver = sessionContext.getBean(DispatcherServlet.THEME_RESOLVER_BEAN_NAME, ThemeResolver.class);
+        fixedResolver = fixedContext.getBean(DispatcherServlet.THEME_RESOLVER_BEAN_NAME, ThemeResolver.class);
+        cookieRequest = new MockHttpServletRequest("GET", "/index");    // $NON-NLS-1$ // $NON-NLS-2$
+        String cookieName = cookieContext.getBean(ThemeChangeProperties.class).getCookieThemeResolver().getCookieName();
+        cookieRequest.setCookies(new Cookie("JSESSIONID", "0123456789ABCDEF"), new Cookie(cookieName, "dark"));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        sessionRequest = new MockHttpServletRequest("GET", "/index");    // $NON-NLS-1$ // $NON-NLS-2$
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(SessionThemeResolver.THEME_SESSION_ATTRIBUTE_NAME, "dark");    // $NON-NLS-1$
+        sessionRequest.setSession(session);
+        fixedRequest = new MockHttpServletRequest("GET", "/index");    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @TearDown
+    public void tearDown() {
+        cookieContext.close();
+        sessionContext.close();
+        fixedContext.close();
+    }
+
+    @Benchmark
+    public String resolveCookie() {
+        cookieRequest.removeAttribute(CookieThemeResolver.THEME_REQUEST_ATTRIBUTE_NAME);
+        return cookieResolver.resolveThemeName(cookieRequest);
+    }
+
+    @Benchmark
+    public String resolveSession() {
+        return sessionResolver.resolveThemeName(sessionRequest);
+    }
+
+    @Benchmark
+    public String resolveFixed() {
+        return fixedResolver.resolveThemeName(fixedRequest);
+    }
+
+    @Nonnull
+    private static AnnotationConfigServletWebApplicationContext newContext(@Nonnull String resolverType) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PROPERTIES_PREFIX + "theme-resolver-type", resolverType);    // $NON-NLS-1$
+        properties.put(PROPERTIES_PREFIX + "theme-interceptor.allowed-themes", String.join(",", BenchmarkSupport.THEME_NAMES));    // $NON-NLS-1$ // $NON-NLS-2$
+        AnnotationConfigServletWebApplicationContext result = new AnnotationConfigServletWebApplicationContext();
+        result.setServletContext(new MockServletContext());
+        result.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));    // $NON-NLS-1$
+        result.register(ThemeChangeResolverConfiguration.class);
+        result.refresh();
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.benchmark;
+
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.support.ResourceBundleThemeSource;
+import com.yookue.springstarter.themechange.source.CachingThemeSource;
+import com.yookue.springstarter.themechange.source.CompactThemeSource;
+
+
+/**
+ * Benchmarks of {@link org.springframework.ui.context.ThemeSource#getTheme} under contention
+ *
+ * @author David Hsing
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@Threads(value = 4)
+@State(value = Scope.Benchmark)
+@SuppressWarnings("unused")
+public class ThemeSourceBenchmark {
+    private static final String MESSAGE_CODE = "theme-change.style-sheet";    // $NON-NLS-1$
+    private final ResourceBundleThemeSource bundleSource = new ResourceBundleThemeSource();
+    private final CachingThemeSource cachingSource = new CachingThemeSource();
+    private final CompactThemeSource compactSource = new CompactThemeSource();
+    private String[] themeNames;
+
+    @Setup
+    public void setup() {
+        bundleSource.setBasenamePrefix(BenchmarkSupport.BASENAME_PREFIX);
+        cachingSource.setBasenamePrefix(BenchmarkSupport.BASENAME_PREFIX);
+        compactSource.setBasenamePrefix(BenchmarkSupport.BASENAME_PREFIX);
+        themeNames = BenchmarkSupport.THEME_NAMES.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public String bundleSourceGetTheme(ThreadCursor cursor) {
+        Theme theme = bundleSource.getTheme(themeNames[cursor.next(themeNames.length)]);
+        return theme.getMessageSource().getMessage(MESSAGE_CODE, null, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String cachingSourceGetTheme(ThreadCursor cursor) {
+        Theme theme = cachingSource.getTheme(themeNames[cursor.next(themeNames.length)]);
+        return (theme == null) ? null : theme.getMessageSource().getMessage(MESSAGE_CODE, null, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String compactSourceGetTheme(ThreadCursor cursor) {
+        Theme theme = compactSource.getTheme(themeNames[cursor.next(themeNames.length)]);
+        return theme.getMessageSource().getMessage(MESSAGE_CODE, null, Locale.ENGLISH);
+    }
+
+
+    @State(value = Scope.Thread)
+    public static class ThreadCursor {
+        private int position;
+
+        int next(int bound) {
+            position = (position + 1) % bound;
+            return position;
+        }
+    }
+}
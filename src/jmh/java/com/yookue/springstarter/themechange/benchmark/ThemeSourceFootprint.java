@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.benchmark;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.ResourceBundleThemeSource;
+import com.yookue.springstarter.themechange.source.CompactThemeSource;
+
+
+/**
+ * Measures the retained heap of the theme sources, after every theme is used with several locales
+ * <p>
+ * Run with {@code java -cp target/benchmarks.jar com.yookue.springstarter.themechange.benchmark.ThemeSourceFootprint}
+ *
+ * @author David Hsing
+ */
+public abstract class ThemeSourceFootprint {
+    private static final List<Locale> LOCALES = Collections.unmodifiableList(Arrays.asList(Locale.ENGLISH, Locale.SIMPLIFIED_CHINESE, Locale.JAPANESE));
+    private static final List<String> MESSAGE_CODES = Collections.unmodifiableList(Arrays.asList("theme-change.style-sheet", "theme-change.favicon", "theme-change.logo"));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+
+    public static void main(String[] args) {
+        ResourceBundleThemeSource bundleSource = new ResourceBundleThemeSource();
+        bundleSource.setBasenamePrefix(BenchmarkSupport.BASENAME_PREFIX);
+        CompactThemeSource compactSource = new CompactThemeSource();
+        compactSource.setBasenamePrefix(BenchmarkSupport.BASENAME_PREFIX);
+        printFootprint("ResourceBundleThemeSource", bundleSource);    // $NON-NLS-1$
+        printFootprint("CompactThemeSource", compactSource);    // $NON-NLS-1$
+    }
+
+    private static void printFootprint(@Nonnull String name, @Nonnull ThemeSource source) {
+        Theme[] themes = new Theme[BenchmarkSupport.THEME_NAMES.size()];
+        for (int i = 0; i < themes.length; i++) {
+            themes[i] = source.getTheme(BenchmarkSupport.THEME_NAMES.get(i));
+            for (Locale locale : LOCALES) {
+                for (String code : MESSAGE_CODES) {
+                    themes[i].getMessageSource().getMessage(code, null, locale);
+                }
+            }
+        }
+        // The class loaders are shared with the whole application, exclude them from the graph
+        GraphLayout layout = GraphLayout.parseInstance(source).subtract(GraphLayout.parseInstance(source.getClass().getClassLoader()));
+        System.out.printf("%-28s %8d bytes, %6d bytes per theme, %6d objects%n", name, layout.totalSize(), layout.totalSize() / themes.length, layout.totalCount());    // $NON-NLS-1$
+    }
+}
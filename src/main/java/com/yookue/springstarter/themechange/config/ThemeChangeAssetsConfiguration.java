@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.config;
+
+
+import javax.annotation.Nonnull;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.config.annotation.ResourceChainRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import com.yookue.commonplexus.javaseutil.constant.AssertMessageConst;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.resource.ThemeResourceResolver;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Configuration of theme assets for theme change
+ * <p>
+ * The assets are served with content versioned urls and far-future cache headers,
+ * the css links are rewritten by the {@link org.springframework.web.servlet.resource.CssLinkResourceTransformer} that the resource chain registers
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.resource.ResourceUrlThemeSource
+ */
+@Configuration
+@ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(value = ThemeChangeProperties.class)
+@RequiredArgsConstructor
+public class ThemeChangeAssetsConfiguration implements WebMvcConfigurer {
+    public static final String PROPERTIES_PREFIX = ThemeChangeViewConfiguration.PROPERTIES_PREFIX + ".assets";    // $NON-NLS-1$
+    private final ThemeChangeProperties properties;
+
+    @Override
+    public void addResourceHandlers(@Nonnull ResourceHandlerRegistry registry) {
+        ThemeChangeProperties.Assets props = properties.getAssets();
+        if (BooleanUtils.isNotTrue(props.getEnabled())) {
+            return;
+        }
+        Assert.hasText(props.getUrlPrefix(), AssertMessageConst.NOT_BLANK);
+        Assert.notEmpty(props.getLocations(), AssertMessageConst.NOT_EMPTY);
+        ThemeResourceResolver themeResolver = new ThemeResourceResolver();
+        themeResolver.setAllowedThemes(ThemeChangeUtils.getAllowedThemes(properties));
+        themeResolver.setFallbackTheme(StringUtils.trimToNull(props.getFallbackTheme()));
+        ResourceChainRegistration registration = registry.addResourceHandler(StringUtils.appendIfMissing(props.getUrlPrefix(), "/") + "**")    // $NON-NLS-1$ // $NON-NLS-2$
+            .addResourceLocations(props.getLocations().toArray(new String[0]))
+            .setCacheControl((props.getCacheMaxAge() == null || props.getCacheMaxAge().isNegative()) ? CacheControl.noCache() : CacheControl.maxAge(props.getCacheMaxAge()).cachePublic())
+            .resourceChain(true);
+        if (BooleanUtils.isNotFalse(props.getCompressed())) {
+            registration.addResolver(new EncodedResourceResolver());
+        }
+        registration.addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))    // $NON-NLS-1$
+            .addResolver(themeResolver);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.config;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
+import com.yookue.springstarter.themechange.enumeration.ThemeResolverType;
+import com.yookue.springstarter.themechange.filter.ThemeAwareEtagHeaderFilter;
+import com.yookue.springstarter.themechange.interceptor.PathMatchingInterceptor;
+import com.yookue.springstarter.themechange.interceptor.ThemeVaryInterceptor;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Configuration of http caching for theme change
+ * <p>
+ * The responses of the paths intercepted by the view interceptor vary by theme
+ *
+ * @author David Hsing
+ */
+@Configuration
+@ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(value = ThemeChangeProperties.class)
+@RequiredArgsConstructor
+public class ThemeChangeCachingConfiguration implements WebMvcConfigurer {
+    public static final String PROPERTIES_PREFIX = ThemeChangeViewConfiguration.PROPERTIES_PREFIX + ".http-caching";    // $NON-NLS-1$
+    public static final String VARY_INTERCEPTOR = "themeVaryInterceptor";    // $NON-NLS-1$
+    public static final String ETAG_FILTER = "themeAwareEtagHeaderFilter";    // $NON-NLS-1$
+    private final ThemeChangeProperties properties;
+
+    @Bean(name = VARY_INTERCEPTOR)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "enabled", havingValue = "true")
+    public ThemeVaryInterceptor varyInterceptor() {
+        List<String> headers = properties.getHttpCaching().getVaryHeaders();
+        return new ThemeVaryInterceptor(CollectionUtils.isEmpty(headers) ? getVaryHeaders(properties) : headers);
+    }
+
+    @Bean(name = ETAG_FILTER)
+    @ConditionalOnMissingBean(name = ETAG_FILTER, value = ShallowEtagHeaderFilter.class)
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = {"enabled", "theme-etag"}, havingValue = "true")
+    public FilterRegistrationBean<ThemeAwareEtagHeaderFilter> etagHeaderFilter() {
+        ThemeChangeProperties.HttpCaching props = properties.getHttpCaching();
+        ThemeAwareEtagHeaderFilter filter = new ThemeAwareEtagHeaderFilter();
+        filter.setWriteWeakETag(BooleanUtils.isTrue(props.getWriteWeakEtag()));
+        FilterRegistrationBean<ThemeAwareEtagHeaderFilter> result = new FilterRegistrationBean<>(filter);
+        CollectionPlainWraps.ifNotEmpty(props.getEtagUrlPatterns(), result::setUrlPatterns);
+        Optional.ofNullable(props.getEtagFilterOrder()).ifPresent(result::setOrder);
+        return result;
+    }
+
+    @Override
+    public void addInterceptors(@Nonnull InterceptorRegistry registry) {
+        if (BooleanUtils.isNotTrue(properties.getHttpCaching().getEnabled())) {
+            return;
+        }
+        ThemeChangeProperties.ModelAndView props = properties.getModelAndView();
+        Integer order = properties.getHttpCaching().getInterceptorOrder();
+        if (BooleanUtils.isTrue(props.getPrecompilePaths())) {
+            InterceptorRegistration registration = registry.addInterceptor(new PathMatchingInterceptor(varyInterceptor(), new ThemePathMatcher(props.getInterceptPaths(), props.getExcludePaths())));
+            Optional.ofNullable(order).ifPresent(registration::order);
+            return;
+        }
+        InterceptorRegistration registration = registry.addInterceptor(varyInterceptor()).addPathPatterns(props.getInterceptPaths());
+        Optional.ofNullable(order).ifPresent(registration::order);
+        CollectionPlainWraps.ifNotEmpty(props.getExcludePaths(), element -> registration.excludePathPatterns(element));
+    }
+
+    /**
+     * Returns the request headers that carry the theme of the theme resolver type
+     */
+    @Nonnull
+    private static List<String> getVaryHeaders(@Nonnull ThemeChangeProperties properties) {
+        List<String> result = new ArrayList<>(2);
+        ThemeResolverType type = properties.getThemeResolverType();
+        if (type == ThemeResolverType.FIXED) {
+            return result;
+        }
+        if (type == ThemeResolverType.HEADER && StringUtils.isNotBlank(properties.getHeaderThemeResolver().getHeaderName())) {
+            result.add(properties.getHeaderThemeResolver().getHeaderName());
+        }
+        result.add(HttpHeaders.COOKIE);
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.config;
+
+
+import java.util.Collections;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.UiApplicationContextUtils;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import com.yookue.commonplexus.javaseutil.constant.AssertMessageConst;
+import com.yookue.springstarter.themechange.handler.ThemeDescriptorHandler;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+
+
+/**
+ * Configuration of theme descriptor endpoint for theme change
+ *
+ * @author David Hsing
+ */
+@Configuration
+@ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AutoConfigureAfter(value = ThemeChangeSourceConfiguration.class)
+@EnableConfigurationProperties(value = ThemeChangeProperties.class)
+public class ThemeChangeDescriptorConfiguration {
+    public static final String PROPERTIES_PREFIX = ThemeChangeViewConfiguration.PROPERTIES_PREFIX + ".descriptor";    // $NON-NLS-1$
+    public static final String DESCRIPTOR_HANDLER = "themeDescriptorHandler";    // $NON-NLS-1$
+    public static final String DESCRIPTOR_HANDLER_MAPPING = "themeDescriptorHandlerMapping";    // $NON-NLS-1$
+
+    @Bean(name = DESCRIPTOR_HANDLER)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "enabled", havingValue = "true")
+    public ThemeDescriptorHandler descriptorHandler(@Nonnull ThemeChangeProperties properties, @Nonnull @Qualifier(value = UiApplicationContextUtils.THEME_SOURCE_BEAN_NAME) ThemeSource themeSource) {
+        return new ThemeDescriptorHandler(properties, themeSource);
+    }
+
+    @Bean(name = DESCRIPTOR_HANDLER_MAPPING)
+    @ConditionalOnMissingBean(name = DESCRIPTOR_HANDLER_MAPPING)
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "enabled", havingValue = "true")
+    public SimpleUrlHandlerMapping descriptorHandlerMapping(@Nonnull ThemeChangeProperties properties, @Nonnull @Qualifier(value = DESCRIPTOR_HANDLER) ThemeDescriptorHandler handler) {
+        ThemeChangeProperties.Descriptor props = properties.getDescriptor();
+        Assert.hasText(props.getPath(), AssertMessageConst.NOT_BLANK);
+        return new SimpleUrlHandlerMapping(Collections.singletonMap(props.getPath(), handler), Optional.ofNullable(props.getHandlerOrder()).orElse(Ordered.HIGHEST_PRECEDENCE));
+    }
+}
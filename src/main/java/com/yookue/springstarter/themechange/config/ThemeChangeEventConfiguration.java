@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.config;
+
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.yookue.springstarter.themechange.event.JdbcThemeEventSink;
+import com.yookue.springstarter.themechange.event.LoggingThemeEventSink;
+import com.yookue.springstarter.themechange.event.ThemeEventRecorder;
+import com.yookue.springstarter.themechange.event.ThemeEventSink;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+
+
+/**
+ * Configuration of theme change events for theme change
+ *
+ * @author David Hsing
+ */
+@Configuration
+@ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter(name = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")
+@EnableConfigurationProperties(value = ThemeChangeProperties.class)
+@Import(value = {ThemeChangeEventConfiguration.Jdbc.class, ThemeChangeEventConfiguration.Logging.class})
+public class ThemeChangeEventConfiguration {
+    public static final String PROPERTIES_PREFIX = ThemeChangeViewConfiguration.PROPERTIES_PREFIX + ".events";    // $NON-NLS-1$
+    public static final String EVENT_SINK = "themeEventSink";    // $NON-NLS-1$
+    public static final String EVENT_RECORDER = "themeEventRecorder";    // $NON-NLS-1$
+
+    @Bean(name = EVENT_RECORDER)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "enabled", havingValue = "true")
+    public ThemeEventRecorder eventRecorder(@Nonnull ThemeChangeProperties properties, @Nonnull ThemeEventSink eventSink) {
+        ThemeChangeProperties.Events props = properties.getEvents();
+        ThemeEventRecorder result = new ThemeEventRecorder(eventSink, Optional.ofNullable(props.getBufferSize()).orElse(8192));
+        Optional.ofNullable(properties.getThemeResolverType()).ifPresent(type -> result.setResolverType(type.getValue()));
+        result.setIncludeResolutions(BooleanUtils.isTrue(props.getIncludeResolutions()));
+        Optional.ofNullable(props.getBatchSize()).ifPresent(result::setBatchSize);
+        result.setDrainInterval(props.getDrainInterval());
+        return result;
+    }
+
+
+    @Order(value = 0)
+    @ConditionalOnClass(value = JdbcTemplate.class)
+    @ConditionalOnBean(value = DataSource.class)
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "sink-type", havingValue = "jdbc")
+    static class Jdbc {
+        @Bean(name = EVENT_SINK)
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "enabled", havingValue = "true")
+        public ThemeEventSink eventSink(@Nonnull ThemeChangeProperties properties, @Nonnull DataSource dataSource) {
+            String tableName = StringUtils.defaultIfBlank(properties.getEvents().getTableName(), JdbcThemeEventSink.DEFAULT_TABLE_NAME);
+            return new JdbcThemeEventSink(new JdbcTemplate(dataSource), tableName);
+        }
+    }
+
+
+    @Order(value = 1)
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "enabled", havingValue = "true")
+    static class Logging {
+        @Bean(name = EVENT_SINK)
+        @ConditionalOnMissingBean
+        public ThemeEventSink eventSink() {
+            return new LoggingThemeEventSink();
+        }
+    }
+}
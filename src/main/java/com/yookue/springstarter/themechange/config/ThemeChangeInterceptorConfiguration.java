@@ -19,6 +19,8 @@ package com.yookue.springstarter.themechange.config;
 
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
@@ -33,7 +35,13 @@ import org.springframework.web.servlet.theme.ThemeChangeInterceptor;
 import com.yookue.commonplexus.javaseutil.constant.AssertMessageConst;
 import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
 import com.yookue.commonplexus.javaseutil.util.StringUtilsWraps;
+import com.yookue.springstarter.themechange.interceptor.PathMatchingInterceptor;
+import com.yookue.springstarter.themechange.interceptor.ThemeChangeSwitchInterceptor;
 import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.support.CompositeThemeChangeRecorder;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
 import lombok.RequiredArgsConstructor;
 
 
@@ -49,6 +57,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ThemeChangeInterceptorConfiguration implements WebMvcConfigurer {
     private final ThemeChangeProperties properties;
+    private final ObjectProvider<ThemeChangeRecorder> recorders;
 
     /**
      * Usage:
@@ -59,7 +68,9 @@ public class ThemeChangeInterceptorConfiguration implements WebMvcConfigurer {
     @Bean
     @ConditionalOnMissingBean
     public ThemeChangeInterceptor themeChangeInterceptor() {
-        ThemeChangeInterceptor result = new ThemeChangeInterceptor();
+        ThemeChangeSwitchInterceptor result = new ThemeChangeSwitchInterceptor(ThemeChangeUtils.getAllowedThemes(properties));
+        result.setRecorder(CompositeThemeChangeRecorder.of(recorders));
+        result.setShortCircuit(BooleanUtils.isTrue(properties.getThemeInterceptor().getShortCircuit()));
         StringUtilsWraps.ifNotBlank(properties.getThemeInterceptor().getParamName(), result::setParamName);
         return result;
     }
@@ -68,6 +79,11 @@ public class ThemeChangeInterceptorConfiguration implements WebMvcConfigurer {
     public void addInterceptors(@Nonnull InterceptorRegistry registry) {
         ThemeChangeProperties.ThemeInterceptor props = properties.getThemeInterceptor();
         Assert.notEmpty(props.getInterceptPaths(), AssertMessageConst.NOT_EMPTY);
+        if (BooleanUtils.isTrue(props.getPrecompilePaths())) {
+            InterceptorRegistration registration = registry.addInterceptor(new PathMatchingInterceptor(themeChangeInterceptor(), new ThemePathMatcher(props.getInterceptPaths(), props.getExcludePaths())));
+            Optional.ofNullable(props.getInterceptorOrder()).ifPresent(registration::order);
+            return;
+        }
         InterceptorRegistration registration = registry.addInterceptor(themeChangeInterceptor()).addPathPatterns(props.getInterceptPaths());
         Optional.ofNullable(props.getInterceptorOrder()).ifPresent(registration::order);
         CollectionPlainWraps.ifNotEmpty(props.getExcludePaths(), element -> registration.excludePathPatterns(element));
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.config;
+
+
+import javax.annotation.Nonnull;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.ui.context.ThemeSource;
+import com.yookue.springstarter.themechange.interceptor.ThemeChangeViewInterceptor;
+import com.yookue.springstarter.themechange.metrics.MicrometerThemeChangeRecorder;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+
+
+/**
+ * Configuration of Micrometer metrics for theme change
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.metrics.MicrometerThemeChangeRecorder
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(value = MeterRegistry.class)
+@ConditionalOnBean(value = MeterRegistry.class)
+@AutoConfigureAfter(name = {"org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration", "org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration"})
+@EnableConfigurationProperties(value = ThemeChangeProperties.class)
+public class ThemeChangeMetricsConfiguration {
+    public static final String PROPERTIES_PREFIX = ThemeChangeViewConfiguration.PROPERTIES_PREFIX + ".metrics";    // $NON-NLS-1$
+    public static final String METRICS_RECORDER = "themeChangeMetricsRecorder";    // $NON-NLS-1$
+
+    @Bean(name = METRICS_RECORDER)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MicrometerThemeChangeRecorder metricsRecorder(@Nonnull ThemeChangeProperties properties, @Nonnull MeterRegistry registry, @Nonnull ObjectProvider<ThemeSource> themeSources, @Nonnull ObjectProvider<ThemeChangeViewInterceptor> viewInterceptors) {
+        String prefix = StringUtils.defaultIfBlank(properties.getMetrics().getPrefix(), ThemeChangeProperties.Metrics.DEFAULT_PREFIX);
+        MicrometerThemeChangeRecorder result = new MicrometerThemeChangeRecorder(registry, prefix, ThemeChangeUtils.getKnownThemes(properties));
+        result.bindThemeSource(themeSources::getIfUnique);
+        result.bindTagNamesCache(() -> {
+            ThemeChangeViewInterceptor interceptor = viewInterceptors.getIfUnique();
+            return (interceptor == null) ? null : interceptor.getTagNamesCache();
+        });
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.config;
+
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.yookue.springstarter.themechange.preference.InMemoryThemePreferenceStore;
+import com.yookue.springstarter.themechange.preference.JdbcThemePreferenceStore;
+import com.yookue.springstarter.themechange.preference.ThemePreferenceCache;
+import com.yookue.springstarter.themechange.preference.ThemePreferenceStore;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+
+
+/**
+ * Configuration of principal preference store for theme change
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.resolver.PreferenceThemeResolver
+ */
+@Configuration
+@ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "theme-resolver-type", havingValue = "preference")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AutoConfigureAfter(name = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")
+@EnableConfigurationProperties(value = ThemeChangeProperties.class)
+@Import(value = {ThemeChangePreferenceConfiguration.Jdbc.class, ThemeChangePreferenceConfiguration.Memory.class})
+public class ThemeChangePreferenceConfiguration {
+    public static final String PROPERTIES_PREFIX = ThemeChangeViewConfiguration.PROPERTIES_PREFIX + ".preference-theme-resolver";    // $NON-NLS-1$
+    public static final String PREFERENCE_STORE = "themePreferenceStore";    // $NON-NLS-1$
+    public static final String PREFERENCE_CACHE = "themePreferenceCache";    // $NON-NLS-1$
+
+    @Bean(name = PREFERENCE_CACHE)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ThemePreferenceCache preferenceCache(@Nonnull ThemeChangeProperties properties, @Nonnull ThemePreferenceStore preferenceStore) {
+        ThemeChangeProperties.PreferenceThemeResolver props = properties.getPreferenceThemeResolver();
+        ThemePreferenceCache cache = new ThemePreferenceCache(preferenceStore);
+        Optional.ofNullable(props.getCacheMaximumSize()).ifPresent(cache::setMaximumSize);
+        cache.setTimeToLive(props.getCacheTimeToLive());
+        cache.setWriteBehind(BooleanUtils.isTrue(props.getWriteBehind()));
+        cache.setFlushInterval(props.getFlushInterval());
+        Optional.ofNullable(props.getBatchSize()).ifPresent(cache::setBatchSize);
+        return cache;
+    }
+
+
+    @Order(value = 0)
+    @ConditionalOnClass(value = JdbcTemplate.class)
+    @ConditionalOnBean(value = DataSource.class)
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX, name = "store-type", havingValue = "jdbc")
+    static class Jdbc {
+        @Bean(name = PREFERENCE_STORE)
+        @ConditionalOnMissingBean
+        public ThemePreferenceStore preferenceStore(@Nonnull ThemeChangeProperties properties, @Nonnull DataSource dataSource) {
+            String tableName = StringUtils.defaultIfBlank(properties.getPreferenceThemeResolver().getTableName(), JdbcThemePreferenceStore.DEFAULT_TABLE_NAME);
+            return new JdbcThemePreferenceStore(new JdbcTemplate(dataSource), tableName);
+        }
+    }
+
+
+    @Order(value = 1)
+    static class Memory {
+        @Bean(name = PREFERENCE_STORE)
+        @ConditionalOnMissingBean
+        public ThemePreferenceStore preferenceStore() {
+            return new InMemoryThemePreferenceStore();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.config;
+
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.server.WebFilter;
+import com.yookue.commonplexus.javaseutil.util.StringUtilsWraps;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.reactive.CookieServerThemeResolver;
+import com.yookue.springstarter.themechange.reactive.FixedServerThemeResolver;
+import com.yookue.springstarter.themechange.reactive.HeaderServerThemeResolver;
+import com.yookue.springstarter.themechange.reactive.ServerThemeResolver;
+import com.yookue.springstarter.themechange.reactive.SessionServerThemeResolver;
+import com.yookue.springstarter.themechange.reactive.ThemeChangeModelAdvice;
+import com.yookue.springstarter.themechange.reactive.ThemeChangeWebFilter;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+
+
+/**
+ * Configuration of reactive theme change
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.reactive.ServerThemeResolver
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass(value = WebFilter.class)
+@EnableConfigurationProperties(value = ThemeChangeProperties.class)
+public class ThemeChangeReactiveConfiguration {
+    public static final String THEME_RESOLVER = "serverThemeResolver";    // $NON-NLS-1$
+    public static final String WEB_FILTER = "themeChangeWebFilter";    // $NON-NLS-1$
+    public static final String MODEL_ADVICE = "themeChangeModelAdvice";    // $NON-NLS-1$
+
+    @Bean(name = THEME_RESOLVER)
+    @ConditionalOnMissingBean
+    public ServerThemeResolver serverThemeResolver(@Nonnull ThemeChangeProperties properties) {
+        switch (properties.getThemeResolverType()) {
+            case SESSION:
+                SessionServerThemeResolver sessionResolver = new SessionServerThemeResolver();
+                StringUtilsWraps.ifNotBlank(properties.getSessionThemeResolver().getDefaultThemeName(), sessionResolver::setDefaultThemeName);
+                return sessionResolver;
+            case FIXED:
+                return new FixedServerThemeResolver();
+            case HEADER:
+                HeaderServerThemeResolver headerResolver = new HeaderServerThemeResolver(properties.getCookieThemeResolver().getCookieName());
+                ThemeChangeProperties.HeaderThemeResolver headerProps = properties.getHeaderThemeResolver();
+                StringUtilsWraps.ifNotBlank(headerProps.getHeaderName(), headerResolver::setHeaderName);
+                if (BooleanUtils.isNotFalse(headerProps.getAllowedOnly())) {
+                    headerResolver.setAllowedThemes(ThemeChangeUtils.getAllowedThemes(properties));
+                }
+                return configureCookie(headerResolver, properties.getCookieThemeResolver());
+            case PREFERENCE:
+                throw new IllegalStateException("Theme resolver type 'preference' is not supported by reactive web applications, please declare a ServerThemeResolver bean instead");
+            default:
+                return configureCookie(new CookieServerThemeResolver(properties.getCookieThemeResolver().getCookieName()), properties.getCookieThemeResolver());
+        }
+    }
+
+    /**
+     * Usage:
+     * <pre><code>
+     *     &lt;a href="?theme=example"&gt;Example&lt;/a&gt;
+     * </code></pre>
+     */
+    @Bean(name = WEB_FILTER)
+    @ConditionalOnMissingBean
+    public ThemeChangeWebFilter themeChangeWebFilter(@Nonnull ThemeChangeProperties properties, @Nonnull ServerThemeResolver themeResolver) {
+        ThemeChangeProperties.ThemeInterceptor props = properties.getThemeInterceptor();
+        ThemeChangeWebFilter result = new ThemeChangeWebFilter(themeResolver, ThemeChangeUtils.getAllowedThemes(properties), new ThemePathMatcher(props.getInterceptPaths(), props.getExcludePaths()));
+        StringUtilsWraps.ifNotBlank(props.getParamName(), result::setParamName);
+        Optional.ofNullable(props.getInterceptorOrder()).ifPresent(result::setOrder);
+        return result;
+    }
+
+    @Bean(name = MODEL_ADVICE)
+    @ConditionalOnMissingBean
+    public ThemeChangeModelAdvice themeChangeModelAdvice(@Nonnull ThemeChangeProperties properties) {
+        return new ThemeChangeModelAdvice(properties);
+    }
+
+    private static CookieServerThemeResolver configureCookie(@Nonnull CookieServerThemeResolver cookieResolver, @Nonnull ThemeChangeProperties.CookieThemeResolver props) {
+        StringUtilsWraps.ifNotBlank(props.getCookiePath(), cookieResolver::setCookiePath);
+        StringUtilsWraps.ifNotBlank(props.getCookieDomain(), cookieResolver::setCookieDomain);
+        cookieResolver.setCookieMaxAge(props.getCookieMaxAge());
+        cookieResolver.setCookieHttpOnly(BooleanUtils.isTrue(props.getCookieHttpOnly()));
+        cookieResolver.setCookieSecure(BooleanUtils.isTrue(props.getCookieSecure()));
+        StringUtilsWraps.ifNotBlank(props.getCookieSameSite(), cookieResolver::setCookieSameSite);
+        Optional.ofNullable(props.getDefaultThemeName()).ifPresent(cookieResolver::setDefaultThemeName);
+        return cookieResolver;
+    }
+}
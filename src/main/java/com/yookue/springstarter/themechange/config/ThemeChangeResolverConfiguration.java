@@ -20,6 +20,7 @@ package com.yookue.springstarter.themechange.config;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
@@ -34,13 +35,23 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.ThemeResolver;
-import org.springframework.web.servlet.theme.CookieThemeResolver;
 import org.springframework.web.servlet.theme.FixedThemeResolver;
 import org.springframework.web.servlet.theme.SessionThemeResolver;
 import com.yookue.commonplexus.javaseutil.util.StringUtilsWraps;
+import com.yookue.springstarter.themechange.preference.ThemePreferenceCache;
 import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.resolver.ConfigurableCookieThemeResolver;
+import com.yookue.springstarter.themechange.resolver.HeaderThemeResolver;
+import com.yookue.springstarter.themechange.resolver.MemoizingThemeResolver;
+import com.yookue.springstarter.themechange.resolver.PreferenceThemeResolver;
+import com.yookue.springstarter.themechange.resolver.RecordingThemeResolver;
+import com.yookue.springstarter.themechange.support.CompositeThemeChangeRecorder;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.support.ThemeContextTaskDecorator;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
 
 
 /**
@@ -55,8 +66,20 @@ import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
 @AutoConfigureAfter(value = DispatcherServletAutoConfiguration.class)
 @AutoConfigureBefore(value = WebMvcAutoConfiguration.class)
 @AutoConfigureOrder(value = Ordered.HIGHEST_PRECEDENCE + 8)
-@Import(value = {ThemeChangeResolverConfiguration.Entry.class, ThemeChangeResolverConfiguration.Cookie.class, ThemeChangeResolverConfiguration.Session.class, ThemeChangeResolverConfiguration.Fixed.class})
+@Import(value = {ThemeChangeResolverConfiguration.Entry.class, ThemeChangeResolverConfiguration.Cookie.class, ThemeChangeResolverConfiguration.Session.class, ThemeChangeResolverConfiguration.Fixed.class, ThemeChangeResolverConfiguration.Header.class, ThemeChangeResolverConfiguration.Preference.class})
 public class ThemeChangeResolverConfiguration {
+    public static final String CONTEXT_TASK_DECORATOR = "themeContextTaskDecorator";    // $NON-NLS-1$
+
+    /**
+     * @see com.yookue.springstarter.themechange.support.ThemeContextTaskDecorator
+     */
+    @Bean(name = CONTEXT_TASK_DECORATOR)
+    @ConditionalOnMissingBean(value = TaskDecorator.class)
+    @ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "propagate-context", havingValue = "true")
+    public TaskDecorator contextTaskDecorator() {
+        return new ThemeContextTaskDecorator();
+    }
+
     @Order(value = 0)
     @EnableConfigurationProperties(value = ThemeChangeProperties.class)
     static class Entry {
@@ -67,23 +90,14 @@ public class ThemeChangeResolverConfiguration {
     @ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "theme-resolver-type", havingValue = "cookie", matchIfMissing = true)
     static class Cookie {
         /**
-         * @see org.springframework.web.servlet.theme.CookieThemeResolver
+         * @see com.yookue.springstarter.themechange.resolver.ConfigurableCookieThemeResolver
          */
         @Bean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
         @ConditionalOnMissingBean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
-        public ThemeResolver themeResolver(@Nonnull ThemeChangeProperties properties) {
-            CookieThemeResolver resolver = new CookieThemeResolver();
-            ThemeChangeProperties.CookieThemeResolver props = properties.getCookieThemeResolver();
-            StringUtilsWraps.ifNotBlank(props.getCookieName(), resolver::setCookieName);
-            StringUtilsWraps.ifNotBlank(props.getCookiePath(), resolver::setCookiePath);
-            StringUtilsWraps.ifNotBlank(props.getCookieDomain(), resolver::setCookieDomain);
-            Optional.ofNullable(props.getCookieMaxAge()).ifPresent(resolver::setCookieMaxAge);
-            props.setCookieHttpOnly(BooleanUtils.isTrue(props.getCookieHttpOnly()));
-            props.setCookieSecure(BooleanUtils.isTrue(props.getCookieSecure()));
-            props.setLanguageTagCompliant(BooleanUtils.isTrue(props.getLanguageTagCompliant()));
-            props.setRejectInvalidCookies(BooleanUtils.isTrue(props.getRejectInvalidCookies()));
-            Optional.ofNullable(props.getDefaultThemeName()).ifPresent(resolver::setDefaultThemeName);
-            return resolver;
+        public ThemeResolver themeResolver(@Nonnull ThemeChangeProperties properties, @Nonnull ObjectProvider<ThemeChangeRecorder> recorders) {
+            ConfigurableCookieThemeResolver resolver = new ConfigurableCookieThemeResolver();
+            configureCookie(resolver, properties, recorders);
+            return decorateResolver(resolver, properties, recorders);
         }
     }
 
@@ -96,10 +110,10 @@ public class ThemeChangeResolverConfiguration {
          */
         @Bean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
         @ConditionalOnMissingBean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
-        public ThemeResolver themeResolver(@Nonnull ThemeChangeProperties properties) {
+        public ThemeResolver themeResolver(@Nonnull ThemeChangeProperties properties, @Nonnull ObjectProvider<ThemeChangeRecorder> recorders) {
             SessionThemeResolver resolver = new SessionThemeResolver();
             StringUtilsWraps.ifNotBlank(properties.getSessionThemeResolver().getDefaultThemeName(), resolver::setDefaultThemeName);
-            return resolver;
+            return decorateResolver(resolver, properties, recorders);
         }
     }
 
@@ -112,8 +126,65 @@ public class ThemeChangeResolverConfiguration {
          */
         @Bean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
         @ConditionalOnMissingBean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
-        public ThemeResolver themeResolver() {
-            return new FixedThemeResolver();
+        public ThemeResolver themeResolver(@Nonnull ThemeChangeProperties properties, @Nonnull ObjectProvider<ThemeChangeRecorder> recorders) {
+            return decorateResolver(new FixedThemeResolver(), properties, recorders);
+        }
+    }
+
+
+    @Order(value = 4)
+    @ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "theme-resolver-type", havingValue = "header")
+    static class Header {
+        /**
+         * @see com.yookue.springstarter.themechange.resolver.HeaderThemeResolver
+         */
+        @Bean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
+        @ConditionalOnMissingBean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
+        public ThemeResolver themeResolver(@Nonnull ThemeChangeProperties properties, @Nonnull ObjectProvider<ThemeChangeRecorder> recorders) {
+            HeaderThemeResolver resolver = new HeaderThemeResolver();
+            ThemeChangeProperties.HeaderThemeResolver props = properties.getHeaderThemeResolver();
+            StringUtilsWraps.ifNotBlank(props.getHeaderName(), resolver::setHeaderName);
+            resolver.setAllowedOnly(BooleanUtils.isNotFalse(props.getAllowedOnly()));
+            configureCookie(resolver, properties, recorders);
+            return decorateResolver(resolver, properties, recorders);
+        }
+    }
+
+
+    @Order(value = 5)
+    @ConditionalOnProperty(prefix = ThemeChangeViewConfiguration.PROPERTIES_PREFIX, name = "theme-resolver-type", havingValue = "preference")
+    static class Preference {
+        /**
+         * @see com.yookue.springstarter.themechange.resolver.PreferenceThemeResolver
+         */
+        @Bean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
+        @ConditionalOnMissingBean(name = DispatcherServlet.THEME_RESOLVER_BEAN_NAME)
+        public ThemeResolver themeResolver(@Nonnull ThemeChangeProperties properties, @Nonnull ThemePreferenceCache preferenceCache, @Nonnull ObjectProvider<ThemeChangeRecorder> recorders) {
+            PreferenceThemeResolver resolver = new PreferenceThemeResolver(preferenceCache);
+            configureCookie(resolver, properties, recorders);
+            return decorateResolver(resolver, properties, recorders);
         }
     }
+
+
+    private static ThemeResolver decorateResolver(@Nonnull ThemeResolver resolver, @Nonnull ThemeChangeProperties properties, @Nonnull ObjectProvider<ThemeChangeRecorder> recorders) {
+        ThemeChangeRecorder recorder = CompositeThemeChangeRecorder.of(recorders);
+        ThemeResolver result = (recorder == null) ? resolver : new RecordingThemeResolver(resolver, recorder);
+        return BooleanUtils.isTrue(properties.getMemoizeThemeResolver()) ? new MemoizingThemeResolver(result) : result;
+    }
+
+    private static void configureCookie(@Nonnull ConfigurableCookieThemeResolver resolver, @Nonnull ThemeChangeProperties properties, @Nonnull ObjectProvider<ThemeChangeRecorder> recorders) {
+        ThemeChangeProperties.CookieThemeResolver props = properties.getCookieThemeResolver();
+        StringUtilsWraps.ifNotBlank(props.getCookieName(), resolver::setCookieName);
+        StringUtilsWraps.ifNotBlank(props.getCookiePath(), resolver::setCookiePath);
+        StringUtilsWraps.ifNotBlank(props.getCookieDomain(), resolver::setCookieDomain);
+        Optional.ofNullable(props.getCookieMaxAge()).ifPresent(resolver::setCookieMaxAge);
+        resolver.setCookieHttpOnly(BooleanUtils.isTrue(props.getCookieHttpOnly()));
+        resolver.setCookieSecure(BooleanUtils.isTrue(props.getCookieSecure()));
+        StringUtilsWraps.ifNotBlank(props.getCookieSameSite(), resolver::setCookieSameSite);
+        resolver.setRejectInvalidCookies(BooleanUtils.isNotFalse(props.getRejectInvalidCookies()));
+        resolver.setAllowedThemes(ThemeChangeUtils.getAllowedThemes(properties));
+        resolver.setRecorder(CompositeThemeChangeRecorder.of(recorders));
+        Optional.ofNullable(props.getDefaultThemeName()).ifPresent(resolver::setDefaultThemeName);
+    }
 }
@@ -17,8 +17,15 @@
 package com.yookue.springstarter.themechange.config;
 
 
+import java.io.FileNotFoundException;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
@@ -28,7 +35,27 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.ui.context.ThemeSource;
 import org.springframework.ui.context.support.ResourceBundleThemeSource;
 import org.springframework.ui.context.support.UiApplicationContextUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import com.yookue.commonplexus.javaseutil.constant.AssertMessageConst;
+import com.yookue.commonplexus.javaseutil.util.StringUtilsWraps;
+import com.yookue.springstarter.themechange.enumeration.ThemeSourceType;
 import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.resource.ResourceUrlThemeSource;
+import com.yookue.springstarter.themechange.source.CachingThemeSource;
+import com.yookue.springstarter.themechange.source.CompactThemeSource;
+import com.yookue.springstarter.themechange.source.FileSystemThemeSource;
+import com.yookue.springstarter.themechange.source.MemoizingThemeSource;
+import com.yookue.springstarter.themechange.source.PrecomputedThemeSource;
+import com.yookue.springstarter.themechange.source.ThemeSourcePreloader;
+import com.yookue.springstarter.themechange.support.ThemeChangeSnapshot;
+import com.yookue.springstarter.themechange.support.ThemeChangeValidator;
+import com.yookue.springstarter.themechange.tenant.HeaderThemeTenantResolver;
+import com.yookue.springstarter.themechange.tenant.TenantThemeSource;
+import com.yookue.springstarter.themechange.tenant.ThemeTenantResolver;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
 
 
 /**
@@ -44,17 +71,139 @@ import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
 @EnableConfigurationProperties(value = ThemeChangeProperties.class)
 @SuppressWarnings({"JavadocDeclaration", "JavadocLinkAsPlainText"})
 public class ThemeChangeSourceConfiguration {
+    public static final String PROPERTIES_PREFIX = ThemeChangeViewConfiguration.PROPERTIES_PREFIX + ".theme-source";    // $NON-NLS-1$
+
     /**
      * @see org.springframework.ui.context.support.UiApplicationContextUtils#initThemeSource
      */
     @Bean(name = UiApplicationContextUtils.THEME_SOURCE_BEAN_NAME)
     @ConditionalOnMissingBean(name = UiApplicationContextUtils.THEME_SOURCE_BEAN_NAME)
-    public ThemeSource themeSource(@Nonnull ThemeChangeProperties properties) {
-        ResourceBundleThemeSource result = new ResourceBundleThemeSource();
+    public ThemeSource themeSource(@Nonnull ThemeChangeProperties properties, @Nonnull ObjectProvider<ResourceUrlProvider> urlProviders, @Nonnull ObjectProvider<ThemeTenantResolver> tenantResolvers) throws FileNotFoundException {
+        ThemeSource result = createThemeSource(properties);
+        if (BooleanUtils.isTrue(properties.getThemeSource().getTenant().getEnabled())) {
+            result = tenantThemeSource(properties.getThemeSource(), result, tenantResolvers);
+        }
+        ThemeChangeProperties.Assets assetsProps = properties.getAssets();
+        if (BooleanUtils.isTrue(assetsProps.getEnabled()) && BooleanUtils.isNotFalse(assetsProps.getRewriteMessages()) && StringUtils.isNotBlank(assetsProps.getUrlPrefix())) {
+            result = new ResourceUrlThemeSource(result, assetsProps.getUrlPrefix(), urlProviders::getIfAvailable);
+        }
+        return BooleanUtils.isTrue(properties.getMemoizeThemeResolver()) ? new MemoizingThemeSource(result) : result;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX + ".preload", name = "enabled", havingValue = "true")
+    public ThemeSourcePreloader themeSourcePreloader(@Nonnull ThemeChangeProperties properties, @Nonnull @Qualifier(value = UiApplicationContextUtils.THEME_SOURCE_BEAN_NAME) ThemeSource themeSource) {
+        ThemeChangeProperties.ThemeSource.Preload props = properties.getThemeSource().getPreload();
+        ThemeSourcePreloader result = new ThemeSourcePreloader(themeSource);
+        result.setThemeNames(CollectionUtils.isEmpty(props.getThemes()) ? ThemeChangeUtils.getKnownThemes(properties) : ThemeChangeUtils.toThemeSet(props.getThemes()));
+        Optional.ofNullable(props.getLocales()).ifPresent(result::setLocales);
+        Optional.ofNullable(props.getThreads()).ifPresent(result::setThreads);
+        Optional.ofNullable(props.getTimeout()).map(Duration::toMillis).ifPresent(result::setTimeoutMillis);
+        result.setFailFast(BooleanUtils.isTrue(props.getFailFast()));
+        return result;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = PROPERTIES_PREFIX + ".validation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ThemeChangeValidator themeChangeValidator(@Nonnull ThemeChangeProperties properties, @Nonnull @Qualifier(value = UiApplicationContextUtils.THEME_SOURCE_BEAN_NAME) ThemeSource themeSource) {
+        ThemeChangeProperties.ThemeSource.Validation props = properties.getThemeSource().getValidation();
+        ThemeChangeValidator result = new ThemeChangeValidator(ThemeChangeSnapshot.of(properties), themeSource);
+        result.setCheckKeys(BooleanUtils.isNotFalse(props.getCheckKeys()));
+        Optional.ofNullable(props.getLocale()).ifPresent(result::setLocale);
+        result.setFailFast(BooleanUtils.isTrue(props.getFailFast()));
+        return result;
+    }
+
+    private ThemeSource createThemeSource(@Nonnull ThemeChangeProperties properties) throws FileNotFoundException {
         ThemeChangeProperties.ThemeSource props = properties.getThemeSource();
+        if (props.getType() == ThemeSourceType.FILESYSTEM) {
+            return fileSystemThemeSource(props);
+        }
+        if (props.getType() == ThemeSourceType.COMPACT) {
+            return compactThemeSource(props);
+        }
+        if (props.getType() == ThemeSourceType.PRECOMPUTED) {
+            return precomputedThemeSource(properties);
+        }
+        if (BooleanUtils.isTrue(props.getCache().getEnabled())) {
+            return cachingThemeSource(props);
+        }
+        ResourceBundleThemeSource result = new ResourceBundleThemeSource();
         result.setBasenamePrefix(props.getBasenamePrefix());
         result.setDefaultEncoding(props.getDefaultEncoding());
         result.setFallbackToSystemLocale(BooleanUtils.isTrue(props.getFallbackToSystemLocale()));
         return result;
     }
+
+    private TenantThemeSource tenantThemeSource(@Nonnull ThemeChangeProperties.ThemeSource props, @Nonnull ThemeSource defaultSource, @Nonnull ObjectProvider<ThemeTenantResolver> tenantResolvers) {
+        ThemeChangeProperties.ThemeSource.Tenant tenantProps = props.getTenant();
+        Assert.hasText(tenantProps.getBasenamePrefix(), AssertMessageConst.NOT_BLANK);
+        ThemeTenantResolver tenantResolver = tenantResolvers.getIfAvailable(() -> {
+            HeaderThemeTenantResolver resolver = new HeaderThemeTenantResolver();
+            StringUtilsWraps.ifNotBlank(tenantProps.getHeaderName(), resolver::setHeaderName);
+            return resolver;
+        });
+        TenantThemeSource result = new TenantThemeSource(defaultSource, tenantResolver, tenant -> {
+            CachingThemeSource source = new CachingThemeSource();
+            source.setBasenamePrefix(StringUtils.replace(tenantProps.getBasenamePrefix(), "{tenant}", tenant));    // $NON-NLS-1$
+            source.setDefaultEncoding(props.getDefaultEncoding());
+            source.setFallbackToSystemLocale(BooleanUtils.isTrue(props.getFallbackToSystemLocale()));
+            source.setSupportedLocales(props.getLocales());
+            Optional.ofNullable(tenantProps.getThemeCacheSize()).ifPresent(source::setMaximumSize);
+            return source;
+        });
+        Optional.ofNullable(tenantProps.getMaximumSize()).ifPresent(result::setMaximumSize);
+        result.setIdleTimeout(tenantProps.getIdleTimeout());
+        return result;
+    }
+
+    private CachingThemeSource cachingThemeSource(@Nonnull ThemeChangeProperties.ThemeSource props) {
+        CachingThemeSource result = new CachingThemeSource();
+        ThemeChangeProperties.ThemeSource.Cache cacheProps = props.getCache();
+        result.setBasenamePrefix(props.getBasenamePrefix());
+        result.setDefaultEncoding(props.getDefaultEncoding());
+        result.setFallbackToSystemLocale(BooleanUtils.isTrue(props.getFallbackToSystemLocale()));
+        result.setSupportedLocales(props.getLocales());
+        Optional.ofNullable(cacheProps.getMaximumSize()).ifPresent(result::setMaximumSize);
+        Optional.ofNullable(cacheProps.getNegativeMaximumSize()).ifPresent(result::setNegativeMaximumSize);
+        result.setTimeToLive(cacheProps.getTimeToLive());
+        result.setNegativeCaching(BooleanUtils.isNotFalse(cacheProps.getNegativeCaching()));
+        result.setNegativeTimeToLive(cacheProps.getNegativeTimeToLive());
+        return result;
+    }
+
+    private FileSystemThemeSource fileSystemThemeSource(@Nonnull ThemeChangeProperties.ThemeSource props) throws FileNotFoundException {
+        ThemeChangeProperties.ThemeSource.FileSystem fileProps = props.getFileSystem();
+        Assert.hasText(fileProps.getDirectory(), AssertMessageConst.NOT_BLANK);
+        FileSystemThemeSource result = new FileSystemThemeSource(ResourceUtils.getFile(fileProps.getDirectory()).toPath());
+        result.setBasenamePrefix(props.getBasenamePrefix());
+        Optional.ofNullable(props.getDefaultEncoding()).map(Charset::forName).ifPresent(result::setDefaultEncoding);
+        result.setWatchEnabled(BooleanUtils.isNotFalse(fileProps.getWatchEnabled()));
+        Optional.ofNullable(fileProps.getWatchDelay()).map(Duration::toMillis).ifPresent(result::setWatchDelayMillis);
+        return result;
+    }
+
+    private CompactThemeSource compactThemeSource(@Nonnull ThemeChangeProperties.ThemeSource props) {
+        CompactThemeSource result = new CompactThemeSource();
+        result.setBasenamePrefix(props.getBasenamePrefix());
+        Optional.ofNullable(props.getDefaultEncoding()).map(Charset::forName).ifPresent(result::setDefaultEncoding);
+        result.setFallbackToSystemLocale(BooleanUtils.isTrue(props.getFallbackToSystemLocale()));
+        result.setSupportedLocales(props.getLocales());
+        return result;
+    }
+
+    private PrecomputedThemeSource precomputedThemeSource(@Nonnull ThemeChangeProperties properties) {
+        ThemeChangeProperties.ThemeSource props = properties.getThemeSource();
+        ThemeChangeProperties.ThemeSource.Precomputed precomputedProps = props.getPrecomputed();
+        PrecomputedThemeSource result = new PrecomputedThemeSource();
+        result.setBasenamePrefix(props.getBasenamePrefix());
+        Optional.ofNullable(props.getDefaultEncoding()).map(Charset::forName).ifPresent(result::setDefaultEncoding);
+        result.setFallbackToSystemLocale(BooleanUtils.isTrue(props.getFallbackToSystemLocale()));
+        result.setThemeNames(CollectionUtils.isEmpty(precomputedProps.getThemes()) ? ThemeChangeUtils.getKnownThemes(properties) : precomputedProps.getThemes());
+        result.setSupportedLocales(CollectionUtils.isEmpty(precomputedProps.getLocales()) ? props.getLocales() : precomputedProps.getLocales());
+        result.setParentThemes(precomputedProps.getParents());
+        return result;
+    }
 }
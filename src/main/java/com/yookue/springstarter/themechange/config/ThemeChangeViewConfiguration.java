@@ -19,6 +19,8 @@ package com.yookue.springstarter.themechange.config;
 
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
@@ -31,8 +33,13 @@ import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import com.yookue.commonplexus.javaseutil.constant.AssertMessageConst;
 import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
+import com.yookue.springstarter.themechange.interceptor.PathMatchingInterceptor;
 import com.yookue.springstarter.themechange.interceptor.ThemeChangeViewInterceptor;
 import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.support.CompositeThemeChangeRecorder;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.support.ThemeChangeSnapshot;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
 import lombok.RequiredArgsConstructor;
 
 
@@ -50,17 +57,25 @@ public class ThemeChangeViewConfiguration implements WebMvcConfigurer {
     public static final String PROPERTIES_PREFIX = "spring.theme-change";    // $NON-NLS-1$
     public static final String VIEW_INTERCEPTOR = "themeChangeViewInterceptor";    // $NON-NLS-1$
     private final ThemeChangeProperties properties;
+    private final ObjectProvider<ThemeChangeRecorder> recorders;
 
     @Bean(name = VIEW_INTERCEPTOR)
     @ConditionalOnMissingBean
     public ThemeChangeViewInterceptor viewInterceptor() {
-        return new ThemeChangeViewInterceptor(properties);
+        ThemeChangeViewInterceptor result = new ThemeChangeViewInterceptor(ThemeChangeSnapshot.of(properties));
+        result.setRecorder(CompositeThemeChangeRecorder.of(recorders));
+        return result;
     }
 
     @Override
     public void addInterceptors(@Nonnull InterceptorRegistry registry) {
         ThemeChangeProperties.ModelAndView props = properties.getModelAndView();
         Assert.notEmpty(props.getInterceptPaths(), AssertMessageConst.NOT_EMPTY);
+        if (BooleanUtils.isTrue(props.getPrecompilePaths())) {
+            InterceptorRegistration registration = registry.addInterceptor(new PathMatchingInterceptor(viewInterceptor(), new ThemePathMatcher(props.getInterceptPaths(), props.getExcludePaths())));
+            Optional.ofNullable(props.getInterceptorOrder()).ifPresent(registration::order);
+            return;
+        }
         InterceptorRegistration registration = registry.addInterceptor(viewInterceptor()).addPathPatterns(props.getInterceptPaths());
         Optional.ofNullable(props.getInterceptorOrder()).ifPresent(registration::order);
         CollectionPlainWraps.ifNotEmpty(props.getExcludePaths(), element -> registration.excludePathPatterns(element));
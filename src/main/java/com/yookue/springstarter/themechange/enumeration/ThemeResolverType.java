@@ -33,7 +33,9 @@ import lombok.Getter;
 public enum ThemeResolverType implements ValueEnum<String> {
     COOKIE("cookie"),    // $NON-NLS-1$
     SESSION("session"),    // $NON-NLS-1$
-    FIXED("fixed");    // $NON-NLS-1$
+    FIXED("fixed"),    // $NON-NLS-1$
+    HEADER("header"),    // $NON-NLS-1$
+    PREFERENCE("preference");    // $NON-NLS-1$
 
     private final String value;
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.event;
+
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.util.Assert;
+import lombok.Getter;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.event.ThemeEventSink} that inserts the events into a database table with batch statements
+ * <p>
+ * The table is created by {@code META-INF/theme-change/theme-event-schema.sql}
+ *
+ * @author David Hsing
+ */
+@Getter
+public class JdbcThemeEventSink implements ThemeEventSink {
+    public static final String DEFAULT_TABLE_NAME = "theme_event";    // $NON-NLS-1$
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][\\w.]*");    // $NON-NLS-1$
+    private final JdbcOperations jdbcOperations;
+    private final String tableName;
+    private final String insertSql;
+
+    public JdbcThemeEventSink(@Nonnull JdbcOperations jdbcOperations) {
+        this(jdbcOperations, DEFAULT_TABLE_NAME);
+    }
+
+    public JdbcThemeEventSink(@Nonnull JdbcOperations jdbcOperations, @Nonnull String tableName) {
+        Assert.isTrue(TABLE_NAME_PATTERN.matcher(tableName).matches(), "Invalid table name: " + tableName);    // $NON-NLS-1$
+        this.jdbcOperations = jdbcOperations;
+        this.tableName = tableName;
+        this.insertSql = String.format("INSERT INTO %s (event_type, old_theme, new_theme, resolver_type, event_time) VALUES (?, ?, ?, ?, ?)", tableName);    // $NON-NLS-1$
+    }
+
+    @Override
+    public void write(@Nonnull List<ThemeChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Object[]> arguments = new ArrayList<>(events.size());
+        for (ThemeChangeEvent event : events) {
+            arguments.add(new Object[]{event.getType().getValue(), event.getOldTheme(), event.getNewTheme(), event.getResolverType(), new Timestamp(event.getTimestamp())});
+        }
+        jdbcOperations.batchUpdate(insertSql, arguments);
+    }
+}
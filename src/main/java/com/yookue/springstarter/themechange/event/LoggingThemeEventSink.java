@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.event;
+
+
+import java.util.List;
+import javax.annotation.Nonnull;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.event.ThemeEventSink} that writes the events to the log, at info level
+ *
+ * @author David Hsing
+ */
+@CommonsLog
+public class LoggingThemeEventSink implements ThemeEventSink {
+    @Override
+    public void write(@Nonnull List<ThemeChangeEvent> events) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        for (ThemeChangeEvent event : events) {
+            log.info(String.format("Theme %s: old=%s, new=%s, resolver=%s, timestamp=%d", event.getType().getValue(), event.getOldTheme(), event.getNewTheme(), event.getResolverType(), event.getTimestamp()));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.event;
+
+
+import java.io.Serializable;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import com.yookue.springstarter.themechange.enumeration.ThemeChangeEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+
+/**
+ * Immutable event of a theme switch or a theme resolution
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.event.ThemeEventRecorder
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+public class ThemeChangeEvent implements Serializable {
+    @Nonnull
+    private final ThemeChangeEventType type;
+
+    @Nullable
+    private final String oldTheme;
+
+    @Nullable
+    private final String newTheme;
+
+    @Nullable
+    private final String resolverType;
+
+    /**
+     * The epoch milliseconds when the event occurred
+     */
+    private final long timestamp;
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.event;
+
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import com.yookue.springstarter.themechange.enumeration.ThemeChangeEventType;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.support.ThemeChangeRecorder} that publishes the theme switches and resolutions as events
+ * <p>
+ * The request threads only publish the events to a {@link com.yookue.springstarter.themechange.event.ThemeEventRingBuffer} and never block,
+ * a background thread drains the events in batches into the {@link com.yookue.springstarter.themechange.event.ThemeEventSink}.
+ * The drain thread is woken at most once per batch, by the first producer that sees a full batch pending
+ *
+ * @author David Hsing
+ */
+@CommonsLog
+public class ThemeEventRecorder implements ThemeChangeRecorder, InitializingBean, DisposableBean {
+    private final ThemeEventRingBuffer<ThemeChangeEvent> buffer;
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final AtomicBoolean signalled = new AtomicBoolean(false);
+    private volatile Thread drainThread;
+    private volatile boolean running;
+
+    @Getter
+    private final ThemeEventSink sink;
+
+    @Getter
+    @Setter
+    private String resolverType;
+
+    @Getter
+    @Setter
+    private boolean includeResolutions = false;
+
+    @Getter
+    @Setter
+    private int batchSize = 256;
+
+    @Getter
+    @Setter
+    private Duration drainInterval = Duration.ofMillis(200L);
+
+    public ThemeEventRecorder(@Nonnull ThemeEventSink sink, int bufferSize) {
+        this.sink = sink;
+        this.buffer = new ThemeEventRingBuffer<>(bufferSize);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "theme-event-drain");    // $NON-NLS-1$
+        thread.setDaemon(true);
+        thread.start();
+        drainThread = thread;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        Thread thread = drainThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(5L));
+            drainThread = null;
+        }
+    }
+
+    @Override
+    public void recordThemeResolved(@Nullable String themeName, long nanos) {
+        if (includeResolutions) {
+            publish(new ThemeChangeEvent(ThemeChangeEventType.RESOLVE, null, themeName, resolverType, System.currentTimeMillis()));
+        }
+    }
+
+    @Override
+    public void recordThemeSwitched(@Nullable String oldTheme, @Nonnull String newTheme) {
+        publish(new ThemeChangeEvent(ThemeChangeEventType.SWITCH, oldTheme, newTheme, resolverType, System.currentTimeMillis()));
+    }
+
+    /**
+     * Publishes an event without blocking, the event is dropped if the buffer is full
+     *
+     * @param event the event to publish
+     *
+     * @return whether the event was published or not
+     */
+    public boolean publish(@Nonnull ThemeChangeEvent event) {
+        if (!buffer.offer(event)) {
+            return false;
+        }
+        publishedCount.increment();
+        if (buffer.size() >= batchSize && signalled.compareAndSet(false, true)) {
+            Thread thread = drainThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of published events
+     *
+     * @return the number of published events
+     */
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * Returns the number of events that dropped because the buffer is full
+     *
+     * @return the number of events that dropped because the buffer is full
+     */
+    public long getDroppedCount() {
+        return buffer.getDroppedCount();
+    }
+
+    /**
+     * Returns the number of events that failed to write to the sink
+     *
+     * @return the number of events that failed to write to the sink
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * Returns the number of events that waiting to be drained
+     *
+     * @return the number of events that waiting to be drained
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    private void drainLoop() {
+        long intervalNanos = (drainInterval == null || drainInterval.isNegative() || drainInterval.isZero()) ? TimeUnit.MILLISECONDS.toNanos(200L) : drainInterval.toNanos();
+        List<ThemeChangeEvent> batch = new ArrayList<>(Math.max(batchSize, 1));
+        while (running) {
+            if (drainBatch(batch) < batchSize) {
+                // Reset before checking again, so that a batch completed in the meantime signals again rather than waiting for the interval
+                signalled.set(false);
+                if (running && buffer.size() < batchSize) {
+                    LockSupport.parkNanos(this, intervalNanos);
+                }
+            }
+        }
+        int drained;
+        do {
+            drained = drainBatch(batch);
+        } while (drained > 0);
+    }
+
+    private int drainBatch(@Nonnull List<ThemeChangeEvent> batch) {
+        int count = buffer.drainTo(batch, Math.max(batchSize, 1));
+        if (count == 0) {
+            return 0;
+        }
+        try {
+            sink.write(batch);
+        } catch (RuntimeException ex) {
+            failedCount.add(count);
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Failed to write %d theme event(s)", count), ex);
+            }
+        } finally {
+            batch.clear();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.event;
+
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Lock-free bounded ring buffer with multiple producers and a single consumer
+ * <p>
+ * Producers claim a slot with a compare-and-set on the tail sequence and never block, an element is dropped and counted when the buffer is full.
+ * The consumer drains the published elements in order, a claimed slot that has not been published yet ends the drain
+ *
+ * @author David Hsing
+ * @param <E> the type of the elements
+ */
+public class ThemeEventRingBuffer<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder droppedCount = new LongAdder();
+    private volatile long head;
+
+    /**
+     * Construct a new ring buffer
+     *
+     * @param capacity the minimum capacity, which is rounded up to a power of two
+     */
+    public ThemeEventRingBuffer(int capacity) {
+        int size = 1;
+        while (size < Math.max(capacity, 2) && size < (1 << 30)) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Publishes an element, without blocking
+     *
+     * @param element the element to publish
+     *
+     * @return whether the element was published, or dropped because the buffer is full
+     */
+    public boolean offer(@Nonnull E element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                droppedCount.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) (sequence & mask), element);
+        return true;
+    }
+
+    /**
+     * Moves the published elements to the list, must be called by a single consumer thread
+     *
+     * @param target the list to add the elements to
+     * @param maximum the maximum number of elements to move
+     *
+     * @return the number of moved elements
+     */
+    public int drainTo(@Nonnull List<? super E> target, int maximum) {
+        long sequence = head;
+        int count = 0;
+        while (count < maximum) {
+            int index = (int) (sequence & mask);
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            target.add(element);
+            sequence++;
+            count++;
+        }
+        if (count > 0) {
+            head = sequence;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of the elements that claimed but not drained yet
+     *
+     * @return the number of the elements that claimed but not drained yet
+     */
+    public int size() {
+        return (int) Math.max(tail.get() - head, 0L);
+    }
+
+    /**
+     * Returns the capacity of the buffer
+     *
+     * @return the capacity of the buffer
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the number of dropped elements
+     *
+     * @return the number of dropped elements
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+}
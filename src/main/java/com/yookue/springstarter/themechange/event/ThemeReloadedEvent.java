@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.event;
+
+
+import javax.annotation.Nonnull;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.ui.context.ThemeSource;
+
+
+/**
+ * Application event that is published after a theme source has reloaded its themes, so that the derived caches could be discarded
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.source.FileSystemThemeSource
+ */
+public class ThemeReloadedEvent extends ApplicationEvent {
+    public ThemeReloadedEvent(@Nonnull ThemeSource source) {
+        super(source);
+    }
+
+    @Nonnull
+    public ThemeSource getThemeSource() {
+        return (ThemeSource) getSource();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.filter;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import com.yookue.springstarter.themechange.interceptor.ThemeVaryInterceptor;
+import com.yookue.springstarter.themechange.resolver.MemoizingThemeResolver;
+
+
+/**
+ * {@link org.springframework.web.filter.ShallowEtagHeaderFilter} that mixes the resolved theme name into the ETag of themed responses
+ * <p>
+ * The same content rendered with different themes gets different ETags, so that browsers and CDNs revalidate each theme variant separately.
+ * Responses that were not marked by {@link com.yookue.springstarter.themechange.interceptor.ThemeVaryInterceptor} keep the plain content ETag.
+ * The theme name is read from the request that completes the response, so that async dispatches are supported as well
+ *
+ * @author David Hsing
+ */
+public class ThemeAwareEtagHeaderFilter extends ShallowEtagHeaderFilter {
+    private static final byte THEME_SEPARATOR = 0;
+
+    /**
+     * Sets the theme-aware ETag of an eligible themed response, which the super class then uses instead of the plain content ETag
+     */
+    @Override
+    protected boolean isEligibleForEtag(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, int responseStatusCode, @Nonnull InputStream inputStream) {
+        if (!super.isEligibleForEtag(request, response, responseStatusCode, inputStream)) {
+            return false;
+        }
+        String themeName = getThemeName(request);
+        if (themeName != null && StringUtils.isEmpty(response.getHeader(HttpHeaders.ETAG))) {
+            try {
+                response.setHeader(HttpHeaders.ETAG, generateETagHeaderValue(themeName, inputStream, isWriteWeakETag()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the ETag of the content, with the theme name mixed in
+     */
+    @Nonnull
+    protected String generateETagHeaderValue(@Nonnull String themeName, @Nonnull InputStream inputStream, boolean isWeak) throws IOException {
+        byte[] themeBytes = themeName.getBytes(StandardCharsets.UTF_8);
+        byte[] prefix = new byte[themeBytes.length + 1];
+        System.arraycopy(themeBytes, 0, prefix, 0, themeBytes.length);
+        prefix[themeBytes.length] = THEME_SEPARATOR;
+        StringBuilder builder = new StringBuilder(37);
+        if (isWeak) {
+            builder.append("W/");    // $NON-NLS-1$
+        }
+        builder.append("\"0");    // $NON-NLS-1$
+        DigestUtils.appendMd5DigestAsHex(new SequenceInputStream(new ByteArrayInputStream(prefix), inputStream), builder);
+        builder.append('"');
+        return builder.toString();
+    }
+
+    /**
+     * Returns the theme name to mix into the ETag, or {@code null} if the request is not themed
+     */
+    @Nullable
+    protected String getThemeName(@Nonnull HttpServletRequest request) {
+        if (request.getAttribute(ThemeVaryInterceptor.THEMED_REQUEST_ATTRIBUTE) == null) {
+            return null;
+        }
+        return MemoizingThemeResolver.getThemeName(request);
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.handler;
+
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceAware;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+import org.springframework.web.servlet.i18n.FixedLocaleResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import com.yookue.springstarter.themechange.event.ThemeReloadedEvent;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.support.AccessOrderedCache;
+import com.yookue.springstarter.themechange.support.ThemeTagNamesCache;
+import com.yookue.springstarter.themechange.tenant.HeaderThemeTenantResolver;
+import com.yookue.springstarter.themechange.tenant.TenantThemeSource;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.web.HttpRequestHandler} that serves the theme descriptor as json
+ * <p>
+ * The descriptor of a locale contains the tag names and the messages of each allowed theme,
+ * it is serialized once and cached as bytes with a strong ETag, so that conditional requests are answered with {@code 304} without rebuilding anything.
+ * The requested locale is negotiated to a supported locale first, so that the cache holds one descriptor per supported locale,
+ * and per tenant if the theme source is a {@link com.yookue.springstarter.themechange.tenant.TenantThemeSource}.
+ * When the cache is full, the least recently used descriptors are evicted, and a warning is logged once.
+ * The cache is discarded when the message source is changed, the context is refreshed, or the themes are reloaded
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.config.ThemeChangeDescriptorConfiguration
+ */
+@CommonsLog
+public class ThemeDescriptorHandler implements HttpRequestHandler, MessageSourceAware, BeanClassLoaderAware, SmartApplicationListener {
+    private static final Set<Locale> AVAILABLE_LOCALES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(Locale.getAvailableLocales())));
+    private final AccessOrderedCache<Map.Entry<String, Locale>, Descriptor> descriptorCache;
+    private final AtomicBoolean capacityReported = new AtomicBoolean(false);
+    private final ThemeChangeProperties properties;
+    private final ThemeSource themeSource;
+    private final TenantThemeSource tenantThemeSource;
+    private final Set<String> themeNames;
+    private final Set<Locale> supportedLocales;
+    private final Locale defaultLocale;
+    private final int maximumSize;
+    private final String cacheControl;
+
+    @Getter
+    private final ThemeTagNamesCache tagNamesCache;
+
+    protected MessageSource messageSource;
+
+    private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
+
+    public ThemeDescriptorHandler(@Nonnull ThemeChangeProperties properties, @Nonnull ThemeSource themeSource) {
+        this.properties = properties;
+        this.themeSource = themeSource;
+        this.tenantThemeSource = ThemeChangeUtils.findThemeSource(themeSource, TenantThemeSource.class);
+        this.themeNames = ThemeChangeUtils.getKnownThemes(properties);
+        ThemeChangeProperties.Descriptor props = properties.getDescriptor();
+        this.maximumSize = (props.getCacheSize() == null) ? 0 : Math.max(props.getCacheSize(), 0);
+        this.descriptorCache = new AccessOrderedCache<>(maximumSize);
+        List<Locale> locales = CollectionUtils.isEmpty(props.getLocales()) ? properties.getThemeSource().getLocales() : props.getLocales();
+        this.supportedLocales = CollectionUtils.isEmpty(locales) ? AVAILABLE_LOCALES : Collections.unmodifiableSet(new LinkedHashSet<>(locales));
+        this.defaultLocale = CollectionUtils.isEmpty(locales) ? Locale.getDefault() : locales.get(0);
+        this.tagNamesCache = new ThemeTagNamesCache(maximumSize, properties.getModelAndView().getTagCacheTimeToLive());
+        Duration maxAge = props.getCacheMaxAge();
+        this.cacheControl = (maxAge == null || maxAge.isNegative()) ? CacheControl.noCache().getHeaderValue() : CacheControl.maxAge(maxAge.getSeconds(), TimeUnit.SECONDS).cachePublic().getHeaderValue();
+    }
+
+    @Override
+    public void setMessageSource(@Nullable MessageSource messageSource) {
+        this.messageSource = messageSource;
+        clearCache();
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nullable ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+
+    @Override
+    public boolean supportsEventType(@Nonnull Class<? extends ApplicationEvent> eventType) {
+        return ContextRefreshedEvent.class.isAssignableFrom(eventType) || ThemeReloadedEvent.class.isAssignableFrom(eventType);
+    }
+
+    @Override
+    public void onApplicationEvent(@Nonnull ApplicationEvent event) {
+        clearCache();
+    }
+
+    @Override
+    public void handleRequest(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response) throws IOException {
+        boolean head = HttpMethod.HEAD.matches(request.getMethod());
+        if (!head && !HttpMethod.GET.matches(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");    // $NON-NLS-1$
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        String localeValue = StringUtils.isBlank(properties.getDescriptor().getLocaleParam()) ? null : request.getParameter(properties.getDescriptor().getLocaleParam());
+        Locale locale = parseLocale(localeValue);
+        if (locale == null) {
+            locale = RequestContextUtils.getLocale(request);
+            getVaryHeaders(request).forEach(header -> response.addHeader(HttpHeaders.VARY, header));
+        }
+        locale = negotiateLocale(locale);
+        if (tenantThemeSource != null) {
+            getTenantVaryHeaders().forEach(header -> response.addHeader(HttpHeaders.VARY, header));
+        }
+        Descriptor descriptor = getDescriptor(resolveTenant(request), locale);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.CONTENT_LANGUAGE, locale.toLanguageTag());
+        if (new ServletWebRequest(request, response).checkNotModified(descriptor.eTag)) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(descriptor.body.length);
+        if (!head) {
+            response.getOutputStream().write(descriptor.body);
+        }
+    }
+
+    /**
+     * Discards all the cached descriptors
+     */
+    public void clearCache() {
+        descriptorCache.clear();
+        tagNamesCache.clear();
+    }
+
+    /**
+     * Returns the serialized descriptor of the closest supported locale of the specified locale
+     *
+     * @param locale the locale of the descriptor
+     *
+     * @return the serialized descriptor of the closest supported locale
+     */
+    @Nonnull
+    public byte[] getDescriptorBody(@Nonnull Locale locale) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String tenant = (attributes instanceof ServletRequestAttributes) ? resolveTenant(((ServletRequestAttributes) attributes).getRequest()) : null;
+        return getDescriptor(tenant, negotiateLocale(locale)).body.clone();
+    }
+
+    /**
+     * Returns the supported locale that matches the locale, then the language and country, then the language only, otherwise the default one
+     *
+     * @param locale the requested locale
+     *
+     * @return the closest supported locale
+     */
+    @Nonnull
+    public Locale negotiateLocale(@Nonnull Locale locale) {
+        if (supportedLocales.contains(locale)) {
+            return locale;
+        }
+        Locale country = new Locale(locale.getLanguage(), locale.getCountry());
+        if (supportedLocales.contains(country)) {
+            return country;
+        }
+        Locale language = new Locale(locale.getLanguage());
+        if (supportedLocales.contains(language)) {
+            return language;
+        }
+        if (supportedLocales != AVAILABLE_LOCALES) {
+            for (Locale supported : supportedLocales) {
+                if (StringUtils.equals(supported.getLanguage(), locale.getLanguage())) {
+                    return supported;
+                }
+            }
+        }
+        return defaultLocale;
+    }
+
+    /**
+     * Returns the request headers that the locale of the request is resolved from
+     * <p>
+     * Cookie and session based resolvers, as well as the custom ones, fall back to {@code Accept-Language} when nothing is stored
+     *
+     * @param request the current request
+     *
+     * @return the request headers for the {@code Vary} response header
+     */
+    @Nonnull
+    protected Collection<String> getVaryHeaders(@Nonnull HttpServletRequest request) {
+        LocaleResolver resolver = RequestContextUtils.getLocaleResolver(request);
+        if (resolver instanceof FixedLocaleResolver) {
+            return Collections.emptyList();
+        }
+        if (resolver == null || resolver instanceof AcceptHeaderLocaleResolver) {
+            return Collections.singletonList(HttpHeaders.ACCEPT_LANGUAGE);
+        }
+        return Arrays.asList(HttpHeaders.COOKIE, HttpHeaders.ACCEPT_LANGUAGE);
+    }
+
+    /**
+     * Returns the request headers that the tenant of the request is resolved from
+     *
+     * @return the request headers for the {@code Vary} response header
+     */
+    @Nonnull
+    protected Collection<String> getTenantVaryHeaders() {
+        if (tenantThemeSource != null && tenantThemeSource.getTenantResolver() instanceof HeaderThemeTenantResolver) {
+            String headerName = ((HeaderThemeTenantResolver) tenantThemeSource.getTenantResolver()).getHeaderName();
+            return StringUtils.isBlank(headerName) ? Collections.emptyList() : Collections.singletonList(headerName);
+        }
+        return Collections.emptyList();
+    }
+
+    @Nonnull
+    protected Descriptor getDescriptor(@Nullable String tenant, @Nonnull Locale locale) {
+        Map.Entry<String, Locale> key = new AbstractMap.SimpleImmutableEntry<>(tenant, locale);
+        Descriptor result = descriptorCache.get(key);
+        if (result != null) {
+            return result;
+        }
+        byte[] body = renderDescriptor(locale).getBytes(StandardCharsets.UTF_8);
+        result = new Descriptor(body, '"' + DigestUtils.md5DigestAsHex(body) + '"');
+        if (maximumSize > 0 && descriptorCache.size() >= maximumSize && capacityReported.compareAndSet(false, true) && log.isWarnEnabled()) {
+            log.warn(String.format("Theme descriptor cache is full with %d tenant and locale pair(s), the least recently used descriptors will be rendered again, consider narrowing the supported locales or raising the cache size", maximumSize));
+        }
+        descriptorCache.put(key, result, null);
+        return result;
+    }
+
+    @Nonnull
+    protected String renderDescriptor(@Nonnull Locale locale) {
+        ThemeChangeProperties.ModelAndView props = properties.getModelAndView();
+        Map<String, String> tagNames = BooleanUtils.isTrue(props.getTagMultilingual()) ? tagNamesCache.getTagNames(props.getTagNames(), messageSource, locale) : props.getTagNames();
+        StringBuilder builder = new StringBuilder(256);
+        builder.append("{\"locale\":");    // $NON-NLS-1$
+        appendString(builder, locale.toLanguageTag());
+        builder.append(",\"tagNames\":{");    // $NON-NLS-1$
+        boolean first = true;
+        for (Map.Entry<String, String> entry : tagNames.entrySet()) {
+            first = appendMember(builder, first, entry.getKey(), entry.getValue());
+        }
+        builder.append("},\"themes\":{");    // $NON-NLS-1$
+        first = true;
+        for (String themeName : themeNames) {
+            Theme theme = themeSource.getTheme(themeName);
+            if (theme == null) {
+                continue;
+            }
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            appendString(builder, themeName);
+            builder.append(":{");    // $NON-NLS-1$
+            boolean firstCode = true;
+            for (String code : ThemeChangeUtils.getMessageCodes(theme.getMessageSource(), locale, beanClassLoader)) {
+                firstCode = appendMember(builder, firstCode, code, theme.getMessageSource().getMessage(code, null, code, locale));
+            }
+            builder.append('}');
+        }
+        return builder.append("}}").toString();    // $NON-NLS-1$
+    }
+
+    @Nullable
+    private String resolveTenant(@Nonnull HttpServletRequest request) {
+        return (tenantThemeSource == null) ? null : tenantThemeSource.getTenant(request);
+    }
+
+    @Nullable
+    private Locale parseLocale(@Nullable String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return org.springframework.util.StringUtils.parseLocale(value);
+        } catch (IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    private static boolean appendMember(@Nonnull StringBuilder builder, boolean first, @Nonnull String name, @Nullable String value) {
+        if (!first) {
+            builder.append(',');
+        }
+        appendString(builder, name);
+        builder.append(':');
+        if (value == null) {
+            builder.append("null");    // $NON-NLS-1$
+        } else {
+            appendString(builder, value);
+        }
+        return false;
+    }
+
+    private static void appendString(@Nonnull StringBuilder builder, @Nonnull String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    builder.append("\\\"");    // $NON-NLS-1$
+                    break;
+                case '\\':
+                    builder.append("\\\\");    // $NON-NLS-1$
+                    break;
+                case '\n':
+                    builder.append("\\n");    // $NON-NLS-1$
+                    break;
+                case '\r':
+                    builder.append("\\r");    // $NON-NLS-1$
+                    break;
+                case '\t':
+                    builder.append("\\t");    // $NON-NLS-1$
+                    break;
+                default:
+                    if (ch < 0x20 || ch == '<' || ch == '>' || ch == '&' || ch == '\u2028' || ch == '\u2029') {
+                        builder.append(String.format("\\u%04x", (int) ch));    // $NON-NLS-1$
+                    } else {
+                        builder.append(ch);
+                    }
+            }
+        }
+        builder.append('"');
+    }
+
+
+    /**
+     * Serialized descriptor with its strong ETag
+     */
+    protected static final class Descriptor {
+        private final byte[] body;
+        private final String eTag;
+
+        private Descriptor(@Nonnull byte[] body, @Nonnull String eTag) {
+            this.body = body;
+            this.eTag = eTag;
+        }
+    }
+}
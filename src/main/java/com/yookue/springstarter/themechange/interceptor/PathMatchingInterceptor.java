@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.interceptor;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.UrlPathHelper;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.web.servlet.HandlerInterceptor} that invokes the delegate only for the paths matched by a precompiled {@link com.yookue.springstarter.themechange.support.ThemePathMatcher}
+ * <p>
+ * Static resource handlers are skipped without matching any path.
+ * The skip flag is overwritten on every dispatch, so that a forward or error dispatch of a matched path still invokes the delegate
+ *
+ * @author David Hsing
+ */
+@Getter
+public class PathMatchingInterceptor implements AsyncHandlerInterceptor {
+    private final HandlerInterceptor delegate;
+    private final ThemePathMatcher pathMatcher;
+    private final String skippedAttribute;
+
+    public PathMatchingInterceptor(@Nonnull HandlerInterceptor delegate, @Nonnull ThemePathMatcher pathMatcher) {
+        this.delegate = delegate;
+        this.pathMatcher = pathMatcher;
+        this.skippedAttribute = PathMatchingInterceptor.class.getName() + ".SKIPPED." + ObjectUtils.getIdentityHexString(delegate);    // $NON-NLS-1$
+    }
+
+    @Override
+    public boolean preHandle(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler) throws Exception {
+        if (handler instanceof ResourceHttpRequestHandler || !pathMatcher.matches(getLookupPath(request))) {
+            request.setAttribute(skippedAttribute, Boolean.TRUE);
+            return true;
+        }
+        request.removeAttribute(skippedAttribute);
+        return delegate.preHandle(request, response, handler);
+    }
+
+    @Override
+    public void postHandle(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler, @Nullable ModelAndView modelAndView) throws Exception {
+        if (request.getAttribute(skippedAttribute) == null) {
+            delegate.postHandle(request, response, handler, modelAndView);
+        }
+    }
+
+    @Override
+    public void afterCompletion(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler, @Nullable Exception ex) throws Exception {
+        if (request.getAttribute(skippedAttribute) == null) {
+            delegate.afterCompletion(request, response, handler, ex);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler) throws Exception {
+        if (delegate instanceof AsyncHandlerInterceptor && request.getAttribute(skippedAttribute) == null) {
+            ((AsyncHandlerInterceptor) delegate).afterConcurrentHandlingStarted(request, response, handler);
+        }
+    }
+
+    @Nonnull
+    private String getLookupPath(@Nonnull HttpServletRequest request) {
+        return ServletRequestPathUtils.hasCachedPath(request) ? ServletRequestPathUtils.getCachedPathValue(request) : UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+    }
+}
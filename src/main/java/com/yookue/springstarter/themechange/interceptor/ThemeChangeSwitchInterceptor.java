@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.interceptor;
+
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.ThemeResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.servlet.theme.ThemeChangeInterceptor;
+import org.springframework.web.util.UriUtils;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link org.springframework.web.servlet.theme.ThemeChangeInterceptor} that only switches to the allowed themes
+ * <p>
+ * Invalid theme names, and themes that are not allowed, are ignored before any resolution, even if any theme is allowed, and the theme resolver is not written when the requested theme equals to the current one,
+ * so that no needless cookie or session attribute would be written.
+ * With {@code shortCircuit}, a {@code GET} or {@code HEAD} switch request skips the handler and the view,
+ * and is answered with a {@code 303} redirect to the same url without the theme parameter, or a {@code 204} for XHR requests
+ *
+ * @author David Hsing
+ */
+@Getter
+public class ThemeChangeSwitchInterceptor extends ThemeChangeInterceptor {
+    private final Set<String> allowedThemes;
+
+    private static final String REQUESTED_WITH_HEADER = "X-Requested-With";    // $NON-NLS-1$
+    private static final String XML_HTTP_REQUEST = "XMLHttpRequest";    // $NON-NLS-1$
+    private static final String NO_STORE = CacheControl.noStore().getHeaderValue();
+
+    @Setter
+    private ThemeChangeRecorder recorder;
+
+    @Setter
+    private boolean shortCircuit = false;
+
+    /**
+     * Construct a new interceptor
+     *
+     * @param allowedThemes the names of the allowed themes, an empty set means that any theme is allowed
+     */
+    public ThemeChangeSwitchInterceptor(@Nonnull Set<String> allowedThemes) {
+        this.allowedThemes = allowedThemes;
+    }
+
+    @Override
+    public boolean preHandle(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler) throws ServletException {
+        String newTheme = request.getParameter(getParamName());
+        if (newTheme == null) {
+            return true;
+        }
+        if (!ThemeChangeUtils.isValidThemeName(newTheme)) {
+            if (recorder != null) {
+                recorder.recordThemeRejected(newTheme, ThemeChangeRecorder.REJECT_INVALID_THEME);
+            }
+            return true;
+        }
+        if (!ThemeChangeUtils.isAllowedTheme(allowedThemes, newTheme)) {
+            if (recorder != null) {
+                recorder.recordThemeRejected(newTheme, ThemeChangeRecorder.REJECT_UNKNOWN_THEME);
+            }
+            return true;
+        }
+        ThemeResolver themeResolver = RequestContextUtils.getThemeResolver(request);
+        if (themeResolver == null) {
+            throw new IllegalStateException("No ThemeResolver found: not in a DispatcherServlet request?");
+        }
+        String oldTheme = themeResolver.resolveThemeName(request);
+        if (!StringUtils.equals(newTheme, oldTheme)) {
+            themeResolver.setThemeName(request, response, newTheme);
+            if (recorder != null) {
+                recorder.recordThemeSwitched(oldTheme, newTheme);
+            }
+        }
+        if (shortCircuit && isSafeMethod(request)) {
+            sendSwitchResponse(request, response);
+            return false;
+        }
+        return true;
+    }
+
+    protected boolean isSafeMethod(@Nonnull HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    /**
+     * Answers the switch request without rendering, with a {@code 204} for XHR requests, otherwise a {@code 303} to the url without the theme parameter
+     */
+    protected void sendSwitchResponse(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+        if (XML_HTTP_REQUEST.equals(request.getHeader(REQUESTED_WITH_HEADER))) {
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_SEE_OTHER);
+        response.setHeader(HttpHeaders.LOCATION, getRedirectUrl(request));
+    }
+
+    /**
+     * Returns the request uri with the original query string, excluding the theme parameter
+     * <p>
+     * The leading slashes of the request uri are collapsed, so that a request like {@code //evil.example/x} is never redirected to another host
+     */
+    @Nonnull
+    protected String getRedirectUrl(@Nonnull HttpServletRequest request) {
+        String path = '/' + StringUtils.stripStart(request.getRequestURI(), "/\\");    // $NON-NLS-1$
+        String queryString = request.getQueryString();
+        if (StringUtils.isEmpty(queryString)) {
+            return path;
+        }
+        StringBuilder builder = new StringBuilder(path);
+        char separator = '?';
+        for (String pair : StringUtils.split(queryString, '&')) {
+            String name = StringUtils.substringBefore(pair, "=");    // $NON-NLS-1$
+            if (!StringUtils.equals(UriUtils.decode(name, StandardCharsets.UTF_8), getParamName())) {
+                builder.append(separator).append(pair);
+                separator = '&';
+            }
+        }
+        return builder.toString();
+    }
+}
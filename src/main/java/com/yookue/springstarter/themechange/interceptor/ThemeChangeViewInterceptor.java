@@ -11,51 +11,146 @@
 package com.yookue.springstarter.themechange.interceptor;
 
 
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.MessageSource;
 import org.springframework.context.MessageSourceAware;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.util.CollectionUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
-import com.yookue.commonplexus.javaseutil.util.MapPlainWraps;
-import com.yookue.commonplexus.springutil.util.MessageSourceWraps;
+import org.springframework.web.servlet.SmartView;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
 import com.yookue.commonplexus.springutil.util.WebUtilsWraps;
+import com.yookue.springstarter.themechange.annotation.ThemeTagNamesOptIn;
+import com.yookue.springstarter.themechange.annotation.ThemeTagNamesOptOut;
 import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
-import lombok.RequiredArgsConstructor;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.support.ThemeChangeSnapshot;
+import com.yookue.springstarter.themechange.support.ThemeTagNamesCache;
+import lombok.Getter;
 import lombok.Setter;
 
 
 /**
  * {@link org.springframework.web.servlet.HandlerInterceptor} for theme change
+ * <p>
+ * The multilingual tag names are cached per locale, the cache is discarded when the message source is changed or the context is refreshed
  *
  * @author David Hsing
  */
-@RequiredArgsConstructor
-public class ThemeChangeViewInterceptor implements HandlerInterceptor, MessageSourceAware {
-    private final ThemeChangeProperties properties;
+public class ThemeChangeViewInterceptor implements HandlerInterceptor, MessageSourceAware, ApplicationListener<ContextRefreshedEvent> {
+    private final Map<MethodClassKey, Boolean> viewHandlers = new ConcurrentHashMap<>();
+    @Getter
+    private final ThemeChangeSnapshot snapshot;
+
+    @Getter
+    private final ThemeTagNamesCache tagNamesCache;
 
-    @Setter
     protected MessageSource messageSource;
 
+    @Getter
+    @Setter
+    protected ThemeChangeRecorder recorder;
+
+    public ThemeChangeViewInterceptor(@Nonnull ThemeChangeProperties properties) {
+        this(ThemeChangeSnapshot.of(properties));
+    }
+
+    public ThemeChangeViewInterceptor(@Nonnull ThemeChangeSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.tagNamesCache = new ThemeTagNamesCache(snapshot.getTagCacheSize(), snapshot.getTagCacheTimeToLive());
+    }
+
+    @Override
+    public void setMessageSource(@Nullable MessageSource messageSource) {
+        this.messageSource = messageSource;
+        tagNamesCache.clear();
+    }
+
+    @Override
+    public void onApplicationEvent(@Nonnull ContextRefreshedEvent event) {
+        tagNamesCache.clear();
+    }
+
     @Override
     public void postHandle(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler, @Nullable ModelAndView view) {
-        ThemeChangeProperties.ModelAndView props = properties.getModelAndView();
-        if (WebUtilsWraps.isCanonicalModelView(view) && StringUtils.isNotBlank(props.getViewAttribute()) && !CollectionUtils.isEmpty(props.getTagNames())) {
-            if (BooleanUtils.isNotTrue(props.getTagMultilingual())) {
-                view.addObject(props.getViewAttribute(), props.getTagNames());
+        if (view == null || !isViewHandler(handler) || response.isCommitted() || isRedirectView(view)) {
+            return;
+        }
+        if (recorder == null) {
+            addTagNames(view);
+            return;
+        }
+        long startTime = System.nanoTime();
+        try {
+            addTagNames(view);
+        } finally {
+            recorder.recordViewHandled(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Returns whether the handler renders the tag names or not
+     * <p>
+     * {@code @ResponseBody} handler methods, request handlers (e.g. static resources) and opted out handler methods never do,
+     * the result of a handler method is resolved once and cached
+     */
+    protected boolean isViewHandler(@Nonnull Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            MethodClassKey key = new MethodClassKey(method.getMethod(), method.getBeanType());
+            Boolean result = viewHandlers.get(key);
+            if (result == null) {
+                result = resolveViewHandler(method);
+                viewHandlers.putIfAbsent(key, result);
+            }
+            return result;
+        }
+        return !(handler instanceof HttpRequestHandler) && !snapshot.isHandlerOptIn();
+    }
+
+    protected boolean resolveViewHandler(@Nonnull HandlerMethod method) {
+        if (method.hasMethodAnnotation(ResponseBody.class) || AnnotatedElementUtils.hasAnnotation(method.getBeanType(), ResponseBody.class)) {
+            return false;
+        }
+        if (method.hasMethodAnnotation(ThemeTagNamesOptOut.class)) {
+            return false;
+        }
+        if (method.hasMethodAnnotation(ThemeTagNamesOptIn.class)) {
+            return true;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(method.getBeanType(), ThemeTagNamesOptOut.class)) {
+            return false;
+        }
+        return !snapshot.isHandlerOptIn() || AnnotatedElementUtils.hasAnnotation(method.getBeanType(), ThemeTagNamesOptIn.class);
+    }
+
+    protected boolean isRedirectView(@Nonnull ModelAndView view) {
+        if (view.getView() instanceof SmartView) {
+            return ((SmartView) view.getView()).isRedirectView();
+        }
+        return StringUtils.startsWith(view.getViewName(), UrlBasedViewResolver.REDIRECT_URL_PREFIX);
+    }
+
+    protected void addTagNames(@Nullable ModelAndView view) {
+        if (snapshot.hasTagNames() && WebUtilsWraps.isCanonicalModelView(view)) {
+            if (!snapshot.isTagMultilingual()) {
+                view.addObject(snapshot.getViewAttribute(), snapshot.getTagNames());
                 return;
             }
-            Map<String, String> tagNames = new LinkedHashMap<>(props.getTagNames());
-            MapPlainWraps.recompute(tagNames, (key, value) -> MessageSourceWraps.getMessage(messageSource, value, value, LocaleContextHolder.getLocale()));
-            view.addObject(props.getViewAttribute(), tagNames);
+            view.addObject(snapshot.getViewAttribute(), tagNamesCache.getTagNames(snapshot.getTagNames(), messageSource, LocaleContextHolder.getLocale()));
         }
     }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.interceptor;
+
+
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.web.servlet.HandlerInterceptor} that tells downstream caches the response varies by theme
+ * <p>
+ * The request headers that carry the theme are appended to the {@code Vary} header,
+ * and the request is marked as themed, so that {@link com.yookue.springstarter.themechange.filter.ThemeAwareEtagHeaderFilter} mixes the theme name into the ETag
+ *
+ * @author David Hsing
+ */
+@Getter
+public class ThemeVaryInterceptor implements HandlerInterceptor {
+    /**
+     * The request attribute name that marks the request as themed
+     */
+    public static final String THEMED_REQUEST_ATTRIBUTE = ThemeVaryInterceptor.class.getName() + ".THEMED_REQUEST";    // $NON-NLS-1$
+
+    private final List<String> varyHeaders;
+
+    public ThemeVaryInterceptor(@Nonnull List<String> varyHeaders) {
+        this.varyHeaders = varyHeaders;
+    }
+
+    @Override
+    public boolean preHandle(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler) {
+        request.setAttribute(THEMED_REQUEST_ATTRIBUTE, Boolean.TRUE);
+        if (!CollectionUtils.isEmpty(varyHeaders)) {
+            Collection<String> existing = response.getHeaders(HttpHeaders.VARY);
+            for (String header : varyHeaders) {
+                if (!containsHeader(existing, header)) {
+                    response.addHeader(HttpHeaders.VARY, header);
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean containsHeader(@Nonnull Collection<String> existing, @Nonnull String header) {
+        for (String value : existing) {
+            for (String token : StringUtils.split(value, ',')) {
+                String trimmed = token.trim();
+                if (StringUtils.equalsIgnoreCase(trimmed, header) || StringUtils.equals(trimmed, "*")) {    // $NON-NLS-1$
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
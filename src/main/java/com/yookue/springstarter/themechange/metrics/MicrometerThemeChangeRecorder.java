@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.metrics;
+
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.ui.context.ThemeSource;
+import com.yookue.springstarter.themechange.source.CachingThemeSource;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.support.ThemeTagNamesCache;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.support.ThemeChangeRecorder} that records the theme change activities to Micrometer
+ * <p>
+ * Theme switches are tagged by the theme name, names out of the allowed themes are tagged as {@code other}, to keep the cardinality bounded
+ *
+ * @author David Hsing
+ */
+public class MicrometerThemeChangeRecorder implements ThemeChangeRecorder {
+    private static final String OTHER_THEME = "other";    // $NON-NLS-1$
+    private static final int MAXIMUM_THEME_TAGS = 64;
+    private final MeterRegistry registry;
+    private final String prefix;
+    private final Set<String> allowedThemes;
+    private final Timer viewTimer;
+    private final Timer resolveTimer;
+    private final ConcurrentMap<String, Counter> switchCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> rejectCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a new recorder
+     *
+     * @param registry the meter registry
+     * @param prefix the prefix of the meter names
+     * @param allowedThemes the names of the allowed themes, an empty set means that any theme is allowed
+     */
+    public MicrometerThemeChangeRecorder(@Nonnull MeterRegistry registry, @Nonnull String prefix, @Nullable Set<String> allowedThemes) {
+        this.registry = registry;
+        this.prefix = prefix;
+        this.allowedThemes = (allowedThemes == null) ? Collections.emptySet() : allowedThemes;
+        this.viewTimer = Timer.builder(prefix + ".view").description("Duration of contributing theme tag names to views").register(registry);    // $NON-NLS-1$
+        this.resolveTimer = Timer.builder(prefix + ".resolve").description("Duration of resolving theme names").register(registry);    // $NON-NLS-1$
+    }
+
+    @Override
+    public void recordViewHandled(long nanos) {
+        viewTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordThemeResolved(long nanos) {
+        resolveTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordThemeSwitched(@Nullable String oldTheme, @Nonnull String newTheme) {
+        String themeTag = toThemeTag(newTheme);
+        switchCounters.computeIfAbsent(themeTag, tag -> Counter.builder(prefix + ".switches").description("Number of theme switches").tag("theme", tag).register(registry)).increment();    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Override
+    public void recordThemeRejected(@Nullable String themeName, @Nonnull String reason) {
+        rejectCounters.computeIfAbsent(reason, tag -> Counter.builder(prefix + ".rejections").description("Number of rejected themes").tag("reason", tag).register(registry)).increment();    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    /**
+     * Registers the gauges of the theme source cache
+     *
+     * @param themeSource the supplier of the theme source, which is invoked on every gauge read
+     */
+    public void bindThemeSource(@Nonnull Supplier<ThemeSource> themeSource) {
+        Supplier<CachingThemeSource> cachingSource = () -> ThemeChangeUtils.findThemeSource(themeSource.get(), CachingThemeSource.class);
+        bindCache("theme-source", cachingSource, CachingThemeSource::getCacheSize, CachingThemeSource::getHitCount, CachingThemeSource::getMissCount);    // $NON-NLS-1$
+    }
+
+    /**
+     * Registers the gauges of the tag names cache
+     *
+     * @param tagNamesCache the supplier of the tag names cache, which is invoked on every gauge read
+     */
+    public void bindTagNamesCache(@Nonnull Supplier<ThemeTagNamesCache> tagNamesCache) {
+        bindCache("tag-names", tagNamesCache, ThemeTagNamesCache::size, ThemeTagNamesCache::getHitCount, ThemeTagNamesCache::getMissCount);    // $NON-NLS-1$
+    }
+
+    private <T> void bindCache(@Nonnull String cacheName, @Nonnull Supplier<T> cache, @Nonnull ToDoubleFunction<T> size, @Nonnull ToDoubleFunction<T> hits, @Nonnull ToDoubleFunction<T> misses) {
+        Gauge.builder(prefix + ".cache.size", cache, supplier -> applyCache(supplier, size)).description("Number of cached entries").tag("cache", cacheName).register(registry);    // $NON-NLS-1$ // $NON-NLS-2$
+        FunctionCounter.builder(prefix + ".cache.gets", cache, supplier -> applyCache(supplier, hits)).description("Number of cache lookups").tags("cache", cacheName, "result", "hit").register(registry);    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$
+        FunctionCounter.builder(prefix + ".cache.gets", cache, supplier -> applyCache(supplier, misses)).description("Number of cache lookups").tags("cache", cacheName, "result", "miss").register(registry);    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$
+    }
+
+    private static <T> double applyCache(@Nonnull Supplier<T> supplier, @Nonnull ToDoubleFunction<T> function) {
+        T cache = supplier.get();
+        return (cache == null) ? 0D : function.applyAsDouble(cache);
+    }
+
+    @Nonnull
+    private String toThemeTag(@Nullable String themeName) {
+        if (StringUtils.isBlank(themeName)) {
+            return OTHER_THEME;
+        }
+        if (!allowedThemes.isEmpty()) {
+            return allowedThemes.contains(themeName) ? themeName : OTHER_THEME;
+        }
+        return (switchCounters.containsKey(themeName) || switchCounters.size() < MAXIMUM_THEME_TAGS) ? themeName : OTHER_THEME;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.preference;
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.preference.ThemePreferenceStore} that holds the preferences in memory
+ * <p>
+ * This is a reference implementation, the preferences are neither shared across nodes nor kept after a restart
+ *
+ * @author David Hsing
+ */
+public class InMemoryThemePreferenceStore implements ThemePreferenceStore {
+    private final ConcurrentMap<String, String> preferences = new ConcurrentHashMap<>();
+
+    @Nullable
+    @Override
+    public String getTheme(@Nonnull String principal) {
+        return preferences.get(principal);
+    }
+
+    @Override
+    public void setTheme(@Nonnull String principal, @Nullable String themeName) {
+        if (themeName == null) {
+            preferences.remove(principal);
+        } else {
+            preferences.put(principal, themeName);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.preference;
+
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+import lombok.Getter;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.preference.ThemePreferenceStore} that holds the preferences in a database table
+ * <p>
+ * The table is created by {@code META-INF/theme-change/theme-preference-schema.sql}, the writes are portable updates followed by inserts,
+ * and a batch of preferences is saved with batch statements.
+ * The rows of a batch update that the driver reports without a count are updated one by one, so that a missing row is still inserted
+ *
+ * @author David Hsing
+ */
+@Getter
+public class JdbcThemePreferenceStore implements ThemePreferenceStore {
+    public static final String DEFAULT_TABLE_NAME = "theme_preference";    // $NON-NLS-1$
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][\\w.]*");    // $NON-NLS-1$
+    private final JdbcOperations jdbcOperations;
+    private final String tableName;
+    private final String selectSql;
+    private final String updateSql;
+    private final String insertSql;
+    private final String deleteSql;
+
+    public JdbcThemePreferenceStore(@Nonnull JdbcOperations jdbcOperations) {
+        this(jdbcOperations, DEFAULT_TABLE_NAME);
+    }
+
+    public JdbcThemePreferenceStore(@Nonnull JdbcOperations jdbcOperations, @Nonnull String tableName) {
+        Assert.isTrue(TABLE_NAME_PATTERN.matcher(tableName).matches(), "Invalid table name: " + tableName);    // $NON-NLS-1$
+        this.jdbcOperations = jdbcOperations;
+        this.tableName = tableName;
+        this.selectSql = String.format("SELECT theme_name FROM %s WHERE principal = ?", tableName);    // $NON-NLS-1$
+        this.updateSql = String.format("UPDATE %s SET theme_name = ?, update_time = ? WHERE principal = ?", tableName);    // $NON-NLS-1$
+        this.insertSql = String.format("INSERT INTO %s (principal, theme_name, update_time) VALUES (?, ?, ?)", tableName);    // $NON-NLS-1$
+        this.deleteSql = String.format("DELETE FROM %s WHERE principal = ?", tableName);    // $NON-NLS-1$
+    }
+
+    @Nullable
+    @Override
+    public String getTheme(@Nonnull String principal) {
+        List<String> themes = jdbcOperations.queryForList(selectSql, String.class, principal);
+        return CollectionUtils.isEmpty(themes) ? null : themes.get(0);
+    }
+
+    @Override
+    public void setTheme(@Nonnull String principal, @Nullable String themeName) {
+        if (themeName == null) {
+            jdbcOperations.update(deleteSql, principal);
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (jdbcOperations.update(updateSql, themeName, now, principal) == 0) {
+            jdbcOperations.update(insertSql, principal, themeName, now);
+        }
+    }
+
+    @Override
+    public void setThemes(@Nonnull Map<String, String> themes) {
+        if (CollectionUtils.isEmpty(themes)) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        themes.forEach((principal, themeName) -> {
+            if (themeName == null) {
+                deletes.add(new Object[]{principal});
+            } else {
+                updates.add(new Object[]{themeName, now, principal});
+            }
+        });
+        if (!deletes.isEmpty()) {
+            jdbcOperations.batchUpdate(deleteSql, deletes);
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcOperations.batchUpdate(updateSql, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            Object[] update = updates.get(i);
+            int count = (i < counts.length) ? counts[i] : Statement.SUCCESS_NO_INFO;
+            if (count == Statement.SUCCESS_NO_INFO) {
+                count = jdbcOperations.update(updateSql, update);
+            }
+            if (count == 0) {
+                inserts.add(new Object[]{update[2], update[0], now});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcOperations.batchUpdate(insertSql, inserts);
+        }
+    }
+}
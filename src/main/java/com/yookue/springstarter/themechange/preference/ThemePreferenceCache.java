@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.preference;
+
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+import com.yookue.springstarter.themechange.support.AccessOrderedCache;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * Per-node near-cache in front of a {@link com.yookue.springstarter.themechange.preference.ThemePreferenceStore}
+ * <p>
+ * Reads are served from a bounded cache with a time to live, including the principals without any preference,
+ * so that a request only reaches the store when the entry is absent or expired. When the cache is full, the least recently used entries are evicted.
+ * When write-behind is enabled, writes are applied to the cache immediately and flushed to the store in batches,
+ * either periodically or as soon as the pending writes reach the batch size.
+ * On shutdown, the running flush is awaited and all the remaining pending writes are flushed
+ *
+ * @author David Hsing
+ */
+@CommonsLog
+public class ThemePreferenceCache implements InitializingBean, DisposableBean {
+    private static final String NO_PREFERENCE = new String();
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000L;
+    private final AccessOrderedCache<String, String> preferenceCache = new AccessOrderedCache<>(10000);
+    private final ConcurrentMap<String, String> pendingWrites = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile ScheduledExecutorService flushExecutor;
+
+    @Getter
+    private final ThemePreferenceStore preferenceStore;
+
+    @Getter
+    @Setter
+    private Duration timeToLive = Duration.ofMinutes(5L);
+
+    @Getter
+    @Setter
+    private boolean writeBehind = true;
+
+    @Getter
+    @Setter
+    private Duration flushInterval = Duration.ofSeconds(1L);
+
+    @Getter
+    @Setter
+    private int batchSize = 100;
+
+    public ThemePreferenceCache(@Nonnull ThemePreferenceStore preferenceStore) {
+        Assert.notNull(preferenceStore, "Preference store must not be null");    // $NON-NLS-1$
+        this.preferenceStore = preferenceStore;
+    }
+
+    public int getMaximumSize() {
+        return preferenceCache.getMaximumSize();
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        preferenceCache.setMaximumSize(maximumSize);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (writeBehind && flushInterval != null && !flushInterval.isNegative() && !flushInterval.isZero()) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "theme-preference-flush");    // $NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = flushInterval.toMillis();
+            flushExecutor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ScheduledExecutorService executor = flushExecutor;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) && log.isWarnEnabled()) {
+                    log.warn("Timed out waiting for the theme preference flush to finish");    // $NON-NLS-1$
+                }
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            flushExecutor = null;
+        }
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the preferred theme name of the principal
+     *
+     * @param principal the principal name
+     *
+     * @return the preferred theme name of the principal, or {@code null} if the principal has no preference
+     */
+    @Nullable
+    public String getTheme(@Nonnull String principal) {
+        String pending = pendingWrites.get(principal);
+        if (pending != null) {
+            return unmask(pending);
+        }
+        String cached = preferenceCache.get(principal);
+        if (cached != null) {
+            return unmask(cached);
+        }
+        String themeName;
+        try {
+            themeName = preferenceStore.getTheme(principal);
+        } catch (RuntimeException ex) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Failed to read the theme preference of principal '%s'", principal), ex);
+            }
+            return null;
+        }
+        cacheTheme(principal, themeName);
+        return themeName;
+    }
+
+    /**
+     * Saves the preferred theme name of the principal
+     *
+     * @param principal the principal name
+     * @param themeName the preferred theme name, or {@code null} to remove the preference
+     */
+    public void setTheme(@Nonnull String principal, @Nullable String themeName) {
+        cacheTheme(principal, themeName);
+        ScheduledExecutorService executor = flushExecutor;
+        if (!writeBehind || executor == null) {
+            preferenceStore.setTheme(principal, themeName);
+            return;
+        }
+        pendingWrites.put(principal, mask(themeName));
+        if (flushExecutor == null) {
+            // Destroyed in the meantime, write it now unless the final flush is still running
+            flush();
+            return;
+        }
+        if (pendingWrites.size() >= batchSize) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException ignored) {
+                // Shutting down, the pending writes are flushed by destroy
+            }
+        }
+    }
+
+    /**
+     * Discards the cached preference of the principal, so that the next read reaches the store
+     *
+     * @param principal the principal name
+     */
+    public void evict(@Nonnull String principal) {
+        preferenceCache.remove(principal);
+    }
+
+    /**
+     * Discards all the cached preferences, the pending writes are kept
+     */
+    public void clear() {
+        preferenceCache.clear();
+    }
+
+    /**
+     * Writes all the pending preferences to the store
+     * <p>
+     * The preferences that failed to write are pended again, unless they have been overwritten in the meantime
+     */
+    public void flush() {
+        if (pendingWrites.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of cached preferences, including the principals without any preference
+     *
+     * @return the number of cached preferences, including the principals without any preference
+     */
+    public int getCacheSize() {
+        return preferenceCache.size();
+    }
+
+    /**
+     * Returns the number of preferences that have not been written to the store
+     *
+     * @return the number of preferences that have not been written to the store
+     */
+    public int getPendingSize() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Writes the pending preferences in batches, until all are written or a batch fails, the caller must hold the flush lock
+     */
+    private void writePending() {
+        while (!pendingWrites.isEmpty()) {
+            Map<String, String> batch = new LinkedHashMap<>();
+            for (Iterator<Map.Entry<String, String>> iterator = pendingWrites.entrySet().iterator(); iterator.hasNext() && batch.size() < Math.max(batchSize, 1); ) {
+                Map.Entry<String, String> pending = iterator.next();
+                if (pendingWrites.remove(pending.getKey(), pending.getValue())) {
+                    batch.put(pending.getKey(), unmask(pending.getValue()));
+                }
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                preferenceStore.setThemes(batch);
+            } catch (RuntimeException ex) {
+                batch.forEach((principal, themeName) -> pendingWrites.putIfAbsent(principal, mask(themeName)));
+                if (log.isWarnEnabled()) {
+                    log.warn(String.format("Failed to write %d theme preference(s), will retry later", batch.size()), ex);
+                }
+                break;
+            }
+        }
+    }
+
+    private void cacheTheme(@Nonnull String principal, @Nullable String themeName) {
+        preferenceCache.put(principal, mask(themeName), timeToLive);
+    }
+
+    @Nonnull
+    @SuppressWarnings("StringEquality")
+    private static String mask(@Nullable String themeName) {
+        return (themeName == null) ? NO_PREFERENCE : themeName;
+    }
+
+    @Nullable
+    @SuppressWarnings("StringEquality")
+    private static String unmask(@Nonnull String themeName) {
+        return (themeName == NO_PREFERENCE) ? null : themeName;
+    }
+}
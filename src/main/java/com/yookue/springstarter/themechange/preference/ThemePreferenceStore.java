@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.preference;
+
+
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Store of the theme preferences, which are keyed by the principal name
+ * <p>
+ * Implementations are usually shared by all the nodes of a cluster, so that the preference follows the user across nodes and devices
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.preference.ThemePreferenceCache
+ */
+public interface ThemePreferenceStore {
+    /**
+     * Returns the preferred theme name of the principal
+     *
+     * @param principal the principal name
+     *
+     * @return the preferred theme name of the principal, or {@code null} if the principal has no preference
+     */
+    @Nullable
+    String getTheme(@Nonnull String principal);
+
+    /**
+     * Saves the preferred theme name of the principal
+     *
+     * @param principal the principal name
+     * @param themeName the preferred theme name, or {@code null} to remove the preference
+     */
+    void setTheme(@Nonnull String principal, @Nullable String themeName);
+
+    /**
+     * Saves the preferred theme names of several principals
+     *
+     * @param themes the principal and theme name mappings, a {@code null} theme name removes the preference
+     */
+    default void setThemes(@Nonnull Map<String, String> themes) {
+        themes.forEach(this::setTheme);
+    }
+}
@@ -19,9 +19,11 @@ package com.yookue.springstarter.themechange.property;
 
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.web.servlet.i18n.CookieLocaleResolver;
@@ -29,7 +31,10 @@ import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
 import com.yookue.commonplexus.springutil.constant.AntPathConst;
 import com.yookue.commonplexus.springutil.constant.SpringAttributeConst;
 import com.yookue.springstarter.themechange.config.ThemeChangeViewConfiguration;
+import com.yookue.springstarter.themechange.enumeration.ThemeEventSinkType;
+import com.yookue.springstarter.themechange.enumeration.ThemePreferenceStoreType;
 import com.yookue.springstarter.themechange.enumeration.ThemeResolverType;
+import com.yookue.springstarter.themechange.enumeration.ThemeSourceType;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -70,10 +75,30 @@ public class ThemeChangeProperties implements Serializable {
     /**
      * The type of theme resolver
      * <p>
-     * Default is {@code COOKIE}
+     * Default is {@code COOKIE}. The {@code PREFERENCE} type is not supported by reactive web applications
      */
     private ThemeResolverType themeResolverType = ThemeResolverType.COOKIE;
 
+    /**
+     * Indicates whether to resolve the theme name and look up the theme at most once per request or not
+     * <p>
+     * Default is {@code false}. The theme source bean of this starter is decorated too,
+     * so that the lookups of {@code RequestContextUtils.getTheme} and {@code RequestContext.getTheme} are memoized
+     *
+     * @see com.yookue.springstarter.themechange.resolver.MemoizingThemeResolver
+     * @see com.yookue.springstarter.themechange.source.MemoizingThemeSource
+     */
+    private Boolean memoizeThemeResolver = false;
+
+    /**
+     * Indicates whether to propagate the theme context and the locale context to async executions or not
+     * <p>
+     * Default is {@code false}, when enabled, a {@link org.springframework.core.task.TaskDecorator} bean is registered, unless another one exists
+     *
+     * @see com.yookue.springstarter.themechange.support.ThemeContextTaskDecorator
+     */
+    private Boolean propagateContext = false;
+
     /**
      * Cookie based theme resolver attributes
      */
@@ -84,6 +109,45 @@ public class ThemeChangeProperties implements Serializable {
      */
     private final SessionThemeResolver sessionThemeResolver = new SessionThemeResolver();
 
+    /**
+     * Header based theme resolver attributes
+     * <p>
+     * The cookie fallback uses the attributes of {@code cookieThemeResolver}
+     */
+    private final HeaderThemeResolver headerThemeResolver = new HeaderThemeResolver();
+
+    /**
+     * Principal preference based theme resolver attributes
+     * <p>
+     * The cookie fallback uses the attributes of {@code cookieThemeResolver}
+     */
+    private final PreferenceThemeResolver preferenceThemeResolver = new PreferenceThemeResolver();
+
+    /**
+     * Metrics attributes
+     */
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Theme descriptor endpoint attributes
+     */
+    private final Descriptor descriptor = new Descriptor();
+
+    /**
+     * Http caching attributes of themed responses
+     */
+    private final HttpCaching httpCaching = new HttpCaching();
+
+    /**
+     * Theme assets attributes
+     */
+    private final Assets assets = new Assets();
+
+    /**
+     * Theme change events attributes
+     */
+    private final Events events = new Events();
+
 
     /**
      * Properties for model and view
@@ -113,6 +177,30 @@ public class ThemeChangeProperties implements Serializable {
          */
         private Map<String, String> tagNames = new LinkedHashMap<>();
 
+        /**
+         * The maximum number of locales to cache the resolved tag names, when {@code tagMultilingual} is {@code true}
+         * <p>
+         * Default is {@code 64}
+         */
+        private Integer tagCacheSize = 64;
+
+        /**
+         * The duration after which the cached tag names are resolved again, when {@code tagMultilingual} is {@code true}
+         * <p>
+         * Default is {@code null}, which means never expire. Set it to the cache duration of a reloadable message source, so that the reloaded tag names are picked up
+         */
+        private Duration tagCacheTimeToLive;
+
+        /**
+         * Indicates whether to add the tag names only to the handlers that annotated with {@code ThemeTagNamesOptIn} or not
+         * <p>
+         * Default is {@code false}, which means adding the tag names to all the view handlers, except the ones that annotated with {@code ThemeTagNamesOptOut}
+         *
+         * @see com.yookue.springstarter.themechange.annotation.ThemeTagNamesOptIn
+         * @see com.yookue.springstarter.themechange.annotation.ThemeTagNamesOptOut
+         */
+        private Boolean handlerOptIn = false;
+
         /**
          * The priority order of the interceptor
          */
@@ -127,6 +215,15 @@ public class ThemeChangeProperties implements Serializable {
          * The path patterns to be excluded
          */
         private List<String> excludePaths;
+
+        /**
+         * Indicates whether to precompile the path patterns into one matcher, with fast exclusion by literal prefix, or not
+         * <p>
+         * Default is {@code false}, which means registering the path patterns to the interceptor registry
+         *
+         * @see com.yookue.springstarter.themechange.interceptor.PathMatchingInterceptor
+         */
+        private Boolean precompilePaths = false;
     }
 
 
@@ -145,6 +242,13 @@ public class ThemeChangeProperties implements Serializable {
          */
         private String paramName = StringVariantConst.THEME;
 
+        /**
+         * The names of the themes that are allowed to be switched to
+         * <p>
+         * If empty, any theme is allowed
+         */
+        private List<String> allowedThemes;
+
         /**
          * The priority order of the interceptor
          */
@@ -159,6 +263,25 @@ public class ThemeChangeProperties implements Serializable {
          * The path patterns to be excluded
          */
         private List<String> excludePaths;
+
+        /**
+         * Indicates whether to precompile the path patterns into one matcher, with fast exclusion by literal prefix, or not
+         * <p>
+         * Default is {@code false}, which means registering the path patterns to the interceptor registry
+         *
+         * @see com.yookue.springstarter.themechange.interceptor.PathMatchingInterceptor
+         */
+        private Boolean precompilePaths = false;
+
+        /**
+         * Indicates whether to answer the {@code GET} and {@code HEAD} switch requests without invoking the handler or not
+         * <p>
+         * Default is {@code false}. If {@code true}, a switch request is answered with a {@code 303} redirect to the url without the theme parameter,
+         * or a {@code 204} for XHR requests
+         *
+         * @see com.yookue.springstarter.themechange.interceptor.ThemeChangeSwitchInterceptor
+         */
+        private Boolean shortCircuit = false;
     }
 
 
@@ -171,6 +294,13 @@ public class ThemeChangeProperties implements Serializable {
     @Setter
     @ToString
     public static class ThemeSource implements Serializable {
+        /**
+         * The type of theme source
+         * <p>
+         * Default is {@code BUNDLE}
+         */
+        private ThemeSourceType type = ThemeSourceType.BUNDLE;
+
         /**
          * Set the prefix that gets applied to the resource basename
          *
@@ -187,6 +317,308 @@ public class ThemeChangeProperties implements Serializable {
          * Indicates whether fallback to system locale if no files for a specific Locale have been found or not
          */
         private Boolean fallbackToSystemLocale;
+
+        /**
+         * The locales that the theme resource bundles are provided for, whose files are probed to know whether a theme exists
+         * <p>
+         * If empty, the default locale of the JVM is used. The default resource bundle files without any locale are always probed
+         */
+        private List<Locale> locales;
+
+        /**
+         * Theme cache attributes
+         */
+        private final Cache cache = new Cache();
+
+        /**
+         * Theme preload attributes
+         */
+        private final Preload preload = new Preload();
+
+        /**
+         * Filesystem theme source attributes, when {@code type} is {@code FILESYSTEM}
+         */
+        private final FileSystem fileSystem = new FileSystem();
+
+        /**
+         * Theme validation attributes
+         */
+        private final Validation validation = new Validation();
+
+        /**
+         * Tenant theme source attributes
+         */
+        private final Tenant tenant = new Tenant();
+
+        /**
+         * Precomputed theme source attributes, when {@code type} is {@code PRECOMPUTED}
+         */
+        private final Precomputed precomputed = new Precomputed();
+
+
+        /**
+         * Properties for theme cache
+         *
+         * @author David Hsing
+         * @see com.yookue.springstarter.themechange.source.CachingThemeSource
+         */
+        @Getter
+        @Setter
+        @ToString
+        public static class Cache implements Serializable {
+            /**
+             * Indicates whether to cache the themes with a bounded size or not
+             * <p>
+             * Default is {@code false}, which means using an unbounded {@link org.springframework.ui.context.support.ResourceBundleThemeSource}
+             */
+            private Boolean enabled = false;
+
+            /**
+             * The maximum number of cached themes, excluding the unknown themes
+             * <p>
+             * Default is {@code 256}
+             */
+            private Integer maximumSize = 256;
+
+            /**
+             * The duration after which a cached theme will be reloaded
+             * <p>
+             * Default is {@code null}, which means never expire
+             */
+            private Duration timeToLive;
+
+            /**
+             * Indicates whether to cache the unknown themes (without any resource bundle) or not
+             * <p>
+             * Default is {@code true}
+             */
+            private Boolean negativeCaching = true;
+
+            /**
+             * The duration after which a cached unknown theme will be checked again
+             * <p>
+             * Default is {@code 10m}
+             */
+            private Duration negativeTimeToLive = Duration.ofMinutes(10L);
+
+            /**
+             * The maximum number of cached unknown themes, which are kept apart from the known themes
+             * <p>
+             * Default is {@code 64}
+             */
+            private Integer negativeMaximumSize = 64;
+        }
+
+
+        /**
+         * Properties for theme preload
+         *
+         * @author David Hsing
+         * @see com.yookue.springstarter.themechange.source.ThemeSourcePreloader
+         */
+        @Getter
+        @Setter
+        @ToString
+        public static class Preload implements Serializable {
+            /**
+             * Indicates whether to preload the themes at startup or not
+             * <p>
+             * Default is {@code false}
+             */
+            private Boolean enabled = false;
+
+            /**
+             * The names of the themes to preload
+             * <p>
+             * If empty, the allowed themes of the theme interceptor, or the keys of {@code modelAndView.tagNames} are used
+             */
+            private List<String> themes;
+
+            /**
+             * The locales to preload for each theme
+             * <p>
+             * If empty, the default locale of the JVM is used
+             */
+            private List<Locale> locales;
+
+            /**
+             * The maximum number of threads to preload the themes
+             * <p>
+             * Default is {@code 4}
+             */
+            private Integer threads = 4;
+
+            /**
+             * The maximum duration to wait for the preloading
+             * <p>
+             * Default is {@code 30s}
+             */
+            private Duration timeout = Duration.ofSeconds(30L);
+
+            /**
+             * Indicates whether to fail the startup if any theme cannot be loaded or not
+             * <p>
+             * Default is {@code false}
+             */
+            private Boolean failFast = false;
+        }
+
+
+        /**
+         * Properties for theme validation
+         *
+         * @author David Hsing
+         * @see com.yookue.springstarter.themechange.support.ThemeChangeValidator
+         */
+        @Getter
+        @Setter
+        @ToString
+        public static class Validation implements Serializable {
+            /**
+             * Indicates whether to validate the allowed themes, or the keys of {@code modelAndView.tagNames}, at startup or not
+             * <p>
+             * Default is {@code true}
+             */
+            private Boolean enabled = true;
+
+            /**
+             * Indicates whether to check the message codes are consistent across the validated themes or not
+             * <p>
+             * Default is {@code true}
+             */
+            private Boolean checkKeys = true;
+
+            /**
+             * The locale of the messages to check
+             * <p>
+             * Default is the root locale, which means the default resource bundles
+             */
+            private Locale locale;
+
+            /**
+             * Indicates whether to fail the startup if any problem is found or not
+             * <p>
+             * Default is {@code false}
+             */
+            private Boolean failFast = false;
+        }
+
+
+        /**
+         * Properties for tenant theme source
+         *
+         * @author David Hsing
+         * @see com.yookue.springstarter.themechange.tenant.TenantThemeSource
+         */
+        @Getter
+        @Setter
+        @ToString
+        public static class Tenant implements Serializable {
+            /**
+             * Indicates whether to load the themes of each tenant from the tenant specific resource bundles or not
+             * <p>
+             * Default is {@code false}
+             */
+            private Boolean enabled = false;
+
+            /**
+             * The prefix of the tenant specific resource basenames, the {@code {tenant}} placeholder is replaced with the tenant
+             * <p>
+             * Default is {@code tenant/{tenant}/}
+             */
+            private String basenamePrefix = "tenant/{tenant}/";    // $NON-NLS-1$
+
+            /**
+             * The name of the request header that holds the tenant, if no tenant resolver bean is present
+             * <p>
+             * Default is {@code X-Tenant-Id}
+             */
+            private String headerName = "X-Tenant-Id";    // $NON-NLS-1$
+
+            /**
+             * The maximum number of tenants whose theme sources are kept
+             * <p>
+             * Default is {@code 256}
+             */
+            private Integer maximumSize = 256;
+
+            /**
+             * The duration after which an unused tenant theme source will be evicted
+             * <p>
+             * Default is {@code 30m}
+             */
+            private Duration idleTimeout = Duration.ofMinutes(30L);
+
+            /**
+             * The maximum number of cached themes of each tenant, excluding the unknown themes
+             * <p>
+             * Default is {@code 32}
+             */
+            private Integer themeCacheSize = 32;
+        }
+
+
+        /**
+         * Properties for precomputed theme source
+         *
+         * @author David Hsing
+         * @see com.yookue.springstarter.themechange.source.PrecomputedThemeSource
+         */
+        @Getter
+        @Setter
+        @ToString
+        public static class Precomputed implements Serializable {
+            /**
+             * The names of the themes to precompute
+             * <p>
+             * If empty, the allowed themes of the theme interceptor, or the keys of {@code modelAndView.tagNames} are used
+             */
+            private List<String> themes;
+
+            /**
+             * The supported locales, the messages of each theme are precomputed for every supported locale
+             * <p>
+             * If empty, the {@code themeSource.locales} are used, if that is also empty, the default locale of the JVM is used.
+             * Requests of other locales are served by the closest supported locale
+             */
+            private List<Locale> locales;
+
+            /**
+             * The theme-name and parent-theme-name mappings, the messages that missing in a theme are inherited from its parent theme
+             */
+            private Map<String, String> parents = new LinkedHashMap<>();
+        }
+
+
+        /**
+         * Properties for filesystem theme source
+         *
+         * @author David Hsing
+         * @see com.yookue.springstarter.themechange.source.FileSystemThemeSource
+         */
+        @Getter
+        @Setter
+        @ToString
+        public static class FileSystem implements Serializable {
+            /**
+             * The directory of the theme properties files, either a file path or a {@code file:} url
+             */
+            private String directory;
+
+            /**
+             * Indicates whether to reload the modified themes automatically or not
+             * <p>
+             * Default is {@code true}
+             */
+            private Boolean watchEnabled = true;
+
+            /**
+             * The quiet period to wait for further changes, before reloading the modified themes
+             * <p>
+             * Default is {@code 200ms}
+             */
+            private Duration watchDelay = Duration.ofMillis(200L);
+        }
     }
 
 
@@ -233,13 +665,23 @@ public class ThemeChangeProperties implements Serializable {
          */
         private Boolean cookieSecure = false;
 
+        /**
+         * Specifies the "SameSite" attribute of the cookie, such as {@code Strict}, {@code Lax} or {@code None}
+         * <p>
+         * Default is {@code null}, which means the attribute is not written
+         */
+        private String cookieSameSite;
+
         /**
          * Indicates whether this resolver's cookies should be compliant with BCP-47 language tags instead of Java's legacy locale specification format or not
+         *
+         * @deprecated theme cookies hold theme names rather than locales, this attribute has no effect
          */
+        @Deprecated
         private Boolean languageTagCompliant = true;
 
         /**
-         * Indicates whether to reject cookies with invalid content (e.g. invalid format) or not
+         * Indicates whether to reject cookies with invalid content (e.g. a malformed theme name, or a theme that is not allowed) or not
          */
         private Boolean rejectInvalidCookies = true;
 
@@ -264,4 +706,359 @@ public class ThemeChangeProperties implements Serializable {
          */
         private String defaultThemeName;
     }
+
+
+    /**
+     * Properties for header theme resolver
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.themechange.resolver.HeaderThemeResolver
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class HeaderThemeResolver implements Serializable {
+        /**
+         * The name of the request header that holds the theme name
+         * <p>
+         * Default is {@code X-Theme}
+         */
+        private String headerName = "X-Theme";    // $NON-NLS-1$
+
+        /**
+         * Indicates whether to accept the allowed themes only from the request header or not
+         * <p>
+         * Default is {@code true}
+         */
+        private Boolean allowedOnly = true;
+    }
+
+
+    /**
+     * Properties for preference theme resolver
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.themechange.resolver.PreferenceThemeResolver
+     * @see com.yookue.springstarter.themechange.preference.ThemePreferenceCache
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class PreferenceThemeResolver implements Serializable {
+        /**
+         * The type of the preference store
+         * <p>
+         * Default is {@code memory}
+         */
+        private ThemePreferenceStoreType storeType = ThemePreferenceStoreType.MEMORY;
+
+        /**
+         * The table name of the jdbc preference store
+         * <p>
+         * Default is {@code theme_preference}
+         */
+        private String tableName = "theme_preference";    // $NON-NLS-1$
+
+        /**
+         * The maximum number of preferences to cache on each node
+         * <p>
+         * Default is {@code 10000}
+         */
+        private Integer cacheMaximumSize = 10000;
+
+        /**
+         * The time to live of the cached preferences
+         * <p>
+         * Default is {@code 5m}
+         */
+        private Duration cacheTimeToLive = Duration.ofMinutes(5L);
+
+        /**
+         * Indicates whether to write the preferences to the store in batches or not
+         * <p>
+         * Default is {@code true}
+         */
+        private Boolean writeBehind = true;
+
+        /**
+         * The interval of flushing the pending preferences to the store
+         * <p>
+         * Default is {@code 1s}
+         */
+        private Duration flushInterval = Duration.ofSeconds(1L);
+
+        /**
+         * The number of pending preferences that triggers a flush
+         * <p>
+         * Default is {@code 100}
+         */
+        private Integer batchSize = 100;
+    }
+
+
+    /**
+     * Properties for metrics
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.themechange.metrics.MicrometerThemeChangeRecorder
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Metrics implements Serializable {
+        public static final String DEFAULT_PREFIX = "theme.change";    // $NON-NLS-1$
+
+        /**
+         * Indicates whether to record metrics when a {@code MeterRegistry} bean exists or not
+         * <p>
+         * Default is {@code true}
+         */
+        private Boolean enabled = true;
+
+        /**
+         * The prefix of the meter names
+         * <p>
+         * Default is {@code theme.change}
+         */
+        private String prefix = DEFAULT_PREFIX;
+    }
+
+
+    /**
+     * Properties for theme descriptor endpoint
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.themechange.handler.ThemeDescriptorHandler
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Descriptor implements Serializable {
+        /**
+         * Indicates whether to serve the theme descriptor as json or not
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean enabled = false;
+
+        /**
+         * The path of the endpoint
+         * <p>
+         * Default is {@code /theme-descriptor}
+         */
+        private String path = "/theme-descriptor";    // $NON-NLS-1$
+
+        /**
+         * The name of the request parameter that specifies the locale
+         * <p>
+         * If absent, the locale of the request is used, and the response varies by the inputs of the locale resolver
+         */
+        private String localeParam = "locale";    // $NON-NLS-1$
+
+        /**
+         * The supported locales, the requested locale is negotiated to the closest supported locale, the first one is the default
+         * <p>
+         * If empty, the {@code themeSource.locales} are used, if that is also empty, the available locales of the JVM are supported,
+         * and the default locale of the JVM is the default
+         */
+        private List<Locale> locales;
+
+        /**
+         * The max-age of the {@code Cache-Control} response header
+         * <p>
+         * Default is {@code 1h}, if negative, means {@code no-cache}
+         */
+        private Duration cacheMaxAge = Duration.ofHours(1L);
+
+        /**
+         * The maximum number of tenant and locale pairs to cache the serialized descriptors, the least recently used ones are evicted
+         * <p>
+         * Default is {@code 64}
+         */
+        private Integer cacheSize = 64;
+
+        /**
+         * The priority order of the handler mapping
+         */
+        private Integer handlerOrder;
+    }
+
+
+    /**
+     * Properties for http caching of themed responses
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.themechange.interceptor.ThemeVaryInterceptor
+     * @see com.yookue.springstarter.themechange.filter.ThemeAwareEtagHeaderFilter
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class HttpCaching implements Serializable {
+        /**
+         * Indicates whether to mark the responses of the intercepted paths as varying by theme or not
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean enabled = false;
+
+        /**
+         * The request headers to append to the {@code Vary} response header
+         * <p>
+         * If absent, the headers are derived from the theme resolver type, e.g. {@code Cookie}, or the header name of the header theme resolver
+         */
+        private List<String> varyHeaders;
+
+        /**
+         * Indicates whether to register a shallow ETag filter that mixes the theme name into the ETag or not
+         * <p>
+         * Default is {@code true}. The filter is not registered if a {@code ShallowEtagHeaderFilter} bean already exists
+         */
+        private Boolean themeEtag = true;
+
+        /**
+         * Indicates whether to write weak ETags or not
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean writeWeakEtag = false;
+
+        /**
+         * The url patterns of the ETag filter
+         * <p>
+         * Default is {@code /*}
+         */
+        private List<String> etagUrlPatterns = Collections.singletonList("/*");    // $NON-NLS-1$
+
+        /**
+         * The priority order of the ETag filter
+         */
+        private Integer etagFilterOrder;
+
+        /**
+         * The priority order of the vary interceptor
+         */
+        private Integer interceptorOrder;
+    }
+
+
+    /**
+     * Properties for theme assets
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.themechange.resource.ThemeResourceResolver
+     * @see com.yookue.springstarter.themechange.resource.ResourceUrlThemeSource
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Assets implements Serializable {
+        /**
+         * Indicates whether to serve the theme assets with content versioned urls or not
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean enabled = false;
+
+        /**
+         * The url prefix of the theme assets, the asset urls are {@code {urlPrefix}{theme}/**}
+         * <p>
+         * Default is {@code /themes/}
+         */
+        private String urlPrefix = "/themes/";    // $NON-NLS-1$
+
+        /**
+         * The locations of the theme assets, each theme is a sub directory
+         * <p>
+         * Default is {@code classpath:/static/themes/}
+         */
+        private List<String> locations = Collections.singletonList("classpath:/static/themes/");    // $NON-NLS-1$
+
+        /**
+         * The max-age of the {@code Cache-Control} response header of the versioned assets
+         * <p>
+         * Default is {@code 365d}
+         */
+        private Duration cacheMaxAge = Duration.ofDays(365L);
+
+        /**
+         * The theme whose assets are served when an asset is absent in the requested theme
+         */
+        private String fallbackTheme;
+
+        /**
+         * Indicates whether to serve the precompressed {@code .br} and {@code .gz} variants when present or not
+         * <p>
+         * Default is {@code true}
+         */
+        private Boolean compressed = true;
+
+        /**
+         * Indicates whether to rewrite the asset urls of the theme messages to the versioned urls or not
+         * <p>
+         * Default is {@code true}
+         */
+        private Boolean rewriteMessages = true;
+    }
+
+
+    /**
+     * Properties for theme change events
+     *
+     * @author David Hsing
+     * @see com.yookue.springstarter.themechange.event.ThemeEventRecorder
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Events implements Serializable {
+        /**
+         * Indicates whether to publish the theme change events or not
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean enabled = false;
+
+        /**
+         * Indicates whether to publish an event for every theme resolution, besides the theme switches, or not
+         * <p>
+         * Default is {@code false}
+         */
+        private Boolean includeResolutions = false;
+
+        /**
+         * The type of the event sink
+         * <p>
+         * Default is {@code logging}
+         */
+        private ThemeEventSinkType sinkType = ThemeEventSinkType.LOGGING;
+
+        /**
+         * The table name of the jdbc event sink
+         * <p>
+         * Default is {@code theme_event}
+         */
+        private String tableName = "theme_event";    // $NON-NLS-1$
+
+        /**
+         * The capacity of the event buffer, the events are dropped when it is full
+         * <p>
+         * Default is {@code 8192}
+         */
+        private Integer bufferSize = 8192;
+
+        /**
+         * The maximum number of events to write to the sink at once
+         * <p>
+         * Default is {@code 256}
+         */
+        private Integer batchSize = 256;
+
+        /**
+         * The interval of draining the event buffer, when there is less than a batch of events
+         * <p>
+         * Default is {@code 200ms}
+         */
+        private Duration drainInterval = Duration.ofMillis(200L);
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import java.time.Duration;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.server.ServerWebExchange;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.reactive.ServerThemeResolver} that uses a cookie to hold the theme name
+ *
+ * @author David Hsing
+ * @see org.springframework.web.servlet.theme.CookieThemeResolver
+ */
+@Getter
+@Setter
+public class CookieServerThemeResolver implements ServerThemeResolver {
+    private String cookieName;
+    private String cookiePath = "/";    // $NON-NLS-1$
+    private String cookieDomain;
+    private Integer cookieMaxAge;
+    private boolean cookieHttpOnly;
+    private boolean cookieSecure;
+    private String cookieSameSite;
+    private String defaultThemeName;
+
+    public CookieServerThemeResolver(@Nonnull String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    @Nonnull
+    @Override
+    public Mono<String> resolveThemeName(@Nonnull ServerWebExchange exchange) {
+        String themeName = exchange.getAttribute(THEME_NAME_ATTRIBUTE);
+        if (themeName == null) {
+            HttpCookie cookie = exchange.getRequest().getCookies().getFirst(cookieName);
+            themeName = (cookie != null && StringUtils.isNotBlank(cookie.getValue())) ? cookie.getValue() : defaultThemeName;
+            if (themeName != null) {
+                exchange.getAttributes().put(THEME_NAME_ATTRIBUTE, themeName);
+            }
+        }
+        return Mono.justOrEmpty(themeName);
+    }
+
+    @Nonnull
+    @Override
+    public Mono<Void> setThemeName(@Nonnull ServerWebExchange exchange, @Nullable String themeName) {
+        boolean reset = StringUtils.isBlank(themeName);
+        ResponseCookie.ResponseCookieBuilder builder = ResponseCookie.from(cookieName, reset ? StringUtils.EMPTY : themeName).path(cookiePath).httpOnly(cookieHttpOnly).secure(cookieSecure).sameSite(cookieSameSite);
+        if (StringUtils.isNotBlank(cookieDomain)) {
+            builder.domain(cookieDomain);
+        }
+        if (reset) {
+            builder.maxAge(Duration.ZERO);
+        } else if (cookieMaxAge != null) {
+            builder.maxAge(cookieMaxAge);
+        }
+        exchange.getResponse().addCookie(builder.build());
+        if (reset) {
+            if (defaultThemeName != null) {
+                exchange.getAttributes().put(THEME_NAME_ATTRIBUTE, defaultThemeName);
+            } else {
+                exchange.getAttributes().remove(THEME_NAME_ATTRIBUTE);
+            }
+        } else {
+            exchange.getAttributes().put(THEME_NAME_ATTRIBUTE, themeName);
+        }
+        return Mono.empty();
+    }
+}
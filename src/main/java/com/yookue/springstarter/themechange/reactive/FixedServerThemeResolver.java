@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.web.server.ServerWebExchange;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.reactive.ServerThemeResolver} that always returns a fixed theme name
+ *
+ * @author David Hsing
+ * @see org.springframework.web.servlet.theme.FixedThemeResolver
+ */
+@Getter
+@Setter
+public class FixedServerThemeResolver implements ServerThemeResolver {
+    private String defaultThemeName = "theme";    // $NON-NLS-1$
+
+    @Nonnull
+    @Override
+    public Mono<String> resolveThemeName(@Nonnull ServerWebExchange exchange) {
+        return Mono.justOrEmpty(defaultThemeName);
+    }
+
+    @Nonnull
+    @Override
+    public Mono<Void> setThemeName(@Nonnull ServerWebExchange exchange, @Nullable String themeName) {
+        return Mono.error(new UnsupportedOperationException("Cannot change theme - use a different theme resolution strategy"));
+    }
+}
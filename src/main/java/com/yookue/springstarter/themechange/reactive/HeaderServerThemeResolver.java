@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import java.util.Collections;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.reactive.ServerThemeResolver} that reads the theme name from a request header first, then falls back to a cookie
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.resolver.HeaderThemeResolver
+ */
+@Getter
+@Setter
+public class HeaderServerThemeResolver extends CookieServerThemeResolver {
+    private String headerName = "X-Theme";    // $NON-NLS-1$
+    private Set<String> allowedThemes = Collections.emptySet();
+
+    public HeaderServerThemeResolver(@Nonnull String cookieName) {
+        super(cookieName);
+    }
+
+    @Nonnull
+    @Override
+    public Mono<String> resolveThemeName(@Nonnull ServerWebExchange exchange) {
+        if (exchange.getAttribute(THEME_NAME_ATTRIBUTE) == null && StringUtils.isNotBlank(headerName)) {
+            String themeName = StringUtils.trimToNull(exchange.getRequest().getHeaders().getFirst(headerName));
+            if (ThemeChangeUtils.isAllowedTheme(allowedThemes, themeName)) {
+                exchange.getAttributes().put(THEME_NAME_ATTRIBUTE, themeName);
+                return Mono.just(themeName);
+            }
+        }
+        return super.resolveThemeName(exchange);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Non-blocking theme resolution strategy for reactive web applications
+ *
+ * @author David Hsing
+ * @see org.springframework.web.servlet.ThemeResolver
+ */
+public interface ServerThemeResolver {
+    /**
+     * The exchange attribute name that holds the resolved theme name
+     */
+    String THEME_NAME_ATTRIBUTE = ServerThemeResolver.class.getName() + ".THEME_NAME";    // $NON-NLS-1$
+
+    /**
+     * Resolve the current theme name via the given exchange
+     *
+     * @param exchange the current server exchange
+     *
+     * @return the current theme name, or empty if none
+     */
+    @Nonnull
+    Mono<String> resolveThemeName(@Nonnull ServerWebExchange exchange);
+
+    /**
+     * Set the current theme name to the given one
+     *
+     * @param exchange the current server exchange
+     * @param themeName the name of the theme, or {@code null} to reset it to the default
+     *
+     * @return a completion signal
+     */
+    @Nonnull
+    Mono<Void> setThemeName(@Nonnull ServerWebExchange exchange, @Nullable String themeName);
+}
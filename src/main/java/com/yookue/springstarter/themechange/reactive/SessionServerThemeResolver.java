@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.reactive.ServerThemeResolver} that uses a {@link org.springframework.web.server.WebSession} attribute to hold the theme name
+ *
+ * @author David Hsing
+ * @see org.springframework.web.servlet.theme.SessionThemeResolver
+ */
+@Getter
+@Setter
+public class SessionServerThemeResolver implements ServerThemeResolver {
+    /**
+     * The session attribute name that holds the theme name
+     */
+    public static final String THEME_SESSION_ATTRIBUTE = SessionServerThemeResolver.class.getName() + ".THEME";    // $NON-NLS-1$
+
+    private String defaultThemeName;
+
+    @Nonnull
+    @Override
+    public Mono<String> resolveThemeName(@Nonnull ServerWebExchange exchange) {
+        String themeName = exchange.getAttribute(THEME_NAME_ATTRIBUTE);
+        if (themeName != null) {
+            return Mono.just(themeName);
+        }
+        return exchange.getSession().flatMap(session -> Mono.justOrEmpty(session.<String>getAttribute(THEME_SESSION_ATTRIBUTE))).switchIfEmpty(Mono.justOrEmpty(defaultThemeName)).doOnNext(name -> exchange.getAttributes().put(THEME_NAME_ATTRIBUTE, name));
+    }
+
+    @Nonnull
+    @Override
+    public Mono<Void> setThemeName(@Nonnull ServerWebExchange exchange, @Nullable String themeName) {
+        return exchange.getSession().doOnNext(session -> {
+            if (StringUtils.isNotBlank(themeName)) {
+                session.getAttributes().put(THEME_SESSION_ATTRIBUTE, themeName);
+                exchange.getAttributes().put(THEME_NAME_ATTRIBUTE, themeName);
+            } else {
+                session.getAttributes().remove(THEME_SESSION_ATTRIBUTE);
+                exchange.getAttributes().remove(THEME_NAME_ATTRIBUTE);
+            }
+        }).then();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceAware;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.ui.Model;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.server.ServerWebExchange;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+import com.yookue.springstarter.themechange.support.ThemeTagNamesCache;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * {@link org.springframework.web.bind.annotation.ControllerAdvice} that contributes the theme tag names to the model of reactive handlers
+ * <p>
+ * This is the reactive equivalent of {@link com.yookue.springstarter.themechange.interceptor.ThemeChangeViewInterceptor}.
+ * The multilingual tag names are contributed as a {@link reactor.core.publisher.Mono}, which is only resolved before rendering a view,
+ * so that handlers that write the response body directly never resolve them
+ *
+ * @author David Hsing
+ */
+@ControllerAdvice
+public class ThemeChangeModelAdvice implements MessageSourceAware, ApplicationListener<ContextRefreshedEvent> {
+    private final ThemeChangeProperties properties;
+    private final ThemePathMatcher pathMatcher;
+    private final ThemeTagNamesCache tagNamesCache;
+    protected MessageSource messageSource;
+
+    public ThemeChangeModelAdvice(@Nonnull ThemeChangeProperties properties) {
+        this.properties = properties;
+        ThemeChangeProperties.ModelAndView props = properties.getModelAndView();
+        this.pathMatcher = new ThemePathMatcher(props.getInterceptPaths(), props.getExcludePaths());
+        this.tagNamesCache = new ThemeTagNamesCache(props.getTagCacheSize() == null ? 0 : props.getTagCacheSize(), props.getTagCacheTimeToLive());
+    }
+
+    @Override
+    public void setMessageSource(@Nullable MessageSource messageSource) {
+        this.messageSource = messageSource;
+        tagNamesCache.clear();
+    }
+
+    @Override
+    public void onApplicationEvent(@Nonnull ContextRefreshedEvent event) {
+        tagNamesCache.clear();
+    }
+
+    @ModelAttribute
+    public void addTagNames(@Nonnull Model model, @Nonnull ServerWebExchange exchange) {
+        ThemeChangeProperties.ModelAndView props = properties.getModelAndView();
+        if (StringUtils.isBlank(props.getViewAttribute()) || CollectionUtils.isEmpty(props.getTagNames()) || !pathMatcher.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return;
+        }
+        if (BooleanUtils.isNotTrue(props.getTagMultilingual())) {
+            model.addAttribute(props.getViewAttribute(), props.getTagNames());
+            return;
+        }
+        model.addAttribute(props.getViewAttribute(), Mono.fromSupplier(() -> {
+            Locale locale = exchange.getLocaleContext().getLocale();
+            return tagNamesCache.getTagNames(props.getTagNames(), messageSource, locale != null ? locale : Locale.getDefault());
+        }));
+    }
+}
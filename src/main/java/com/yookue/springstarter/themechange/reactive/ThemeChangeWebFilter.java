@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * {@link org.springframework.web.server.WebFilter} that switches the theme via a request parameter
+ * <p>
+ * This is the reactive equivalent of {@link com.yookue.springstarter.themechange.interceptor.ThemeChangeSwitchInterceptor}
+ *
+ * @author David Hsing
+ */
+@Getter
+@Setter
+public class ThemeChangeWebFilter implements WebFilter, Ordered {
+    private final ServerThemeResolver themeResolver;
+    private final Set<String> allowedThemes;
+    private final ThemePathMatcher pathMatcher;
+    private String paramName = "theme";    // $NON-NLS-1$
+    private int order = 0;
+
+    public ThemeChangeWebFilter(@Nonnull ServerThemeResolver themeResolver, @Nonnull Set<String> allowedThemes, @Nonnull ThemePathMatcher pathMatcher) {
+        this.themeResolver = themeResolver;
+        this.allowedThemes = allowedThemes;
+        this.pathMatcher = pathMatcher;
+    }
+
+    @Nonnull
+    @Override
+    public Mono<Void> filter(@Nonnull ServerWebExchange exchange, @Nonnull WebFilterChain chain) {
+        String newTheme = exchange.getRequest().getQueryParams().getFirst(paramName);
+        if (!ThemeChangeUtils.isValidThemeName(newTheme) || !ThemeChangeUtils.isAllowedTheme(allowedThemes, newTheme) || !pathMatcher.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        return themeResolver.resolveThemeName(exchange).defaultIfEmpty(StringUtils.EMPTY).flatMap(currentTheme -> StringUtils.equals(newTheme, currentTheme) ? Mono.<Void>empty() : themeResolver.setThemeName(exchange, newTheme)).then(chain.filter(exchange));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import java.util.Collections;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.theme.CookieThemeResolver;
+import org.springframework.web.util.WebUtils;
+import com.yookue.commonplexus.javaseutil.constant.AssertMessageConst;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link org.springframework.web.servlet.theme.CookieThemeResolver} that honours all the cookie attributes
+ * <p>
+ * Supports the {@code SameSite} attribute, rejects the cookies that do not hold a valid and allowed theme,
+ * and skips the {@code Set-Cookie} header when the incoming cookie already holds the requested theme, so that the responses stay cacheable
+ *
+ * @author David Hsing
+ */
+@Getter
+@Setter
+public class ConfigurableCookieThemeResolver extends CookieThemeResolver {
+    private String cookieSameSite;
+    private boolean rejectInvalidCookies = true;
+    private Set<String> allowedThemes = Collections.emptySet();
+    private ThemeChangeRecorder recorder;
+
+    @Nonnull
+    @Override
+    public String resolveThemeName(@Nonnull HttpServletRequest request) {
+        String themeName = (String) request.getAttribute(THEME_REQUEST_ATTRIBUTE_NAME);
+        if (themeName != null) {
+            return themeName;
+        }
+        themeName = resolveCookieTheme(request);
+        if (themeName == null) {
+            themeName = getDefaultThemeName();
+        }
+        request.setAttribute(THEME_REQUEST_ATTRIBUTE_NAME, themeName);
+        return themeName;
+    }
+
+    @Override
+    public void setThemeName(@Nonnull HttpServletRequest request, @Nullable HttpServletResponse response, @Nullable String themeName) {
+        Assert.notNull(response, AssertMessageConst.NOT_NULL);
+        String cookieValue = getCookieValue(request);
+        if (StringUtils.isNotBlank(themeName)) {
+            request.setAttribute(THEME_REQUEST_ATTRIBUTE_NAME, themeName);
+            if (!StringUtils.equals(cookieValue, themeName)) {
+                addCookie(response, themeName);
+            }
+        } else {
+            request.setAttribute(THEME_REQUEST_ATTRIBUTE_NAME, getDefaultThemeName());
+            if (cookieValue != null) {
+                removeCookie(response);
+            }
+        }
+    }
+
+    @Override
+    public void addCookie(@Nonnull HttpServletResponse response, @Nonnull String cookieValue) {
+        if (StringUtils.isBlank(cookieSameSite)) {
+            super.addCookie(response, cookieValue);
+            return;
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, buildCookie(cookieValue, getCookieMaxAge()).toString());
+    }
+
+    @Override
+    public void removeCookie(@Nonnull HttpServletResponse response) {
+        if (StringUtils.isBlank(cookieSameSite)) {
+            super.removeCookie(response);
+            return;
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, buildCookie(StringUtils.EMPTY, 0).toString());
+    }
+
+    /**
+     * Returns the theme name of the incoming cookie, or {@code null} if the cookie is absent or rejected
+     */
+    @Nullable
+    protected String resolveCookieTheme(@Nonnull HttpServletRequest request) {
+        String themeName = getCookieValue(request);
+        if (themeName == null) {
+            return null;
+        }
+        if (rejectInvalidCookies && (!ThemeChangeUtils.isValidThemeName(themeName) || !ThemeChangeUtils.isAllowedTheme(allowedThemes, themeName))) {
+            if (recorder != null) {
+                recorder.recordThemeRejected(themeName, ThemeChangeRecorder.REJECT_INVALID_COOKIE);
+            }
+            return null;
+        }
+        return themeName;
+    }
+
+    @Nullable
+    private String getCookieValue(@Nonnull HttpServletRequest request) {
+        Cookie cookie = (getCookieName() == null) ? null : WebUtils.getCookie(request, getCookieName());
+        return (cookie == null) ? null : StringUtils.trimToNull(cookie.getValue());
+    }
+
+    @Nonnull
+    private ResponseCookie buildCookie(@Nonnull String cookieValue, @Nullable Integer maxAge) {
+        Assert.notNull(getCookieName(), AssertMessageConst.NOT_NULL);
+        ResponseCookie.ResponseCookieBuilder builder = ResponseCookie.from(getCookieName(), cookieValue).path(getCookiePath()).httpOnly(isCookieHttpOnly()).secure(isCookieSecure()).sameSite(cookieSameSite);
+        if (StringUtils.isNotBlank(getCookieDomain())) {
+            builder.domain(getCookieDomain());
+        }
+        if (maxAge != null) {
+            builder.maxAge(maxAge);
+        }
+        return builder.build();
+    }
+}
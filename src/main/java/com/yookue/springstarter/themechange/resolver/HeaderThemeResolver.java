@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import org.apache.commons.lang3.StringUtils;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link org.springframework.web.servlet.ThemeResolver} that reads the theme name from a request header first, then falls back to a cookie
+ * <p>
+ * The request header is usually set by a CDN or an edge proxy, this resolver never touches the {@link javax.servlet.http.HttpSession}.
+ * Header values that are not valid theme names are always rejected, even if {@code allowedOnly} is disabled
+ *
+ * @author David Hsing
+ */
+@Getter
+@Setter
+public class HeaderThemeResolver extends ConfigurableCookieThemeResolver {
+    /**
+     * The default name of the request header that holds the theme name
+     */
+    public static final String DEFAULT_HEADER_NAME = "X-Theme";    // $NON-NLS-1$
+
+    private String headerName = DEFAULT_HEADER_NAME;
+    private boolean allowedOnly = true;
+
+    @Nonnull
+    @Override
+    public String resolveThemeName(@Nonnull HttpServletRequest request) {
+        String themeName = (String) request.getAttribute(THEME_REQUEST_ATTRIBUTE_NAME);
+        if (themeName != null) {
+            return themeName;
+        }
+        themeName = resolveHeaderTheme(request);
+        if (themeName != null) {
+            request.setAttribute(THEME_REQUEST_ATTRIBUTE_NAME, themeName);
+            return themeName;
+        }
+        return super.resolveThemeName(request);
+    }
+
+    @Nullable
+    protected String resolveHeaderTheme(@Nonnull HttpServletRequest request) {
+        if (StringUtils.isBlank(headerName)) {
+            return null;
+        }
+        String themeName = StringUtils.trimToNull(request.getHeader(headerName));
+        if (themeName == null) {
+            return null;
+        }
+        if (!ThemeChangeUtils.isValidThemeName(themeName) || (allowedOnly && !ThemeChangeUtils.isAllowedTheme(getAllowedThemes(), themeName))) {
+            if (getRecorder() != null) {
+                getRecorder().recordThemeRejected(themeName, ThemeChangeRecorder.REJECT_INVALID_HEADER);
+            }
+            return null;
+        }
+        return themeName;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.ui.context.Theme;
+import org.springframework.web.servlet.ThemeResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.servlet.theme.CookieThemeResolver;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.web.servlet.ThemeResolver} that resolves the theme name at most once per request
+ * <p>
+ * The theme name is cached in a request attribute, and is discarded when the theme name is changed.
+ * A {@link org.springframework.web.servlet.theme.CookieThemeResolver} delegate, even if recorded, already caches the theme name in its own request attribute,
+ * so it is not cached again. The theme itself is memoized by {@link com.yookue.springstarter.themechange.source.MemoizingThemeSource}
+ *
+ * @author David Hsing
+ */
+@Getter
+public class MemoizingThemeResolver implements ThemeResolver {
+    /**
+     * The request attribute name that holds the resolved theme name
+     */
+    public static final String THEME_NAME_ATTRIBUTE = MemoizingThemeResolver.class.getName() + ".THEME_NAME";    // $NON-NLS-1$
+
+    private final ThemeResolver delegate;
+    private final boolean memoizeName;
+
+    public MemoizingThemeResolver(@Nonnull ThemeResolver delegate) {
+        this.delegate = delegate;
+        this.memoizeName = !(unwrapResolver(delegate) instanceof CookieThemeResolver);
+    }
+
+    @Nonnull
+    @Override
+    public String resolveThemeName(@Nonnull HttpServletRequest request) {
+        if (!memoizeName) {
+            return delegate.resolveThemeName(request);
+        }
+        Object themeName = request.getAttribute(THEME_NAME_ATTRIBUTE);
+        if (themeName instanceof String) {
+            return (String) themeName;
+        }
+        String result = delegate.resolveThemeName(request);
+        request.setAttribute(THEME_NAME_ATTRIBUTE, result);
+        return result;
+    }
+
+    @Override
+    public void setThemeName(@Nonnull HttpServletRequest request, @Nullable HttpServletResponse response, @Nullable String themeName) {
+        delegate.setThemeName(request, response, themeName);
+        request.removeAttribute(THEME_NAME_ATTRIBUTE);
+    }
+
+    /**
+     * Returns the theme name of the current request, via the theme resolver that bound to the request
+     *
+     * @param request the current request
+     *
+     * @return the theme name of the current request, or {@code null} if no theme resolver bound to the request
+     */
+    @Nullable
+    public static String getThemeName(@Nonnull HttpServletRequest request) {
+        Object themeName = request.getAttribute(THEME_NAME_ATTRIBUTE);
+        if (themeName instanceof String) {
+            return (String) themeName;
+        }
+        ThemeResolver themeResolver = RequestContextUtils.getThemeResolver(request);
+        return (themeResolver == null) ? null : themeResolver.resolveThemeName(request);
+    }
+
+    /**
+     * Returns the theme of the current request, via the theme resolver and the theme source that bound to the request
+     *
+     * @param request the current request
+     *
+     * @return the theme of the current request, or {@code null} if none
+     */
+    @Nullable
+    public static Theme getTheme(@Nonnull HttpServletRequest request) {
+        return (RequestContextUtils.getThemeResolver(request) == null) ? null : RequestContextUtils.getTheme(request);
+    }
+
+    @Nonnull
+    private static ThemeResolver unwrapResolver(@Nonnull ThemeResolver resolver) {
+        return (resolver instanceof RecordingThemeResolver) ? ((RecordingThemeResolver) resolver).getDelegate() : resolver;
+    }
+}
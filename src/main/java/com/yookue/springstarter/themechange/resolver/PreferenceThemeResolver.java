@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import java.security.Principal;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.Assert;
+import com.yookue.springstarter.themechange.preference.ThemePreferenceCache;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.web.servlet.ThemeResolver} that reads the theme name from the preference of the authenticated principal,
+ * then falls back to a cookie
+ * <p>
+ * The preferences are read and written through a {@link com.yookue.springstarter.themechange.preference.ThemePreferenceCache},
+ * anonymous requests only use the cookie
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.preference.ThemePreferenceStore
+ */
+@Getter
+public class PreferenceThemeResolver extends ConfigurableCookieThemeResolver {
+    private final ThemePreferenceCache preferenceCache;
+
+    public PreferenceThemeResolver(@Nonnull ThemePreferenceCache preferenceCache) {
+        Assert.notNull(preferenceCache, "Preference cache must not be null");    // $NON-NLS-1$
+        this.preferenceCache = preferenceCache;
+    }
+
+    @Nonnull
+    @Override
+    public String resolveThemeName(@Nonnull HttpServletRequest request) {
+        String themeName = (String) request.getAttribute(THEME_REQUEST_ATTRIBUTE_NAME);
+        if (themeName != null) {
+            return themeName;
+        }
+        themeName = resolvePreferenceTheme(request);
+        if (themeName != null) {
+            request.setAttribute(THEME_REQUEST_ATTRIBUTE_NAME, themeName);
+            return themeName;
+        }
+        return super.resolveThemeName(request);
+    }
+
+    @Override
+    public void setThemeName(@Nonnull HttpServletRequest request, @Nullable HttpServletResponse response, @Nullable String themeName) {
+        String principal = getPrincipalName(request);
+        if (principal != null) {
+            preferenceCache.setTheme(principal, StringUtils.trimToNull(themeName));
+        }
+        super.setThemeName(request, response, themeName);
+    }
+
+    @Nullable
+    protected String resolvePreferenceTheme(@Nonnull HttpServletRequest request) {
+        String principal = getPrincipalName(request);
+        if (principal == null) {
+            return null;
+        }
+        String themeName = preferenceCache.getTheme(principal);
+        if (themeName == null) {
+            return null;
+        }
+        if (isRejectInvalidCookies() && !ThemeChangeUtils.isAllowedTheme(getAllowedThemes(), themeName)) {
+            if (getRecorder() != null) {
+                getRecorder().recordThemeRejected(themeName, ThemeChangeRecorder.REJECT_INVALID_PREFERENCE);
+            }
+            return null;
+        }
+        return themeName;
+    }
+
+    /**
+     * Returns the name of the authenticated principal, or {@code null} if the request is anonymous
+     */
+    @Nullable
+    protected String getPrincipalName(@Nonnull HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return (principal == null) ? null : StringUtils.trimToNull(principal.getName());
+    }
+}
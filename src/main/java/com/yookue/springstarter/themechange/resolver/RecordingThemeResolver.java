@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.ThemeResolver;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.web.servlet.ThemeResolver} that records the resolved theme names and the duration of theme resolutions
+ * <p>
+ * Only the first resolution of each request is recorded, the later ones of the same request are passed through,
+ * so that the rendering of a view which looks up the theme many times is still counted as one resolution
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.support.ThemeChangeRecorder
+ */
+@Getter
+public class RecordingThemeResolver implements ThemeResolver {
+    /**
+     * The request attribute name that marks the request whose theme resolution has been recorded
+     */
+    public static final String RECORDED_ATTRIBUTE = RecordingThemeResolver.class.getName() + ".RECORDED";    // $NON-NLS-1$
+
+    private final ThemeResolver delegate;
+    private final ThemeChangeRecorder recorder;
+
+    public RecordingThemeResolver(@Nonnull ThemeResolver delegate, @Nonnull ThemeChangeRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Nonnull
+    @Override
+    public String resolveThemeName(@Nonnull HttpServletRequest request) {
+        if (request.getAttribute(RECORDED_ATTRIBUTE) != null) {
+            return delegate.resolveThemeName(request);
+        }
+        request.setAttribute(RECORDED_ATTRIBUTE, Boolean.TRUE);
+        long startTime = System.nanoTime();
+        String themeName = null;
+        try {
+            themeName = delegate.resolveThemeName(request);
+            return themeName;
+        } finally {
+            recorder.recordThemeResolved(themeName, System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public void setThemeName(@Nonnull HttpServletRequest request, @Nullable HttpServletResponse response, @Nullable String themeName) {
+        delegate.setThemeName(request, response, themeName);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resource;
+
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import com.yookue.springstarter.themechange.support.EnumerableMessageSource;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.context.MessageSource} that rewrites the theme asset urls of the messages to the versioned urls
+ * <p>
+ * The messages that start with the url prefix are looked up via the {@link org.springframework.web.servlet.resource.ResourceUrlProvider},
+ * the versioned urls are computed once and shared by all the themes, until the cache is cleared
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.resource.ResourceUrlThemeSource
+ */
+@Getter
+public class ResourceUrlMessageSource implements EnumerableMessageSource {
+    private final MessageSource messageSource;
+    private final String urlPrefix;
+    private final Supplier<ResourceUrlProvider> urlProvider;
+    private final ConcurrentMap<String, String> urlCache;
+
+    public ResourceUrlMessageSource(@Nonnull MessageSource messageSource, @Nonnull String urlPrefix, @Nonnull Supplier<ResourceUrlProvider> urlProvider) {
+        this(messageSource, urlPrefix, urlProvider, new ConcurrentHashMap<>());
+    }
+
+    public ResourceUrlMessageSource(@Nonnull MessageSource messageSource, @Nonnull String urlPrefix, @Nonnull Supplier<ResourceUrlProvider> urlProvider, @Nonnull ConcurrentMap<String, String> urlCache) {
+        this.messageSource = messageSource;
+        this.urlPrefix = urlPrefix;
+        this.urlProvider = urlProvider;
+        this.urlCache = urlCache;
+    }
+
+    @Nullable
+    @Override
+    public String getMessage(@Nonnull String code, @Nullable Object[] args, @Nullable String defaultMessage, @Nonnull Locale locale) {
+        return rewriteUrl(messageSource.getMessage(code, args, defaultMessage, locale));
+    }
+
+    @Nonnull
+    @Override
+    public String getMessage(@Nonnull String code, @Nullable Object[] args, @Nonnull Locale locale) throws NoSuchMessageException {
+        return rewriteUrl(messageSource.getMessage(code, args, locale));
+    }
+
+    @Nonnull
+    @Override
+    public String getMessage(@Nonnull MessageSourceResolvable resolvable, @Nonnull Locale locale) throws NoSuchMessageException {
+        return rewriteUrl(messageSource.getMessage(resolvable, locale));
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getMessageCodes(@Nonnull Locale locale) {
+        return ThemeChangeUtils.getMessageCodes(messageSource, locale, ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * Returns the versioned url of the message, or the message itself if it is not a resolvable asset url
+     */
+    protected String rewriteUrl(@Nullable String message) {
+        if (message == null || !StringUtils.startsWith(message, urlPrefix)) {
+            return message;
+        }
+        String result = urlCache.get(message);
+        if (result != null) {
+            return result;
+        }
+        ResourceUrlProvider provider = urlProvider.get();
+        result = (provider == null) ? null : provider.getForLookupPath(message);
+        if (result == null) {
+            return message;
+        }
+        urlCache.putIfAbsent(message, result);
+        return result;
+    }
+}
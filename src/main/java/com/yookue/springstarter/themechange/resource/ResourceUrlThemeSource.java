@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resource;
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.ui.context.HierarchicalThemeSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.SimpleTheme;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import com.yookue.springstarter.themechange.support.AccessOrderedCache;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.ui.context.ThemeSource} that decorates the themes of another theme source,
+ * so that the theme asset urls of the messages are rewritten to the content versioned urls
+ * <p>
+ * The versioned urls are computed once, and discarded when the context is refreshed or {@link #clearCache()} is called, e.g. after a theme reload.
+ * The decorated themes are kept in a bounded least recently used cache, and only the themes with valid names are decorated.
+ * The bean lifecycle callbacks are passed through, so that the decorated theme source is still initialized and destroyed as a bean
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.resource.ResourceUrlMessageSource
+ */
+public class ResourceUrlThemeSource implements HierarchicalThemeSource, ApplicationListener<ContextRefreshedEvent>, ApplicationEventPublisherAware, BeanClassLoaderAware, InitializingBean, DisposableBean {
+    private final AccessOrderedCache<String, DecoratedTheme> themeCache = new AccessOrderedCache<>(256);
+    private final ConcurrentMap<String, String> urlCache = new ConcurrentHashMap<>();
+
+    @Getter
+    private final ThemeSource themeSource;
+
+    @Getter
+    private final String urlPrefix;
+
+    private final Supplier<ResourceUrlProvider> urlProvider;
+
+    public ResourceUrlThemeSource(@Nonnull ThemeSource themeSource, @Nonnull String urlPrefix, @Nonnull Supplier<ResourceUrlProvider> urlProvider) {
+        this.themeSource = themeSource;
+        this.urlPrefix = urlPrefix;
+        this.urlProvider = urlProvider;
+    }
+
+    public int getMaximumSize() {
+        return themeCache.getMaximumSize();
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        themeCache.setMaximumSize(maximumSize);
+    }
+
+    @Override
+    public void setParentThemeSource(@Nullable ThemeSource parent) {
+        if (themeSource instanceof HierarchicalThemeSource) {
+            ((HierarchicalThemeSource) themeSource).setParentThemeSource(parent);
+        }
+        themeCache.clear();
+    }
+
+    @Nullable
+    @Override
+    public ThemeSource getParentThemeSource() {
+        return (themeSource instanceof HierarchicalThemeSource) ? ((HierarchicalThemeSource) themeSource).getParentThemeSource() : null;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(@Nonnull ApplicationEventPublisher publisher) {
+        if (themeSource instanceof ApplicationEventPublisherAware) {
+            ((ApplicationEventPublisherAware) themeSource).setApplicationEventPublisher(publisher);
+        }
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nonnull ClassLoader classLoader) {
+        if (themeSource instanceof BeanClassLoaderAware) {
+            ((BeanClassLoaderAware) themeSource).setBeanClassLoader(classLoader);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (themeSource instanceof InitializingBean) {
+            ((InitializingBean) themeSource).afterPropertiesSet();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (themeSource instanceof DisposableBean) {
+            ((DisposableBean) themeSource).destroy();
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(@Nonnull ContextRefreshedEvent event) {
+        clearCache();
+    }
+
+    @Nullable
+    @Override
+    public Theme getTheme(@Nonnull String themeName) {
+        Theme theme = themeSource.getTheme(themeName);
+        if (theme == null || !ThemeChangeUtils.isValidThemeName(themeName)) {
+            return theme;
+        }
+        DecoratedTheme decorated = themeCache.get(themeName);
+        if (decorated == null || decorated.source != theme) {
+            decorated = new DecoratedTheme(theme, new SimpleTheme(theme.getName(), new ResourceUrlMessageSource(theme.getMessageSource(), urlPrefix, urlProvider, urlCache)));
+            themeCache.put(themeName, decorated, null);
+        }
+        return decorated.theme;
+    }
+
+    /**
+     * Returns the number of the decorated themes that cached
+     *
+     * @return the number of the decorated themes that cached
+     */
+    public int getCacheSize() {
+        return themeCache.size();
+    }
+
+    /**
+     * Discards all the versioned urls
+     */
+    public void clearCache() {
+        urlCache.clear();
+    }
+
+
+    /**
+     * Decorated theme that remembers the theme of the underlying theme source
+     */
+    private static final class DecoratedTheme {
+        private final Theme source;
+        private final Theme theme;
+
+        private DecoratedTheme(@Nonnull Theme source, @Nonnull Theme theme) {
+            this.source = source;
+            this.theme = theme;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resource;
+
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link org.springframework.web.servlet.resource.ResourceResolver} that resolves the assets of a theme, the resource paths are {@code {theme}/**}
+ * <p>
+ * Themes that are not allowed are never resolved, and an asset that absent in a theme falls back to the same path of the fallback theme,
+ * while the url path keeps the requested theme, so that each theme could override a subset of the assets
+ *
+ * @author David Hsing
+ */
+@Getter
+@Setter
+public class ThemeResourceResolver extends AbstractResourceResolver {
+    private Set<String> allowedThemes = Collections.emptySet();
+    private String fallbackTheme;
+
+    @Nullable
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, @Nonnull String requestPath, @Nonnull List<? extends Resource> locations, @Nonnull ResourceResolverChain chain) {
+        String themeName = getThemeName(requestPath);
+        if (themeName == null) {
+            return null;
+        }
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null && isFallbackTheme(themeName)) {
+            resource = chain.resolveResource(request, fallbackTheme + requestPath.substring(themeName.length()), locations);
+        }
+        return resource;
+    }
+
+    @Nullable
+    @Override
+    protected String resolveUrlPathInternal(@Nonnull String resourceUrlPath, @Nonnull List<? extends Resource> locations, @Nonnull ResourceResolverChain chain) {
+        String themeName = getThemeName(resourceUrlPath);
+        if (themeName == null) {
+            return null;
+        }
+        String urlPath = chain.resolveUrlPath(resourceUrlPath, locations);
+        if (urlPath == null && isFallbackTheme(themeName) && chain.resolveUrlPath(fallbackTheme + resourceUrlPath.substring(themeName.length()), locations) != null) {
+            return resourceUrlPath;
+        }
+        return urlPath;
+    }
+
+    /**
+     * Returns the allowed theme name of the path, or {@code null} if the path does not start with an allowed theme
+     */
+    @Nullable
+    protected String getThemeName(@Nonnull String path) {
+        int index = path.indexOf('/');
+        if (index <= 0) {
+            return null;
+        }
+        String themeName = path.substring(0, index);
+        return ThemeChangeUtils.isAllowedTheme(allowedThemes, themeName) ? themeName : null;
+    }
+
+    private boolean isFallbackTheme(@Nonnull String themeName) {
+        return StringUtils.isNotBlank(fallbackTheme) && !StringUtils.equals(themeName, fallbackTheme);
+    }
+}
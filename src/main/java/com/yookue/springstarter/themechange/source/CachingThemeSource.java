@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.ui.context.HierarchicalThemeSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.SimpleTheme;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+import com.yookue.springstarter.themechange.support.AccessOrderedCache;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.ui.context.ThemeSource} that caches the resource bundle based themes with a bounded size
+ * <p>
+ * The themes are kept in a lock free map, the least recently used ones are evicted approximately when the cache is full.
+ * Themes that do not have any resource bundle of the supported locales are cached as negative entries in another smaller map,
+ * and invalid theme names are rejected before any lookup,
+ * so that arbitrary theme names would neither probe the classpath repeatedly nor evict the existing themes
+ *
+ * @author David Hsing
+ * @see org.springframework.ui.context.support.ResourceBundleThemeSource
+ */
+@CommonsLog
+public class CachingThemeSource implements HierarchicalThemeSource, BeanClassLoaderAware {
+    private final AccessOrderedCache<String, Theme> themeCache = new AccessOrderedCache<>(256);
+    private final AccessOrderedCache<String, Boolean> missingThemes = new AccessOrderedCache<>(64);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    @Getter
+    private ThemeSource parentThemeSource;
+
+    @Getter
+    private String basenamePrefix = StringUtils.EMPTY;
+
+    @Getter
+    @Setter
+    private String defaultEncoding;
+
+    @Getter
+    @Setter
+    private boolean fallbackToSystemLocale = true;
+
+    @Getter
+    @Setter
+    private Duration timeToLive;
+
+    @Getter
+    @Setter
+    private boolean negativeCaching = true;
+
+    @Getter
+    @Setter
+    private Duration negativeTimeToLive;
+
+    @Getter
+    private Collection<Locale> supportedLocales = Collections.singleton(Locale.getDefault());
+
+    private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
+
+    @Override
+    public void setParentThemeSource(@Nullable ThemeSource parent) {
+        this.parentThemeSource = parent;
+        clearCache();
+    }
+
+    public void setBasenamePrefix(@Nullable String basenamePrefix) {
+        this.basenamePrefix = StringUtils.defaultString(basenamePrefix);
+    }
+
+    public int getMaximumSize() {
+        return themeCache.getMaximumSize();
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        themeCache.setMaximumSize(maximumSize);
+    }
+
+    public int getNegativeMaximumSize() {
+        return missingThemes.getMaximumSize();
+    }
+
+    public void setNegativeMaximumSize(int negativeMaximumSize) {
+        missingThemes.setMaximumSize(negativeMaximumSize);
+    }
+
+    /**
+     * Sets the locales whose resource bundle files are probed to know whether a theme exists
+     *
+     * @param supportedLocales the supported locales, if empty, the default locale of the JVM is used
+     */
+    public void setSupportedLocales(@Nullable Collection<Locale> supportedLocales) {
+        this.supportedLocales = CollectionUtils.isEmpty(supportedLocales) ? Collections.singleton(Locale.getDefault()) : Collections.unmodifiableSet(new LinkedHashSet<>(supportedLocales));
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nullable ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+
+    @Nullable
+    @Override
+    public Theme getTheme(@Nullable String themeName) {
+        if (!ThemeChangeUtils.isValidThemeName(themeName)) {
+            return null;
+        }
+        Theme cached = themeCache.get(themeName);
+        if (cached != null || (negativeCaching && missingThemes.get(themeName) != null)) {
+            hitCount.increment();
+            return cached;
+        }
+        missCount.increment();
+        Theme theme = loadTheme(themeName);
+        if (theme != null) {
+            themeCache.put(themeName, theme, timeToLive);
+        } else if (negativeCaching) {
+            missingThemes.put(themeName, Boolean.TRUE, negativeTimeToLive);
+        }
+        return theme;
+    }
+
+    /**
+     * Discards all the cached themes
+     */
+    public void clearCache() {
+        themeCache.clear();
+        missingThemes.clear();
+    }
+
+    /**
+     * Returns the number of cached themes, including the negative entries
+     *
+     * @return the number of cached themes, including the negative entries
+     */
+    public int getCacheSize() {
+        return themeCache.size() + missingThemes.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a cached theme, including the negative entries
+     *
+     * @return the number of lookups that found a cached theme, including the negative entries
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups that loaded the theme
+     *
+     * @return the number of lookups that loaded the theme
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Nullable
+    protected Theme loadTheme(@Nonnull String themeName) {
+        String basename = basenamePrefix + themeName;
+        if (!isBundleAvailable(basename)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("No resource bundle found for theme '%s'", themeName));
+            }
+            if (parentThemeSource != null) {
+                return parentThemeSource.getTheme(themeName);
+            }
+            return null;
+        }
+        Theme theme = new SimpleTheme(themeName, createMessageSource(basename));
+        initParent(theme);
+        return theme;
+    }
+
+    /**
+     * Returns whether the default resource bundle file of the basename, or the one of any supported locale, exists or not
+     */
+    protected boolean isBundleAvailable(@Nonnull String basename) {
+        return ThemeChangeUtils.isBundleAvailable(beanClassLoader, basename, supportedLocales);
+    }
+
+    /**
+     * @see org.springframework.ui.context.support.ResourceBundleThemeSource#createMessageSource
+     */
+    @Nonnull
+    protected MessageSource createMessageSource(@Nonnull String basename) {
+        ResourceBundleMessageSource result = new ResourceBundleMessageSource();
+        result.setBasename(basename);
+        result.setBeanClassLoader(beanClassLoader);
+        result.setFallbackToSystemLocale(fallbackToSystemLocale);
+        if (defaultEncoding != null) {
+            result.setDefaultEncoding(defaultEncoding);
+        }
+        return result;
+    }
+
+    /**
+     * @see org.springframework.ui.context.support.ResourceBundleThemeSource#initParent
+     */
+    protected void initParent(@Nonnull Theme theme) {
+        ThemeSourceUtils.initParent(parentThemeSource, theme);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.context.support.AbstractMessageSource;
+import com.yookue.springstarter.themechange.support.EnumerableMessageSource;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.context.MessageSource} of a theme that holds the messages of each locale in a flat array
+ * <p>
+ * The array is indexed by the positions of a shared {@link com.yookue.springstarter.themechange.source.MessageKeyIndex},
+ * so a lookup is a single map read plus an array access, and {@link java.text.MessageFormat} is applied only when arguments are passed
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.source.CompactThemeSource
+ */
+public class CompactThemeMessageSource extends AbstractMessageSource implements EnumerableMessageSource {
+    private final ConcurrentMap<Locale, String[]> localeValues = new ConcurrentHashMap<>();
+    private final MessageKeyIndex keyIndex;
+    private final Function<Locale, String[]> valuesLoader;
+
+    @Getter
+    private final String themeName;
+
+    /**
+     * Construct a new message source
+     *
+     * @param themeName the name of the theme
+     * @param keyIndex the shared index of the message codes
+     * @param valuesLoader the function to load the messages of a locale, as an array that indexed by the positions of {@code keyIndex}
+     */
+    public CompactThemeMessageSource(@Nonnull String themeName, @Nonnull MessageKeyIndex keyIndex, @Nonnull Function<Locale, String[]> valuesLoader) {
+        this.themeName = themeName;
+        this.keyIndex = keyIndex;
+        this.valuesLoader = valuesLoader;
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getMessageCodes(@Nonnull Locale locale) {
+        String[] values = getValues(locale);
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result.add(keyIndex.codeAt(i));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    @Nullable
+    @Override
+    protected String resolveCodeWithoutArguments(@Nonnull String code, @Nonnull Locale locale) {
+        // Load the values first, which registers the codes of the locale into the index
+        String[] values = getValues(locale);
+        int position = keyIndex.indexOf(code);
+        return (position >= 0 && position < values.length) ? values[position] : null;
+    }
+
+    @Nullable
+    @Override
+    protected MessageFormat resolveCode(@Nonnull String code, @Nonnull Locale locale) {
+        String message = resolveCodeWithoutArguments(code, locale);
+        return (message == null) ? null : createMessageFormat(message, locale);
+    }
+
+    @Nonnull
+    private String[] getValues(@Nonnull Locale locale) {
+        return ThemeSourceUtils.getLocaleValue(localeValues, locale, ThemeSourceUtils.MAXIMUM_LOCALES, valuesLoader);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.ui.context.HierarchicalThemeSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.SimpleTheme;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link org.springframework.ui.context.ThemeSource} that loads the same resource bundle files as {@link org.springframework.ui.context.support.ResourceBundleThemeSource},
+ * but with a compact storage
+ * <p>
+ * The message codes of all the themes are stored once in a shared {@link com.yookue.springstarter.themechange.source.MessageKeyIndex},
+ * the messages of each theme and locale are held in a flat array, and the equal messages are shared across the themes,
+ * so that neither {@link java.util.ResourceBundle} nor {@link java.text.MessageFormat} caches are kept for the mostly short css/asset paths.
+ * The names of the missing themes are kept in a bounded least recently used cache
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.source.CompactThemeMessageSource
+ */
+public class CompactThemeSource implements HierarchicalThemeSource, BeanClassLoaderAware {
+    private static final String[] EMPTY_VALUES = new String[0];
+    private final ConcurrentMap<String, Theme> themeCache = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> missingThemes = new LinkedHashMap<String, Boolean>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(@Nonnull Map.Entry<String, Boolean> eldest) {
+            return size() > maximumMissingSize;
+        }
+    };
+    private final ConcurrentMap<String, String> valuePool = new ConcurrentHashMap<>();
+
+    @Getter
+    private final MessageKeyIndex keyIndex = new MessageKeyIndex();
+
+    @Getter
+    private ThemeSource parentThemeSource;
+
+    @Getter
+    private String basenamePrefix = StringUtils.EMPTY;
+
+    @Getter
+    @Setter
+    private Charset defaultEncoding = StandardCharsets.UTF_8;
+
+    @Getter
+    @Setter
+    private boolean fallbackToSystemLocale = true;
+
+    @Getter
+    @Setter
+    private int maximumMissingSize = 256;
+
+    @Getter
+    private Collection<Locale> supportedLocales = Collections.singleton(Locale.getDefault());
+
+    private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
+
+    @Override
+    public void setParentThemeSource(@Nullable ThemeSource parent) {
+        this.parentThemeSource = parent;
+        themeCache.clear();
+        synchronized (missingThemes) {
+            missingThemes.clear();
+        }
+    }
+
+    public void setBasenamePrefix(@Nullable String basenamePrefix) {
+        this.basenamePrefix = StringUtils.defaultString(basenamePrefix);
+    }
+
+    /**
+     * Sets the locales whose resource bundle files are probed to know whether a theme exists
+     *
+     * @param supportedLocales the supported locales, if empty, the default locale of the JVM is used
+     */
+    public void setSupportedLocales(@Nullable Collection<Locale> supportedLocales) {
+        this.supportedLocales = CollectionUtils.isEmpty(supportedLocales) ? Collections.singleton(Locale.getDefault()) : Collections.unmodifiableSet(new LinkedHashSet<>(supportedLocales));
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nullable ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+
+    @Nullable
+    @Override
+    public Theme getTheme(@Nullable String themeName) {
+        if (!ThemeChangeUtils.isValidThemeName(themeName)) {
+            return null;
+        }
+        Theme theme = themeCache.get(themeName);
+        if (theme != null) {
+            return theme;
+        }
+        String basename = basenamePrefix + themeName;
+        boolean missing;
+        synchronized (missingThemes) {
+            missing = missingThemes.get(themeName) != null;
+        }
+        if (missing || !ThemeChangeUtils.isBundleAvailable(beanClassLoader, basename, supportedLocales)) {
+            if (!missing) {
+                synchronized (missingThemes) {
+                    missingThemes.put(themeName, Boolean.TRUE);
+                }
+            }
+            return (parentThemeSource != null) ? parentThemeSource.getTheme(themeName) : null;
+        }
+        String path = StringUtils.replaceChars(basename, '.', '/');
+        Theme created = new SimpleTheme(themeName, new CompactThemeMessageSource(themeName, keyIndex, locale -> loadValues(path, locale)));
+        initParent(created);
+        Theme previous = themeCache.putIfAbsent(themeName, created);
+        return (previous != null) ? previous : created;
+    }
+
+    /**
+     * Returns the messages of the resource path and locale, as an array that indexed by the positions of the key index
+     */
+    @Nonnull
+    protected String[] loadValues(@Nonnull String path, @Nonnull Locale locale) {
+        Map<String, String> messages = ThemeSourceUtils.loadMessages(beanClassLoader, defaultEncoding, path, locale, fallbackToSystemLocale);
+        if (messages.isEmpty()) {
+            return EMPTY_VALUES;
+        }
+        int[] positions = new int[messages.size()];
+        String[] values = new String[messages.size()];
+        int count = 0, length = 0;
+        for (Map.Entry<String, String> entry : messages.entrySet()) {
+            positions[count] = keyIndex.register(entry.getKey());
+            values[count] = internValue(entry.getValue());
+            length = Math.max(length, positions[count] + 1);
+            count++;
+        }
+        String[] result = new String[length];
+        for (int i = 0; i < count; i++) {
+            result[positions[i]] = values[i];
+        }
+        return result;
+    }
+
+    /**
+     * @see org.springframework.ui.context.support.ResourceBundleThemeSource#initParent
+     */
+    protected void initParent(@Nonnull Theme theme) {
+        ThemeSourceUtils.initParent(parentThemeSource, theme);
+    }
+
+    @Nonnull
+    private String internValue(@Nonnull String value) {
+        String previous = valuePool.putIfAbsent(value, value);
+        return (previous != null) ? previous : value;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.support.AbstractMessageSource;
+import com.yookue.springstarter.themechange.support.EnumerableMessageSource;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.context.MessageSource} of a theme that loaded from the filesystem
+ * <p>
+ * The messages are held in an immutable snapshot that keyed by the locale suffix of the properties files (e.g. {@code zh_CN}, or empty for the default one),
+ * a reload swaps the whole snapshot atomically, so that readers are lock-free and never see a partially loaded theme
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.source.FileSystemThemeSource
+ */
+public class FileSystemThemeMessageSource extends AbstractMessageSource implements EnumerableMessageSource {
+    @Getter
+    private final String themeName;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+
+    public FileSystemThemeMessageSource(@Nonnull String themeName) {
+        this.themeName = themeName;
+    }
+
+    /**
+     * Replaces all the messages of the theme
+     *
+     * @param messages the messages that keyed by the locale suffix, an empty suffix means the default messages
+     */
+    public void setMessages(@Nonnull Map<String, Map<String, String>> messages) {
+        this.snapshot = new Snapshot(messages);
+    }
+
+    /**
+     * Returns whether the theme has any message or not
+     *
+     * @return whether the theme has any message or not
+     */
+    public boolean isEmpty() {
+        return snapshot.bundles.isEmpty();
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getMessageCodes(@Nonnull Locale locale) {
+        return snapshot.getMessages(locale).keySet();
+    }
+
+    @Nullable
+    @Override
+    protected String resolveCodeWithoutArguments(@Nonnull String code, @Nonnull Locale locale) {
+        return snapshot.getMessages(locale).get(code);
+    }
+
+    @Nullable
+    @Override
+    protected MessageFormat resolveCode(@Nonnull String code, @Nonnull Locale locale) {
+        String message = resolveCodeWithoutArguments(code, locale);
+        return (message == null) ? null : createMessageFormat(message, locale);
+    }
+
+
+    /**
+     * Immutable messages of a theme, with the merged messages of each requested locale
+     */
+    private static final class Snapshot {
+        private final Map<String, Map<String, String>> bundles;
+        private final ConcurrentMap<Locale, Map<String, String>> merged = new ConcurrentHashMap<>();
+
+        private Snapshot(@Nonnull Map<String, Map<String, String>> bundles) {
+            this.bundles = bundles;
+        }
+
+        @Nonnull
+        private Map<String, String> getMessages(@Nonnull Locale locale) {
+            return ThemeSourceUtils.getLocaleValue(merged, locale, ThemeSourceUtils.MAXIMUM_LOCALES, this::mergeMessages);
+        }
+
+        /**
+         * Overlays the messages of the default, language, country and variant files in order
+         */
+        @Nonnull
+        private Map<String, String> mergeMessages(@Nonnull Locale locale) {
+            Map<String, String> result = new HashMap<>();
+            overlay(result, StringUtils.EMPTY);
+            if (StringUtils.isNotEmpty(locale.getLanguage())) {
+                String suffix = locale.getLanguage();
+                overlay(result, suffix);
+                if (StringUtils.isNotEmpty(locale.getCountry())) {
+                    suffix = suffix + '_' + locale.getCountry();
+                    overlay(result, suffix);
+                    if (StringUtils.isNotEmpty(locale.getVariant())) {
+                        overlay(result, suffix + '_' + locale.getVariant());
+                    }
+                }
+            }
+            return Collections.unmodifiableMap(result);
+        }
+
+        private void overlay(@Nonnull Map<String, String> target, @Nonnull String suffix) {
+            Map<String, String> messages = bundles.get(suffix);
+            if (messages != null) {
+                target.putAll(messages);
+            }
+        }
+    }
+}
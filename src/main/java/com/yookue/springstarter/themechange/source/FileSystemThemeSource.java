@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.ui.context.HierarchicalThemeSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.SimpleTheme;
+import com.yookue.springstarter.themechange.event.ThemeReloadedEvent;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.ui.context.ThemeSource} that loads the theme properties files from a filesystem directory
+ * <p>
+ * The files of a theme are named as {@code <basenamePrefix><themeName>[_<locale>].properties}.
+ * A {@link java.nio.file.WatchService} picks up the changes of the directory, only the modified themes are reparsed and swapped in atomically,
+ * while the readers keep lock-free access to the previous version, so that nothing would be polled per request.
+ * The file names of the directory are indexed at startup and reindexed by the watcher,
+ * so that the lookup of an unknown theme never touches the filesystem.
+ * A {@link com.yookue.springstarter.themechange.event.ThemeReloadedEvent} is published after each reload
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.source.FileSystemThemeMessageSource
+ */
+@CommonsLog
+public class FileSystemThemeSource implements HierarchicalThemeSource, ApplicationEventPublisherAware, InitializingBean, DisposableBean {
+    private static final String PROPERTIES_SUFFIX = ".properties";    // $NON-NLS-1$
+    private static final Pattern LOCALE_SUFFIX_PATTERN = Pattern.compile("[a-z]{2,8}(_([A-Z]{2}|\\d{3})?(_\\w+)?)?");    // $NON-NLS-1$
+    private final ConcurrentMap<String, SimpleTheme> themeCache = new ConcurrentHashMap<>();
+    private volatile Map<String, Map<String, String>> fileIndex;
+
+    @Getter
+    private final Path directory;
+
+    @Getter
+    private ThemeSource parentThemeSource;
+
+    @Getter
+    private String basenamePrefix = StringUtils.EMPTY;
+
+    @Getter
+    @Setter
+    private Charset defaultEncoding = StandardCharsets.UTF_8;
+
+    @Getter
+    @Setter
+    private boolean watchEnabled = true;
+
+    @Getter
+    @Setter
+    private long watchDelayMillis = 200L;
+
+    private ApplicationEventPublisher eventPublisher;
+    private WatchService watchService;
+    private Thread watchThread;
+
+    public FileSystemThemeSource(@Nonnull Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void setParentThemeSource(@Nullable ThemeSource parent) {
+        this.parentThemeSource = parent;
+        themeCache.clear();
+    }
+
+    public void setBasenamePrefix(@Nullable String basenamePrefix) {
+        this.basenamePrefix = StringUtils.defaultString(basenamePrefix);
+    }
+
+    @Override
+    public void setApplicationEventPublisher(@Nullable ApplicationEventPublisher publisher) {
+        this.eventPublisher = publisher;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalStateException(String.format("Theme directory '%s' does not exist", directory));
+        }
+        fileIndex = indexDirectory();
+        if (!watchEnabled) {
+            return;
+        }
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        watchThread = new Thread(this::watchDirectory, "theme-watch");    // $NON-NLS-1$
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watchThread != null) {
+            watchThread.interrupt();
+            watchThread = null;
+        }
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    @Nullable
+    @Override
+    public Theme getTheme(@Nullable String themeName) {
+        if (themeName == null) {
+            return null;
+        }
+        Theme theme = themeCache.get(themeName);
+        if (theme != null) {
+            return theme;
+        }
+        if (!ThemeChangeUtils.isValidThemeName(themeName) || !getFileIndex().containsKey(basenamePrefix + themeName)) {
+            return getParentTheme(themeName);
+        }
+        Map<String, Map<String, String>> messages;
+        try {
+            messages = readTheme(themeName);
+        } catch (IOException ex) {
+            log.warn(String.format("Failed to load theme '%s' from '%s'", themeName, directory), ex);
+            return getParentTheme(themeName);
+        }
+        if (messages.isEmpty()) {
+            return getParentTheme(themeName);
+        }
+        FileSystemThemeMessageSource messageSource = new FileSystemThemeMessageSource(themeName);
+        messageSource.setMessages(messages);
+        SimpleTheme created = new SimpleTheme(themeName, messageSource);
+        initParent(created);
+        SimpleTheme previous = themeCache.putIfAbsent(themeName, created);
+        return (previous != null) ? previous : created;
+    }
+
+    /**
+     * Reparses the files of the specified theme, if the theme has been loaded
+     *
+     * @param themeName the name of the theme to refresh
+     */
+    public void refreshTheme(@Nonnull String themeName) {
+        SimpleTheme theme = themeCache.get(themeName);
+        if (theme == null) {
+            return;
+        }
+        Map<String, Map<String, String>> messages;
+        try {
+            messages = readTheme(themeName);
+        } catch (IOException ex) {
+            log.warn(String.format("Failed to reload theme '%s' from '%s', keeping the previous version", themeName, directory), ex);
+            return;
+        }
+        if (messages.isEmpty()) {
+            themeCache.remove(themeName, theme);
+        }
+        ((FileSystemThemeMessageSource) theme.getMessageSource()).setMessages(messages);
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Reloaded theme '%s' from '%s'", themeName, directory));
+        }
+    }
+
+    /**
+     * Reindexes the directory, and reparses the files of all the loaded themes
+     */
+    public void refreshThemes() {
+        reindexDirectory();
+        themeCache.keySet().forEach(this::refreshTheme);
+        publishReloaded();
+    }
+
+    /**
+     * Returns the messages of the theme that keyed by the locale suffix, or an empty map if the theme has no files
+     */
+    @Nonnull
+    protected Map<String, Map<String, String>> readTheme(@Nonnull String themeName) throws IOException {
+        Map<String, String> fileNames = getFileIndex().get(basenamePrefix + themeName);
+        if (fileNames == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Map<String, String>> result = new HashMap<>();
+        for (Map.Entry<String, String> entry : fileNames.entrySet()) {
+            try {
+                result.put(entry.getKey(), readProperties(directory.resolve(entry.getValue())));
+            } catch (NoSuchFileException ignored) {
+                // Deleted after indexing, the watcher reindexes the directory shortly
+            }
+        }
+        return result.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns the properties files of the directory, keyed by every basename that a file could belong to, then by the locale suffix
+     * <p>
+     * A file like {@code blue_dark.properties} is indexed under both {@code blue_dark} and {@code blue} with the suffix {@code dark},
+     * just as the locale suffix of the file would be resolved against either theme name
+     */
+    @Nonnull
+    protected Map<String, Map<String, String>> indexDirectory() throws IOException {
+        Map<String, Map<String, String>> result = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, path -> StringUtils.endsWith(path.getFileName().toString(), PROPERTIES_SUFFIX) && Files.isRegularFile(path))) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                String stem = fileName.substring(0, fileName.length() - PROPERTIES_SUFFIX.length());
+                result.computeIfAbsent(stem, key -> new HashMap<>()).put(StringUtils.EMPTY, fileName);
+                for (int i = stem.indexOf('_'); i >= 0; i = stem.indexOf('_', i + 1)) {
+                    String suffix = stem.substring(i + 1);
+                    if (LOCALE_SUFFIX_PATTERN.matcher(suffix).matches()) {
+                        result.computeIfAbsent(stem.substring(0, i), key -> new HashMap<>()).put(suffix, fileName);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nonnull
+    protected Map<String, String> readProperties(@Nonnull Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, defaultEncoding)) {
+            properties.load(reader);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(String.format("Malformed properties file '%s'", path), ex);
+        }
+        Map<String, String> result = new HashMap<>(properties.size() * 4 / 3 + 1);
+        for (String name : properties.stringPropertyNames()) {
+            result.put(name, properties.getProperty(name));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @see org.springframework.ui.context.support.ResourceBundleThemeSource#initParent
+     */
+    protected void initParent(@Nonnull Theme theme) {
+        ThemeSourceUtils.initParent(parentThemeSource, theme);
+    }
+
+    @Nullable
+    private Theme getParentTheme(@Nonnull String themeName) {
+        return (parentThemeSource != null) ? parentThemeSource.getTheme(themeName) : null;
+    }
+
+    @Nonnull
+    private Map<String, Map<String, String>> getFileIndex() {
+        Map<String, Map<String, String>> result = fileIndex;
+        if (result == null) {
+            // Not initialized as a bean, index once rather than listing the directory per lookup
+            synchronized (themeCache) {
+                result = fileIndex;
+                if (result == null) {
+                    reindexDirectory();
+                    result = fileIndex;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void reindexDirectory() {
+        try {
+            fileIndex = indexDirectory();
+        } catch (IOException ex) {
+            log.warn(String.format("Failed to index theme directory '%s'", directory), ex);
+            if (fileIndex == null) {
+                fileIndex = Collections.emptyMap();
+            }
+        }
+    }
+
+    /**
+     * Returns the locale suffix of the file name, an empty string for the default file, or {@code null} if the file does not belong to the basename
+     */
+    @Nullable
+    private String getLocaleSuffix(@Nonnull String basename, @Nonnull String fileName) {
+        if (!StringUtils.startsWith(fileName, basename) || !StringUtils.endsWith(fileName, PROPERTIES_SUFFIX)) {
+            return null;
+        }
+        String middle = fileName.substring(basename.length(), fileName.length() - PROPERTIES_SUFFIX.length());
+        if (middle.isEmpty()) {
+            return StringUtils.EMPTY;
+        }
+        if (middle.length() < 2 || middle.charAt(0) != '_') {
+            return null;
+        }
+        String suffix = middle.substring(1);
+        return LOCALE_SUFFIX_PATTERN.matcher(suffix).matches() ? suffix : null;
+    }
+
+    private void watchDirectory() {
+        WatchService service = watchService;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<String> fileNames = new HashSet<>();
+                boolean overflow = false;
+                WatchKey key = service.take();
+                // Keep draining until the directory is quiet, so that a burst of writes reparses each theme only once
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                        } else if (event.context() instanceof Path) {
+                            fileNames.add(((Path) event.context()).getFileName().toString());
+                        }
+                    }
+                    if (!key.reset()) {
+                        log.warn(String.format("Theme directory '%s' is no longer watched", directory));
+                        return;
+                    }
+                    key = service.poll(watchDelayMillis, TimeUnit.MILLISECONDS);
+                }
+                refreshChanged(fileNames, overflow);
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private void refreshChanged(@Nonnull Set<String> fileNames, boolean overflow) {
+        if (overflow) {
+            refreshThemes();
+            return;
+        }
+        if (fileNames.stream().noneMatch(fileName -> StringUtils.endsWith(fileName, PROPERTIES_SUFFIX))) {
+            return;
+        }
+        reindexDirectory();
+        for (String themeName : themeCache.keySet()) {
+            String basename = basenamePrefix + themeName;
+            if (fileNames.stream().anyMatch(fileName -> getLocaleSuffix(basename, fileName) != null)) {
+                try {
+                    refreshTheme(themeName);
+                } catch (RuntimeException ex) {
+                    log.warn(String.format("Failed to reload theme '%s' from '%s'", themeName, directory), ex);
+                }
+            }
+        }
+        publishReloaded();
+    }
+
+    private void publishReloaded() {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new ThemeReloadedEvent(this));
+        }
+    }
+}
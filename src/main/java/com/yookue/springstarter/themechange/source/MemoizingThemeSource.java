@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
+import org.springframework.core.ResolvableType;
+import org.springframework.ui.context.HierarchicalThemeSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.ui.context.ThemeSource} that looks up the theme of another theme source at most once per request
+ * <p>
+ * The theme is kept in a request attribute, and is looked up again when a theme of another name is requested, e.g. after switching the theme.
+ * Because the theme source is bound to the requests by the {@code DispatcherServlet}, the lookups of {@code RequestContextUtils.getTheme}
+ * and {@code RequestContext.getTheme} are memoized too. Lookups outside of any request are passed through.
+ * The bean lifecycle callbacks and the application events are passed through, so that the decorated theme source still works as a bean
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.resolver.MemoizingThemeResolver
+ */
+public class MemoizingThemeSource implements HierarchicalThemeSource, GenericApplicationListener, ApplicationEventPublisherAware, BeanClassLoaderAware, InitializingBean, DisposableBean {
+    /**
+     * The request attribute name that holds the theme of the request
+     */
+    public static final String THEME_ATTRIBUTE = MemoizingThemeSource.class.getName() + ".THEME";    // $NON-NLS-1$
+
+    @Getter
+    private final ThemeSource themeSource;
+
+    private final GenericApplicationListener themeSourceListener;
+
+    public MemoizingThemeSource(@Nonnull ThemeSource themeSource) {
+        this.themeSource = themeSource;
+        this.themeSourceListener = (themeSource instanceof ApplicationListener) ? new GenericApplicationListenerAdapter((ApplicationListener<?>) themeSource) : null;
+    }
+
+    @Override
+    public void setParentThemeSource(@Nullable ThemeSource parent) {
+        if (themeSource instanceof HierarchicalThemeSource) {
+            ((HierarchicalThemeSource) themeSource).setParentThemeSource(parent);
+        }
+    }
+
+    @Nullable
+    @Override
+    public ThemeSource getParentThemeSource() {
+        return (themeSource instanceof HierarchicalThemeSource) ? ((HierarchicalThemeSource) themeSource).getParentThemeSource() : null;
+    }
+
+    @Override
+    public boolean supportsEventType(@Nonnull ResolvableType eventType) {
+        return themeSourceListener != null && themeSourceListener.supportsEventType(eventType);
+    }
+
+    @Override
+    public void onApplicationEvent(@Nonnull ApplicationEvent event) {
+        if (themeSourceListener != null) {
+            themeSourceListener.onApplicationEvent(event);
+        }
+    }
+
+    @Override
+    public void setApplicationEventPublisher(@Nonnull ApplicationEventPublisher publisher) {
+        if (themeSource instanceof ApplicationEventPublisherAware) {
+            ((ApplicationEventPublisherAware) themeSource).setApplicationEventPublisher(publisher);
+        }
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nonnull ClassLoader classLoader) {
+        if (themeSource instanceof BeanClassLoaderAware) {
+            ((BeanClassLoaderAware) themeSource).setBeanClassLoader(classLoader);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (themeSource instanceof InitializingBean) {
+            ((InitializingBean) themeSource).afterPropertiesSet();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (themeSource instanceof DisposableBean) {
+            ((DisposableBean) themeSource).destroy();
+        }
+    }
+
+    @Nullable
+    @Override
+    public Theme getTheme(@Nonnull String themeName) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return themeSource.getTheme(themeName);
+        }
+        Object memoized = attributes.getAttribute(THEME_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memoized instanceof Theme && themeName.equals(((Theme) memoized).getName())) {
+            return (Theme) memoized;
+        }
+        Theme result = themeSource.getTheme(themeName);
+        if (result != null) {
+            attributes.setAttribute(THEME_ATTRIBUTE, result, RequestAttributes.SCOPE_REQUEST);
+        }
+        return result;
+    }
+}
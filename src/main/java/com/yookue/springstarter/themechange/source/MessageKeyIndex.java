@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Append-only index of message codes that shared by the themes
+ * <p>
+ * Each code is stored once and mapped to a stable position, so that the messages of a theme could be held in a flat array.
+ * Looking up a position is lock-free, only registering a new code is synchronized, and the array of the codes grows geometrically
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.source.CompactThemeSource
+ */
+public final class MessageKeyIndex {
+    private static final int INITIAL_CAPACITY = 64;
+    private final ConcurrentMap<String, Integer> positions = new ConcurrentHashMap<>();
+    private volatile String[] codes = new String[INITIAL_CAPACITY];
+    private volatile int count;
+
+    /**
+     * Returns the position of the code
+     *
+     * @param code the message code
+     *
+     * @return the position of the code, or {@code -1} if the code is unknown
+     */
+    public int indexOf(@Nullable String code) {
+        Integer position = (code == null) ? null : positions.get(code);
+        return (position == null) ? -1 : position;
+    }
+
+    /**
+     * Returns the code at the position
+     *
+     * @param position the position of the code
+     *
+     * @return the code at the position
+     */
+    @Nonnull
+    public String codeAt(int position) {
+        return codes[position];
+    }
+
+    /**
+     * Returns the position of the code, registers the code if it is unknown
+     *
+     * @param code the message code
+     *
+     * @return the position of the code
+     */
+    public int register(@Nonnull String code) {
+        Integer position = positions.get(code);
+        if (position != null) {
+            return position;
+        }
+        synchronized (this) {
+            position = positions.get(code);
+            if (position != null) {
+                return position;
+            }
+            int index = count;
+            String[] current = codes;
+            if (index == current.length) {
+                current = Arrays.copyOf(current, current.length << 1);
+                codes = current;
+            }
+            current[index] = code;
+            // Publish the code before its position, so that any reader who finds the position is able to read the code
+            count = index + 1;
+            positions.put(code, index);
+            return index;
+        }
+    }
+
+    /**
+     * Returns the number of the registered codes
+     *
+     * @return the number of the registered codes
+     */
+    public int size() {
+        return count;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.support.AbstractMessageSource;
+import com.yookue.springstarter.themechange.support.EnumerableMessageSource;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.context.MessageSource} of a theme that holds a fully resolved message table of each supported locale
+ * <p>
+ * The locale fallbacks and the parent theme messages are merged into the tables in advance,
+ * a locale that is not supported is negotiated to the closest supported locale once, so a lookup never walks any fallback chain
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.source.PrecomputedThemeSource
+ */
+public class PrecomputedThemeMessageSource extends AbstractMessageSource implements EnumerableMessageSource {
+    private final ConcurrentMap<Locale, Map<String, String>> localeTables;
+    private final Map<Locale, Map<String, String>> supportedTables;
+    private final Locale defaultLocale;
+
+    @Getter
+    private final String themeName;
+
+    /**
+     * Construct a new message source
+     *
+     * @param themeName the name of the theme
+     * @param supportedTables the resolved message tables of the supported locales, the first one is the default
+     */
+    public PrecomputedThemeMessageSource(@Nonnull String themeName, @Nonnull Map<Locale, Map<String, String>> supportedTables) {
+        this.themeName = themeName;
+        this.supportedTables = supportedTables;
+        this.localeTables = new ConcurrentHashMap<>(supportedTables);
+        this.defaultLocale = supportedTables.isEmpty() ? null : supportedTables.keySet().iterator().next();
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getMessageCodes(@Nonnull Locale locale) {
+        return getTable(locale).keySet();
+    }
+
+    /**
+     * Returns the supported locales, the first one is the default
+     *
+     * @return the supported locales
+     */
+    @Nonnull
+    public Set<Locale> getSupportedLocales() {
+        return supportedTables.keySet();
+    }
+
+    @Nullable
+    @Override
+    protected String resolveCodeWithoutArguments(@Nonnull String code, @Nonnull Locale locale) {
+        return getTable(locale).get(code);
+    }
+
+    @Nullable
+    @Override
+    protected MessageFormat resolveCode(@Nonnull String code, @Nonnull Locale locale) {
+        String message = resolveCodeWithoutArguments(code, locale);
+        return (message == null) ? null : createMessageFormat(message, locale);
+    }
+
+    @Nonnull
+    private Map<String, String> getTable(@Nonnull Locale locale) {
+        return ThemeSourceUtils.getLocaleValue(localeTables, locale, supportedTables.size() + ThemeSourceUtils.MAXIMUM_LOCALES, this::negotiateTable);
+    }
+
+    @Nonnull
+    private Map<String, String> negotiateTable(@Nonnull Locale locale) {
+        Locale negotiated = negotiateLocale(locale);
+        return (negotiated == null) ? Collections.emptyMap() : supportedTables.get(negotiated);
+    }
+
+    /**
+     * Returns the supported locale that matches the language and country of the locale, then the language only, otherwise the default one
+     */
+    @Nullable
+    private Locale negotiateLocale(@Nonnull Locale locale) {
+        if (StringUtils.isEmpty(locale.getLanguage())) {
+            return defaultLocale;
+        }
+        Locale languageMatch = null;
+        for (Locale candidate : supportedTables.keySet()) {
+            if (StringUtils.equals(candidate.getLanguage(), locale.getLanguage())) {
+                if (StringUtils.equals(candidate.getCountry(), locale.getCountry())) {
+                    return candidate;
+                }
+                if (languageMatch == null || (StringUtils.isEmpty(candidate.getCountry()) && StringUtils.isNotEmpty(languageMatch.getCountry()))) {
+                    languageMatch = candidate;
+                }
+            }
+        }
+        return (languageMatch != null) ? languageMatch : defaultLocale;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.ui.context.HierarchicalThemeSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.SimpleTheme;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.ui.context.ThemeSource} that precomputes the complete messages of each theme and supported locale at load time
+ * <p>
+ * The files of each locale are overlaid in the order of default, language, country and variant, like {@link java.util.ResourceBundle},
+ * then the messages that missing in a theme are inherited from its parent theme, if any.
+ * Only the themes that precomputed by {@link #precompute()} are served, any other theme is delegated to the parent theme source.
+ * The themes are precomputed when the bean is initialized, after the bean class loader has been set
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.source.PrecomputedThemeMessageSource
+ */
+@CommonsLog
+public class PrecomputedThemeSource implements HierarchicalThemeSource, BeanClassLoaderAware, InitializingBean {
+    private volatile Map<String, Theme> themes = Collections.emptyMap();
+
+    @Getter
+    private ThemeSource parentThemeSource;
+
+    @Getter
+    private String basenamePrefix = StringUtils.EMPTY;
+
+    @Getter
+    @Setter
+    private Charset defaultEncoding = StandardCharsets.UTF_8;
+
+    @Getter
+    @Setter
+    private boolean fallbackToSystemLocale = true;
+
+    @Getter
+    private Set<String> themeNames = Collections.emptySet();
+
+    @Getter
+    private List<Locale> supportedLocales = Collections.singletonList(Locale.getDefault());
+
+    @Getter
+    private Map<String, String> parentThemes = Collections.emptyMap();
+
+    private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
+
+    @Override
+    public void setParentThemeSource(@Nullable ThemeSource parent) {
+        this.parentThemeSource = parent;
+        themes.values().forEach(this::initParent);
+    }
+
+    public void setBasenamePrefix(@Nullable String basenamePrefix) {
+        this.basenamePrefix = StringUtils.defaultString(basenamePrefix);
+    }
+
+    public void setThemeNames(@Nullable Collection<String> themeNames) {
+        this.themeNames = ThemeChangeUtils.toThemeSet(themeNames);
+    }
+
+    public void setSupportedLocales(@Nullable Collection<Locale> locales) {
+        Set<Locale> result = new LinkedHashSet<>();
+        if (!CollectionUtils.isEmpty(locales)) {
+            locales.stream().filter(Objects::nonNull).forEach(result::add);
+        }
+        this.supportedLocales = result.isEmpty() ? Collections.singletonList(Locale.getDefault()) : Collections.unmodifiableList(new ArrayList<>(result));
+    }
+
+    /**
+     * Sets the theme-name and parent-theme-name mappings
+     *
+     * @param parentThemes the theme-name and parent-theme-name mappings
+     */
+    public void setParentThemes(@Nullable Map<String, String> parentThemes) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (!CollectionUtils.isEmpty(parentThemes)) {
+            parentThemes.forEach((theme, parent) -> {
+                if (StringUtils.isNoneBlank(theme, parent)) {
+                    result.put(StringUtils.trim(theme), StringUtils.trim(parent));
+                }
+            });
+        }
+        this.parentThemes = Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nullable ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        precompute();
+    }
+
+    @Nullable
+    @Override
+    public Theme getTheme(@Nullable String themeName) {
+        if (themeName == null) {
+            return null;
+        }
+        Theme theme = themes.get(themeName);
+        if (theme != null) {
+            return theme;
+        }
+        return (parentThemeSource != null) ? parentThemeSource.getTheme(themeName) : null;
+    }
+
+    /**
+     * Precomputes the messages of the theme names and their parent themes, then replaces the served themes with them
+     *
+     * @throws IllegalStateException if the parent themes are cyclic
+     */
+    public void precompute() {
+        if (themeNames.isEmpty()) {
+            log.warn("No theme names to precompute, all the themes are delegated to the parent theme source");    // $NON-NLS-1$
+        }
+        Map<String, Map<Locale, Map<String, String>>> tables = new LinkedHashMap<>();
+        Map<String, String> valuePool = new HashMap<>();
+        for (String themeName : themeNames) {
+            if (ThemeChangeUtils.isValidThemeName(themeName)) {
+                resolveTables(themeName, tables, valuePool, new LinkedHashSet<>());
+            } else {
+                log.warn(String.format("Invalid theme name '%s'", themeName));
+            }
+        }
+        Map<String, Theme> result = new HashMap<>(tables.size() * 2);
+        tables.forEach((themeName, localeTables) -> {
+            if (localeTables != null) {
+                Theme theme = new SimpleTheme(themeName, new PrecomputedThemeMessageSource(themeName, localeTables));
+                initParent(theme);
+                result.put(themeName, theme);
+            }
+        });
+        themes = Collections.unmodifiableMap(result);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Precomputed %d themes for locales %s, with %d distinct messages", result.size(), supportedLocales, valuePool.size()));
+        }
+    }
+
+    /**
+     * Returns the resolved tables of the theme, keyed by the supported locales, or {@code null} if neither the theme nor its parent exists
+     */
+    @Nullable
+    private Map<Locale, Map<String, String>> resolveTables(@Nonnull String themeName, @Nonnull Map<String, Map<Locale, Map<String, String>>> tables, @Nonnull Map<String, String> valuePool, @Nonnull Set<String> resolving) {
+        if (tables.containsKey(themeName)) {
+            return tables.get(themeName);
+        }
+        if (!resolving.add(themeName)) {
+            throw new IllegalStateException(String.format("Cyclic parent themes %s", resolving));
+        }
+        String parentName = parentThemes.get(themeName);
+        Map<Locale, Map<String, String>> parentTables = (parentName == null) ? null : resolveTables(parentName, tables, valuePool, resolving);
+        if (parentName != null && parentTables == null) {
+            log.warn(String.format("Parent theme '%s' of theme '%s' not found", parentName, themeName));
+        }
+        String basename = basenamePrefix + themeName;
+        Map<Locale, Map<String, String>> result = null;
+        if (ThemeChangeUtils.isBundleAvailable(beanClassLoader, basename, supportedLocales) || parentTables != null) {
+            String path = StringUtils.replaceChars(basename, '.', '/');
+            result = new LinkedHashMap<>();
+            for (Locale locale : supportedLocales) {
+                Map<String, String> table = new HashMap<>();
+                if (parentTables != null) {
+                    table.putAll(parentTables.get(locale));
+                }
+                Map<String, String> messages = ThemeSourceUtils.loadMessages(beanClassLoader, defaultEncoding, path, locale, fallbackToSystemLocale);
+                messages.forEach((code, message) -> table.put(code, valuePool.computeIfAbsent(message, key -> key)));
+                result.put(locale, Collections.unmodifiableMap(table));
+            }
+            result = Collections.unmodifiableMap(result);
+        } else if (log.isDebugEnabled()) {
+            log.debug(String.format("No resource bundle found for theme '%s'", themeName));
+        }
+        resolving.remove(themeName);
+        tables.put(themeName, result);
+        return result;
+    }
+
+    /**
+     * @see org.springframework.ui.context.support.ResourceBundleThemeSource#initParent
+     */
+    protected void initParent(@Nonnull Theme theme) {
+        ThemeSourceUtils.initParent(parentThemeSource, theme);
+    }
+}
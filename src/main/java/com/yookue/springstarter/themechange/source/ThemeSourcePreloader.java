@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.util.CollectionUtils;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * Preloader that warms up the themes of a {@link org.springframework.ui.context.ThemeSource} at startup
+ * <p>
+ * Each theme and locale pair is loaded in parallel on a bounded executor, which is shut down after the preloading,
+ * so that the first requests after a deployment would not pay for classpath scanning and properties parsing
+ *
+ * @author David Hsing
+ */
+@Getter
+@Setter
+@CommonsLog
+public class ThemeSourcePreloader implements SmartInitializingSingleton, BeanClassLoaderAware {
+    private static final String PRELOAD_CODE = ThemeSourcePreloader.class.getName() + ".PRELOAD";    // $NON-NLS-1$
+    private final ThemeSource themeSource;
+    private Collection<String> themeNames = Collections.emptyList();
+    private Collection<Locale> locales = Collections.emptyList();
+    private int threads = 4;
+    private long timeoutMillis = TimeUnit.SECONDS.toMillis(30L);
+    private boolean failFast = false;
+    private ClassLoader beanClassLoader;
+
+    public ThemeSourcePreloader(@Nonnull ThemeSource themeSource) {
+        this.themeSource = themeSource;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        preload();
+    }
+
+    /**
+     * Preloads all the themes for all the locales
+     *
+     * @return the number of failed theme and locale pairs
+     *
+     * @throws IllegalStateException if any theme cannot be loaded and {@code failFast} is {@code true}
+     */
+    public int preload() {
+        if (CollectionUtils.isEmpty(themeNames)) {
+            return 0;
+        }
+        Collection<Locale> targetLocales = CollectionUtils.isEmpty(locales) ? Collections.singletonList(Locale.getDefault()) : locales;
+        long startTime = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, themeNames.size() * targetLocales.size())), runnable -> {
+            Thread thread = new Thread(runnable, "theme-preload-" + threadCount.incrementAndGet());    // $NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<String> failures = new ArrayList<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            List<String> descriptions = new ArrayList<>();
+            for (String themeName : themeNames) {
+                for (Locale locale : targetLocales) {
+                    futures.add(executor.submit(() -> preloadTheme(themeName, locale)));
+                    descriptions.add(themeName + '/' + locale);
+                }
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException ex) {
+                    failures.add(descriptions.get(i) + ": " + ex.getCause().getMessage());    // $NON-NLS-1$
+                } catch (TimeoutException ex) {
+                    failures.add(descriptions.get(i) + ": timed out");    // $NON-NLS-1$
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    failures.add(descriptions.get(i) + ": interrupted");    // $NON-NLS-1$
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        int total = themeNames.size() * targetLocales.size();
+        if (!failures.isEmpty()) {
+            String message = String.format("Failed to preload %d of %d theme and locale pair(s) in %d ms: %s", failures.size(), total, elapsedMillis, failures);
+            if (failFast) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        } else if (log.isInfoEnabled()) {
+            log.info(String.format("Preloaded %d theme(s) for %d locale(s) in %d ms", themeNames.size(), targetLocales.size(), elapsedMillis));
+        }
+        return failures.size();
+    }
+
+    /**
+     * Loads the theme for the locale
+     *
+     * @param themeName the name of the theme
+     * @param locale the locale to load
+     *
+     * @throws IllegalStateException if the theme cannot be loaded
+     */
+    protected void preloadTheme(@Nonnull String themeName, @Nonnull Locale locale) {
+        Theme theme = themeSource.getTheme(themeName);
+        if (theme == null) {
+            throw new IllegalStateException("No theme found");
+        }
+        MessageSource messageSource = theme.getMessageSource();
+        if (messageSource instanceof ResourceBundleMessageSource) {
+            for (String basename : ((ResourceBundleMessageSource) messageSource).getBasenameSet()) {
+                if (!ThemeChangeUtils.isBundleAvailable(beanClassLoader, basename, Collections.singleton(locale))) {
+                    throw new IllegalStateException("No resource bundle found for basename '" + basename + "'");
+                }
+            }
+        }
+        // Resolving any code loads and caches the resource bundles of the locale
+        messageSource.getMessage(PRELOAD_CODE, null, null, locale);
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nullable ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.HierarchicalMessageSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.util.ClassUtils;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * Utilities for the theme sources and their message sources
+ *
+ * @author David Hsing
+ */
+@CommonsLog
+abstract class ThemeSourceUtils {
+    /**
+     * The maximum number of the requested locales that a message source caches the messages for
+     */
+    static final int MAXIMUM_LOCALES = 64;
+
+    private static final String PROPERTIES_SUFFIX = ".properties";    // $NON-NLS-1$
+
+    /**
+     * Sets the message source of the same theme of the parent theme source as the parent message source of the theme
+     *
+     * @param parentThemeSource the parent theme source
+     * @param theme the theme to initialize
+     *
+     * @see org.springframework.ui.context.support.ResourceBundleThemeSource#initParent
+     */
+    static void initParent(@Nullable ThemeSource parentThemeSource, @Nonnull Theme theme) {
+        if (parentThemeSource != null && theme.getMessageSource() instanceof HierarchicalMessageSource) {
+            HierarchicalMessageSource messageSource = (HierarchicalMessageSource) theme.getMessageSource();
+            if (messageSource.getParentMessageSource() == null) {
+                Theme parentTheme = parentThemeSource.getTheme(theme.getName());
+                if (parentTheme != null) {
+                    messageSource.setParentMessageSource(parentTheme.getMessageSource());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the messages of the resource path and locale
+     * <p>
+     * The files are overlaid in the order of default, language, country and variant, like {@link java.util.ResourceBundle}.
+     * If no locale specific file exists, the files of the default locale of the JVM are loaded instead, when {@code fallbackToSystemLocale} is {@code true}
+     *
+     * @param classLoader the class loader to find the files
+     * @param encoding the encoding of the files
+     * @param path the resource path of the files, without the locale suffix and the file extension
+     * @param locale the locale of the messages
+     * @param fallbackToSystemLocale whether to fallback to the default locale of the JVM or not
+     *
+     * @return the messages of the resource path and locale
+     */
+    @Nonnull
+    static Map<String, String> loadMessages(@Nullable ClassLoader classLoader, @Nonnull Charset encoding, @Nonnull String path, @Nonnull Locale locale, boolean fallbackToSystemLocale) {
+        ClassLoader loader = (classLoader != null) ? classLoader : ClassUtils.getDefaultClassLoader();
+        Map<String, String> result = new HashMap<>();
+        if (loader == null) {
+            return result;
+        }
+        if (!loadMessages(result, loader, encoding, path, locale) && fallbackToSystemLocale && !locale.equals(Locale.getDefault())) {
+            result.clear();
+            loadMessages(result, loader, encoding, path, Locale.getDefault());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached value of the locale, or loads and caches it while the cache has less than {@code maximumSize} locales
+     *
+     * @param cache the cached values that keyed by the locales
+     * @param locale the locale of the value
+     * @param maximumSize the maximum number of locales to cache
+     * @param loader the function to load the value of a locale
+     *
+     * @return the value of the locale
+     */
+    @Nonnull
+    static <V> V getLocaleValue(@Nonnull ConcurrentMap<Locale, V> cache, @Nonnull Locale locale, int maximumSize, @Nonnull Function<Locale, V> loader) {
+        V result = cache.get(locale);
+        if (result != null) {
+            return result;
+        }
+        result = loader.apply(locale);
+        if (cache.size() < maximumSize) {
+            V previous = cache.putIfAbsent(locale, result);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Overlays the messages of the files of the locale, returns whether any locale specific file exists or not
+     */
+    private static boolean loadMessages(@Nonnull Map<String, String> messages, @Nonnull ClassLoader loader, @Nonnull Charset encoding, @Nonnull String path, @Nonnull Locale locale) {
+        loadProperties(messages, loader, encoding, path + PROPERTIES_SUFFIX);
+        boolean result = false;
+        if (StringUtils.isNotEmpty(locale.getLanguage())) {
+            String localePath = path + '_' + locale.getLanguage();
+            result = loadProperties(messages, loader, encoding, localePath + PROPERTIES_SUFFIX);
+            if (StringUtils.isNotEmpty(locale.getCountry())) {
+                localePath = localePath + '_' + locale.getCountry();
+                result |= loadProperties(messages, loader, encoding, localePath + PROPERTIES_SUFFIX);
+                if (StringUtils.isNotEmpty(locale.getVariant())) {
+                    result |= loadProperties(messages, loader, encoding, localePath + '_' + locale.getVariant() + PROPERTIES_SUFFIX);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean loadProperties(@Nonnull Map<String, String> messages, @Nonnull ClassLoader loader, @Nonnull Charset encoding, @Nonnull String resourcePath) {
+        URL resource = loader.getResource(resourcePath);
+        if (resource == null) {
+            return false;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(resource.openStream(), encoding)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException ex) {
+            log.warn(String.format("Failed to load theme resource '%s'", resourcePath), ex);
+            return false;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            messages.put(name, properties.getProperty(name));
+        }
+        return true;
+    }
+}
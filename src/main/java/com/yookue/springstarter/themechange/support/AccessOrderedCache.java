@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * Bounded concurrent cache that evicts the least recently used entries approximately
+ * <p>
+ * Reads are lock free, a hit only writes the access time of the entry, and at most once per millisecond.
+ * When the cache is full, the expired entries and then the least recently used ones are evicted in a batch by a single thread,
+ * down to seven eighths of the maximum size, so that the cost of sorting the access times is amortised over the following puts
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.tenant.TenantThemeSource
+ */
+@SuppressWarnings("unused")
+public class AccessOrderedCache<K, V> {
+    private static final long TOUCH_NANOS = 1_000_000L;
+    private final ConcurrentMap<K, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    @Getter
+    @Setter
+    private volatile int maximumSize;
+
+    /**
+     * Construct a new cache
+     *
+     * @param maximumSize the maximum number of entries, zero or negative means caching nothing
+     */
+    public AccessOrderedCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the cached value of the key
+     *
+     * @param key the key to look up
+     *
+     * @return the cached value of the key, or {@code null} if absent or expired
+     */
+    @Nullable
+    public V get(@Nonnull K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (entry.isExpired(now)) {
+            entries.remove(key, entry);
+            return null;
+        }
+        if (now - entry.accessTime >= TOUCH_NANOS) {
+            entry.accessTime = now;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Caches the value of the key, replacing the previous one if any
+     *
+     * @param key the key to cache
+     * @param value the value to cache
+     * @param timeToLive the duration after which the value expires, {@code null} means never expire
+     *
+     * @return whether the value is cached or not, a cache without a positive maximum size caches nothing
+     */
+    public boolean put(@Nonnull K key, @Nonnull V value, @Nullable Duration timeToLive) {
+        int maximum = maximumSize;
+        if (maximum <= 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long expireTime = (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) ? 0L : now + timeToLive.toNanos();
+        entries.put(key, new CacheEntry<>(value, now, expireTime));
+        if (entries.size() > maximum) {
+            evictEntries(now, maximum);
+        }
+        return true;
+    }
+
+    /**
+     * Discards the cached value of the key
+     *
+     * @param key the key to discard
+     */
+    public void remove(@Nonnull K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Discards the cached value of the key, only if it is the specified value
+     *
+     * @param key the key to discard
+     * @param value the value expected to be cached
+     *
+     * @return whether the value is discarded or not
+     */
+    public boolean remove(@Nonnull K key, @Nonnull V value) {
+        CacheEntry<V> entry = entries.get(key);
+        return entry != null && entry.value == value && entries.remove(key, entry);
+    }
+
+    /**
+     * Discards all the cached values
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached values, including the expired ones that have not been evicted yet
+     *
+     * @return the number of cached values
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictEntries(long now, int maximum) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            int excess = entries.size() - (maximum - (maximum >>> 3));
+            if (entries.size() <= maximum || excess <= 0) {
+                return;
+            }
+            long[] accessTimes = entries.values().stream().mapToLong(entry -> entry.accessTime).toArray();
+            if (accessTimes.length == 0) {
+                return;
+            }
+            Arrays.sort(accessTimes);
+            long threshold = accessTimes[Math.min(excess, accessTimes.length) - 1];
+            for (Iterator<Map.Entry<K, CacheEntry<V>>> iterator = entries.entrySet().iterator(); iterator.hasNext() && excess > 0; ) {
+                Map.Entry<K, CacheEntry<V>> candidate = iterator.next();
+                if (candidate.getValue().accessTime - threshold <= 0L && entries.remove(candidate.getKey(), candidate.getValue())) {
+                    excess--;
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+
+    /**
+     * Cached value, with the last access time and the expire time, the latter is {@code 0} if never expire
+     */
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long expireTime;
+        private volatile long accessTime;
+
+        private CacheEntry(@Nonnull V value, long accessTime, long expireTime) {
+            this.value = value;
+            this.accessTime = accessTime;
+            this.expireTime = expireTime;
+        }
+
+        private boolean isExpired(long now) {
+            return expireTime != 0L && now - expireTime >= 0L;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.beans.factory.ObjectProvider;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.support.ThemeChangeRecorder} that delegates to several recorders
+ *
+ * @author David Hsing
+ */
+public class CompositeThemeChangeRecorder implements ThemeChangeRecorder {
+    private final ThemeChangeRecorder[] recorders;
+
+    public CompositeThemeChangeRecorder(@Nonnull List<ThemeChangeRecorder> recorders) {
+        this.recorders = recorders.toArray(new ThemeChangeRecorder[0]);
+    }
+
+    /**
+     * Returns a recorder that delegates to the available recorders
+     *
+     * @param provider the provider of the recorder beans
+     *
+     * @return a recorder that delegates to the available recorders, or {@code null} if none
+     */
+    @Nullable
+    public static ThemeChangeRecorder of(@Nullable ObjectProvider<ThemeChangeRecorder> provider) {
+        if (provider == null) {
+            return null;
+        }
+        List<ThemeChangeRecorder> recorders = provider.orderedStream().collect(Collectors.toList());
+        if (recorders.isEmpty()) {
+            return null;
+        }
+        return (recorders.size() == 1) ? recorders.get(0) : new CompositeThemeChangeRecorder(recorders);
+    }
+
+    @Override
+    public void recordViewHandled(long nanos) {
+        for (ThemeChangeRecorder recorder : recorders) {
+            recorder.recordViewHandled(nanos);
+        }
+    }
+
+    @Override
+    public void recordThemeResolved(long nanos) {
+        for (ThemeChangeRecorder recorder : recorders) {
+            recorder.recordThemeResolved(nanos);
+        }
+    }
+
+    @Override
+    public void recordThemeResolved(@Nullable String themeName, long nanos) {
+        for (ThemeChangeRecorder recorder : recorders) {
+            recorder.recordThemeResolved(themeName, nanos);
+        }
+    }
+
+    @Override
+    public void recordThemeSwitched(@Nullable String oldTheme, @Nonnull String newTheme) {
+        for (ThemeChangeRecorder recorder : recorders) {
+            recorder.recordThemeSwitched(oldTheme, newTheme);
+        }
+    }
+
+    @Override
+    public void recordThemeRejected(@Nullable String themeName, @Nonnull String reason) {
+        for (ThemeChangeRecorder recorder : recorders) {
+            recorder.recordThemeRejected(themeName, reason);
+        }
+    }
+}
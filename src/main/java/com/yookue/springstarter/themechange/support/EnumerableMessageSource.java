@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.springframework.context.MessageSource;
+
+
+/**
+ * {@link org.springframework.context.MessageSource} that is able to enumerate its message codes
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.util.ThemeChangeUtils#getMessageCodes
+ */
+public interface EnumerableMessageSource extends MessageSource {
+    /**
+     * Returns the message codes of the specified locale
+     *
+     * @param locale the locale to look up
+     *
+     * @return the message codes of the specified locale, excluding the ones of the parent message source
+     */
+    @Nonnull
+    Set<String> getMessageCodes(@Nonnull Locale locale);
+}
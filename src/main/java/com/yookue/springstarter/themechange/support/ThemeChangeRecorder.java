@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Recorder of theme change activities, such as metrics
+ * <p>
+ * All the methods are invoked on the request threads, implementations should return quickly and never throw
+ *
+ * @author David Hsing
+ */
+public interface ThemeChangeRecorder {
+    /**
+     * The reason of rejecting a theme that is not allowed
+     */
+    String REJECT_UNKNOWN_THEME = "unknown-theme";    // $NON-NLS-1$
+
+    /**
+     * The reason of rejecting a theme whose name is not a valid theme name
+     */
+    String REJECT_INVALID_THEME = "invalid-theme";    // $NON-NLS-1$
+
+    /**
+     * The reason of rejecting a theme that carried by an invalid request header
+     */
+    String REJECT_INVALID_HEADER = "invalid-header";    // $NON-NLS-1$
+
+    /**
+     * The reason of rejecting a theme that carried by an invalid cookie
+     */
+    String REJECT_INVALID_COOKIE = "invalid-cookie";    // $NON-NLS-1$
+
+    /**
+     * The reason of rejecting a theme that carried by an invalid principal preference
+     */
+    String REJECT_INVALID_PREFERENCE = "invalid-preference";    // $NON-NLS-1$
+
+    /**
+     * Records the duration of contributing the tag names to a view
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    default void recordViewHandled(long nanos) {
+    }
+
+    /**
+     * Records the duration of resolving a theme name
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    default void recordThemeResolved(long nanos) {
+    }
+
+    /**
+     * Records a resolved theme name and the duration of resolving it
+     *
+     * @param themeName the resolved theme name
+     * @param nanos the duration in nanoseconds
+     */
+    default void recordThemeResolved(@Nullable String themeName, long nanos) {
+        recordThemeResolved(nanos);
+    }
+
+    /**
+     * Records a theme switch
+     *
+     * @param oldTheme the name of the previous theme
+     * @param newTheme the name of the new theme
+     */
+    default void recordThemeSwitched(@Nullable String oldTheme, @Nonnull String newTheme) {
+    }
+
+    /**
+     * Records a rejected theme
+     *
+     * @param themeName the name of the rejected theme
+     * @param reason the reason of the rejection
+     */
+    default void recordThemeRejected(@Nullable String themeName, @Nonnull String reason) {
+    }
+}
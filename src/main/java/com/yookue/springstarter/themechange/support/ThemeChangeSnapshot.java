@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.CollectionUtils;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.ToString;
+
+
+/**
+ * Immutable snapshot of the {@link com.yookue.springstarter.themechange.property.ThemeChangeProperties} that read on every request
+ * <p>
+ * The snapshot is frozen once at startup, so that the interceptors never go through the mutable getters, nor the null-safe unboxing of them
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.interceptor.ThemeChangeViewInterceptor
+ */
+@Getter
+@ToString
+public final class ThemeChangeSnapshot implements Serializable {
+    private final Set<String> knownThemes;
+    private final String viewAttribute;
+    private final Map<String, String> tagNames;
+    private final boolean tagMultilingual;
+    private final int tagCacheSize;
+    private final Duration tagCacheTimeToLive;
+    private final boolean handlerOptIn;
+
+    private ThemeChangeSnapshot(@Nonnull ThemeChangeProperties properties) {
+        ThemeChangeProperties.ModelAndView props = properties.getModelAndView();
+        this.knownThemes = ThemeChangeUtils.getKnownThemes(properties);
+        this.viewAttribute = StringUtils.trimToNull(props.getViewAttribute());
+        this.tagNames = CollectionUtils.isEmpty(props.getTagNames()) ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(props.getTagNames()));
+        this.tagMultilingual = BooleanUtils.isTrue(props.getTagMultilingual());
+        this.tagCacheSize = (props.getTagCacheSize() == null) ? 0 : Math.max(props.getTagCacheSize(), 0);
+        this.tagCacheTimeToLive = props.getTagCacheTimeToLive();
+        this.handlerOptIn = BooleanUtils.isTrue(props.getHandlerOptIn());
+    }
+
+    /**
+     * Returns a snapshot of the current values of the properties
+     *
+     * @param properties the theme change properties
+     *
+     * @return a snapshot of the current values of the properties
+     */
+    @Nonnull
+    public static ThemeChangeSnapshot of(@Nonnull ThemeChangeProperties properties) {
+        return new ThemeChangeSnapshot(properties);
+    }
+
+    /**
+     * Returns whether the view should be given the tag names or not
+     *
+     * @return whether the view should be given the tag names or not
+     */
+    public boolean hasTagNames() {
+        return viewAttribute != null && !tagNames.isEmpty();
+    }
+
+}
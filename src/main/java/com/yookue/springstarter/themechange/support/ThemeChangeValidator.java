@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.util.ClassUtils;
+import com.yookue.springstarter.themechange.util.ThemeChangeUtils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * Validator that checks the configured themes once, when all the singletons have been instantiated
+ * <p>
+ * Each allowed theme must have any message, and the message codes of all the themes should be consistent,
+ * the problems are logged, or fail the startup if {@code failFast} is {@code true}
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.support.ThemeChangeSnapshot
+ */
+@CommonsLog
+public class ThemeChangeValidator implements SmartInitializingSingleton, BeanClassLoaderAware {
+    private final ThemeChangeSnapshot snapshot;
+    private final ThemeSource themeSource;
+    private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
+
+    @Getter
+    @Setter
+    private boolean checkKeys = true;
+
+    @Getter
+    @Setter
+    private boolean failFast = false;
+
+    @Getter
+    @Setter
+    private Locale locale = Locale.ROOT;
+
+    @Getter
+    private List<String> problems = Collections.emptyList();
+
+    public ThemeChangeValidator(@Nonnull ThemeChangeSnapshot snapshot, @Nonnull ThemeSource themeSource) {
+        this.snapshot = snapshot;
+        this.themeSource = themeSource;
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nullable ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startTime = System.currentTimeMillis();
+        problems = Collections.unmodifiableList(validate());
+        if (problems.isEmpty()) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Validated %d theme(s) in %d ms", snapshot.getKnownThemes().size(), System.currentTimeMillis() - startTime));
+            }
+            return;
+        }
+        String message = String.format("Found %d theme configuration problem(s): %s", problems.size(), StringUtils.join(problems, "; "));    // $NON-NLS-1$
+        if (failFast) {
+            throw new IllegalStateException(message);
+        }
+        if (log.isWarnEnabled()) {
+            log.warn(message);
+        }
+    }
+
+    /**
+     * Returns the problems of the configured themes
+     *
+     * @return the problems of the configured themes, or an empty list if none
+     */
+    @Nonnull
+    public List<String> validate() {
+        List<String> result = new ArrayList<>();
+        Map<String, Set<String>> themeCodes = new LinkedHashMap<>();
+        for (String themeName : snapshot.getKnownThemes()) {
+            Set<String> codes = getMessageCodes(themeName);
+            if (codes == null) {
+                result.add(String.format("Theme '%s' is not found in the theme source", themeName));
+            } else if (codes.isEmpty()) {
+                result.add(String.format("Theme '%s' has no messages, check the basename prefix", themeName));
+            } else {
+                themeCodes.put(themeName, codes);
+            }
+        }
+        if (checkKeys && themeCodes.size() > 1) {
+            Set<String> allCodes = new TreeSet<>();
+            themeCodes.values().forEach(allCodes::addAll);
+            themeCodes.forEach((themeName, codes) -> {
+                Set<String> missingCodes = new TreeSet<>(allCodes);
+                missingCodes.removeAll(codes);
+                if (!missingCodes.isEmpty()) {
+                    result.add(String.format("Theme '%s' is missing key(s) %s", themeName, missingCodes));
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Returns the message codes of the theme, or {@code null} if the theme is not found
+     */
+    @Nullable
+    protected Set<String> getMessageCodes(@Nonnull String themeName) {
+        Theme theme;
+        try {
+            theme = themeSource.getTheme(themeName);
+        } catch (RuntimeException ex) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Failed to load theme '%s'", themeName), ex);
+            }
+            return null;
+        }
+        return (theme == null) ? null : ThemeChangeUtils.getMessageCodes(theme.getMessageSource(), locale, beanClassLoader);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.io.Serializable;
+import java.util.Locale;
+import javax.annotation.Nullable;
+import org.springframework.ui.context.Theme;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+
+/**
+ * Immutable snapshot of the resolved theme name, theme and locale of a request
+ * <p>
+ * A snapshot is captured once and can be shared by any number of threads without the request being present
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.support.ThemeContextHolder
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+public class ThemeContext implements Serializable {
+    @Nullable
+    private final String themeName;
+
+    @Nullable
+    private final transient Theme theme;
+
+    @Nullable
+    private final Locale locale;
+}
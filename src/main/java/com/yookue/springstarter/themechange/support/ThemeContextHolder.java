@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.ui.context.Theme;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import com.yookue.springstarter.themechange.resolver.MemoizingThemeResolver;
+
+
+/**
+ * Holder that associates a {@link com.yookue.springstarter.themechange.support.ThemeContext} with the current thread
+ * <p>
+ * A thread without any bound context falls back to the current request, whose context is captured at most once per theme name.
+ * The holder is a plain {@link java.lang.ThreadLocal}, which is cheap for virtual threads as well,
+ * use {@link com.yookue.springstarter.themechange.support.ThemeContextTaskDecorator} to propagate the context to async executions
+ *
+ * @author David Hsing
+ * @see org.springframework.context.i18n.LocaleContextHolder
+ */
+public abstract class ThemeContextHolder {
+    /**
+     * The request attribute name that holds the captured theme context
+     */
+    public static final String THEME_CONTEXT_ATTRIBUTE = ThemeContextHolder.class.getName() + ".THEME_CONTEXT";    // $NON-NLS-1$
+
+    private static final ThreadLocal<ThemeContext> contextHolder = new NamedThreadLocal<>("Theme context");    // $NON-NLS-1$
+
+    /**
+     * Associates the theme context with the current thread
+     *
+     * @param context the theme context, or {@code null} to reset the thread-bound context
+     */
+    public static void setThemeContext(@Nullable ThemeContext context) {
+        if (context == null) {
+            contextHolder.remove();
+        } else {
+            contextHolder.set(context);
+        }
+    }
+
+    /**
+     * Resets the theme context of the current thread
+     */
+    public static void resetThemeContext() {
+        contextHolder.remove();
+    }
+
+    /**
+     * Returns the theme context that bound to the current thread, without falling back to the current request
+     *
+     * @return the theme context that bound to the current thread, or {@code null} if none
+     */
+    @Nullable
+    public static ThemeContext getBoundThemeContext() {
+        return contextHolder.get();
+    }
+
+    /**
+     * Returns the theme context that bound to the current thread, or captured from the current request
+     *
+     * @return the theme context that bound to the current thread, or captured from the current request, or {@code null} if none
+     */
+    @Nullable
+    public static ThemeContext getThemeContext() {
+        ThemeContext context = contextHolder.get();
+        if (context != null) {
+            return context;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return (attributes instanceof ServletRequestAttributes) ? getThemeContext(((ServletRequestAttributes) attributes).getRequest()) : null;
+    }
+
+    /**
+     * Returns the theme context of the request, which is captured at most once per theme name
+     *
+     * @param request the current request
+     *
+     * @return the theme context of the request, or {@code null} if no theme resolver bound to the request
+     */
+    @Nullable
+    public static ThemeContext getThemeContext(@Nonnull HttpServletRequest request) {
+        String themeName = MemoizingThemeResolver.getThemeName(request);
+        if (themeName == null) {
+            return null;
+        }
+        Object captured = request.getAttribute(THEME_CONTEXT_ATTRIBUTE);
+        if (captured instanceof ThemeContext && StringUtils.equals(((ThemeContext) captured).getThemeName(), themeName)) {
+            return (ThemeContext) captured;
+        }
+        ThemeContext result = new ThemeContext(themeName, MemoizingThemeResolver.getTheme(request), RequestContextUtils.getLocale(request));
+        request.setAttribute(THEME_CONTEXT_ATTRIBUTE, result);
+        return result;
+    }
+
+    /**
+     * Returns the theme name of the current thread
+     *
+     * @return the theme name of the current thread, or {@code null} if none
+     */
+    @Nullable
+    public static String getThemeName() {
+        ThemeContext context = getThemeContext();
+        return (context == null) ? null : context.getThemeName();
+    }
+
+    /**
+     * Returns the theme of the current thread
+     *
+     * @return the theme of the current thread, or {@code null} if none
+     */
+    @Nullable
+    public static Theme getTheme() {
+        ThemeContext context = getThemeContext();
+        return (context == null) ? null : context.getTheme();
+    }
+
+    /**
+     * Returns the locale that captured with the theme of the current thread
+     *
+     * @return the locale that captured with the theme of the current thread, or {@code null} if none
+     */
+    @Nullable
+    public static Locale getLocale() {
+        ThemeContext context = getThemeContext();
+        return (context == null) ? null : context.getLocale();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.i18n.SimpleLocaleContext;
+import org.springframework.context.i18n.SimpleTimeZoneAwareLocaleContext;
+import org.springframework.context.i18n.TimeZoneAwareLocaleContext;
+import org.springframework.core.task.TaskDecorator;
+
+
+/**
+ * {@link org.springframework.core.task.TaskDecorator} that propagates the theme context and the locale context to the decorated task
+ * <p>
+ * Both contexts are captured once on the submitting thread, the locale context is resolved into a snapshot rather than kept as the lazy context of the request,
+ * and the previous contexts of the executing thread are restored after the task,
+ * so that pooled threads and virtual threads never leak a theme into another task
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.support.ThemeContextHolder
+ */
+public class ThemeContextTaskDecorator implements TaskDecorator {
+    @Nonnull
+    @Override
+    public Runnable decorate(@Nonnull Runnable runnable) {
+        ThemeContext themeContext = ThemeContextHolder.getThemeContext();
+        LocaleContext localeContext = snapshotLocaleContext(LocaleContextHolder.getLocaleContext());
+        if (themeContext == null && localeContext == null) {
+            return runnable;
+        }
+        return () -> {
+            ThemeContext previousTheme = ThemeContextHolder.getBoundThemeContext();
+            LocaleContext previousLocale = LocaleContextHolder.getLocaleContext();
+            ThemeContextHolder.setThemeContext(themeContext);
+            LocaleContextHolder.setLocaleContext(localeContext);
+            try {
+                runnable.run();
+            } finally {
+                ThemeContextHolder.setThemeContext(previousTheme);
+                LocaleContextHolder.setLocaleContext(previousLocale);
+            }
+        };
+    }
+
+    /**
+     * Returns a snapshot of the locale context, so that the task never resolves the locale from a request that might have been recycled
+     */
+    @Nullable
+    private static LocaleContext snapshotLocaleContext(@Nullable LocaleContext context) {
+        if (context == null) {
+            return null;
+        }
+        if (context instanceof TimeZoneAwareLocaleContext) {
+            return new SimpleTimeZoneAwareLocaleContext(context.getLocale(), ((TimeZoneAwareLocaleContext) context).getTimeZone());
+        }
+        return new SimpleLocaleContext(context.getLocale());
+    }
+}
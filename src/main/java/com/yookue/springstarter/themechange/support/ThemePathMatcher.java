@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+
+/**
+ * Matcher of request paths with precompiled include and exclude patterns
+ * <p>
+ * The exclude patterns that are literal paths or literal prefixes (e.g. {@code /static/**}) are checked by string comparisons first,
+ * and an include pattern of {@code /**} matches any path without being evaluated.
+ * The patterns are parsed by {@link org.springframework.web.util.pattern.PathPatternParser}, the ones that it rejects, such as {@code /**}{@code /*.js},
+ * are matched by {@link org.springframework.util.AntPathMatcher} like the interceptor registry does
+ *
+ * @author David Hsing
+ * @see org.springframework.web.util.pattern.PathPatternParser
+ */
+public class ThemePathMatcher {
+    private static final String ANY_PATH_SUFFIX = "/**";    // $NON-NLS-1$
+    private static final AntPathMatcher ANT_MATCHER = new AntPathMatcher();
+    private final List<PathPattern> includePatterns;
+    private final List<PathPattern> excludePatterns;
+    private final List<String> includeAntPatterns;
+    private final List<String> excludeAntPatterns;
+    private final boolean includeAll;
+    private final boolean excludeAll;
+    private final Map<String, String[]> excludePrefixes;
+    private final Set<String> excludeLiterals;
+
+    /**
+     * Construct a new matcher
+     *
+     * @param includePaths the path patterns to be included, an empty collection means to include all paths
+     * @param excludePaths the path patterns to be excluded
+     */
+    public ThemePathMatcher(@Nullable Collection<String> includePaths, @Nullable Collection<String> excludePaths) {
+        List<PathPattern> includes = new ArrayList<>();
+        List<String> includeAnts = new ArrayList<>();
+        parsePatterns(includePaths, includes, includeAnts);
+        this.includeAll = (includes.isEmpty() && includeAnts.isEmpty()) || includes.stream().anyMatch(pattern -> ANY_PATH_SUFFIX.equals(pattern.getPatternString()));
+        this.includePatterns = includeAll ? Collections.emptyList() : Collections.unmodifiableList(includes);
+        this.includeAntPatterns = includeAll ? Collections.emptyList() : Collections.unmodifiableList(includeAnts);
+        List<String> prefixes = new ArrayList<>();
+        Set<String> literals = new HashSet<>();
+        List<PathPattern> excludes = new ArrayList<>();
+        List<String> excludeAnts = new ArrayList<>();
+        List<String> remaining = new ArrayList<>();
+        if (!CollectionUtils.isEmpty(excludePaths)) {
+            for (String value : excludePaths) {
+                if (StringUtils.isBlank(value)) {
+                    continue;
+                }
+                if (StringUtils.endsWith(value, ANY_PATH_SUFFIX) && isLiteral(value.substring(0, value.length() - ANY_PATH_SUFFIX.length()))) {
+                    prefixes.add(value.substring(0, value.length() - ANY_PATH_SUFFIX.length()));
+                } else if (isLiteral(value)) {
+                    literals.add(StringUtils.removeEnd(value, "/"));    // $NON-NLS-1$
+                } else {
+                    remaining.add(value);
+                }
+            }
+        }
+        parsePatterns(remaining, excludes, excludeAnts);
+        this.excludeAll = prefixes.stream().anyMatch(StringUtils::isEmpty);
+        this.excludePrefixes = groupPrefixes(prefixes);
+        this.excludeLiterals = Collections.unmodifiableSet(literals);
+        this.excludePatterns = Collections.unmodifiableList(excludes);
+        this.excludeAntPatterns = Collections.unmodifiableList(excludeAnts);
+    }
+
+    /**
+     * Returns whether the path within application matches this matcher or not
+     *
+     * @param path the path within application
+     *
+     * @return whether the path within application matches this matcher or not
+     */
+    public boolean matches(@Nonnull String path) {
+        if (isLiterallyExcluded(path)) {
+            return false;
+        }
+        if (includeAll && excludePatterns.isEmpty() && excludeAntPatterns.isEmpty()) {
+            return true;
+        }
+        return matchesPatterns(PathContainer.parsePath(path));
+    }
+
+    /**
+     * Returns whether the path within application matches this matcher or not
+     *
+     * @param path the path within application
+     *
+     * @return whether the path within application matches this matcher or not
+     */
+    public boolean matches(@Nonnull PathContainer path) {
+        return !isLiterallyExcluded(path.value()) && matchesPatterns(path);
+    }
+
+    private boolean matchesPatterns(@Nonnull PathContainer path) {
+        for (PathPattern pattern : excludePatterns) {
+            if (pattern.matches(path)) {
+                return false;
+            }
+        }
+        for (String pattern : excludeAntPatterns) {
+            if (ANT_MATCHER.match(pattern, path.value())) {
+                return false;
+            }
+        }
+        if (includeAll) {
+            return true;
+        }
+        for (PathPattern pattern : includePatterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        for (String pattern : includeAntPatterns) {
+            if (ANT_MATCHER.match(pattern, path.value())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLiterallyExcluded(@Nonnull String path) {
+        if (excludeAll) {
+            return true;
+        }
+        if (!excludePrefixes.isEmpty()) {
+            String[] prefixes = excludePrefixes.get(getFirstSegment(path));
+            if (prefixes != null) {
+                for (String prefix : prefixes) {
+                    if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return !excludeLiterals.isEmpty() && excludeLiterals.contains(path.endsWith("/") ? path.substring(0, path.length() - 1) : path);    // $NON-NLS-1$
+    }
+
+    /**
+     * Returns the prefixes that grouped by their first segment, so that a path is only compared with the prefixes of its own first segment
+     */
+    @Nonnull
+    private static Map<String, String[]> groupPrefixes(@Nonnull List<String> prefixes) {
+        Map<String, List<String>> groups = new HashMap<>();
+        prefixes.stream().filter(StringUtils::isNotEmpty).forEach(prefix -> groups.computeIfAbsent(getFirstSegment(prefix), key -> new ArrayList<>()).add(prefix));
+        Map<String, String[]> result = new HashMap<>(groups.size() * 4 / 3 + 1);
+        groups.forEach((key, value) -> result.put(key, value.toArray(new String[0])));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Nonnull
+    private static String getFirstSegment(@Nonnull String path) {
+        int index = path.indexOf('/', 1);
+        return (index < 0) ? path : path.substring(0, index);
+    }
+
+    private static boolean isLiteral(@Nonnull String value) {
+        return StringUtils.containsNone(value, '*', '?', '{', '}');
+    }
+
+    /**
+     * Parses the paths into the path patterns, or keeps them as ant patterns if {@link org.springframework.web.util.pattern.PathPatternParser} rejects them
+     */
+    private static void parsePatterns(@Nullable Collection<String> paths, @Nonnull List<PathPattern> patterns, @Nonnull List<String> antPatterns) {
+        if (CollectionUtils.isEmpty(paths)) {
+            return;
+        }
+        for (String path : paths) {
+            if (StringUtils.isBlank(path)) {
+                continue;
+            }
+            try {
+                patterns.add(PathPatternParser.defaultInstance.parse(path));
+            } catch (PatternParseException ignored) {
+                antPatterns.add(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.context.MessageSource;
+import com.yookue.commonplexus.javaseutil.util.MapPlainWraps;
+import com.yookue.commonplexus.springutil.util.MessageSourceWraps;
+
+
+/**
+ * Locale keyed cache of multilingual theme tag names
+ * <p>
+ * Each cached value is an unmodifiable map with the tag names resolved by the {@link org.springframework.context.MessageSource},
+ * so that reading the tag names of a known locale is a single lock free map lookup.
+ * The least recently used locales are evicted approximately when the cache is full, and the cached values expire after the time to live if any,
+ * so that the tag names of a reloadable message source are resolved again.
+ * A value resolved concurrently with {@link #clear()} is never kept after the clearing
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.interceptor.ThemeChangeViewInterceptor
+ */
+public class ThemeTagNamesCache {
+    private final AccessOrderedCache<Locale, Map<String, String>> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Duration timeToLive;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Construct a new cache, whose values never expire
+     *
+     * @param maximumSize the maximum number of locales to cache
+     */
+    public ThemeTagNamesCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Construct a new cache
+     *
+     * @param maximumSize the maximum number of locales to cache
+     * @param timeToLive the duration after which the cached tag names are resolved again, {@code null} means never expire
+     */
+    public ThemeTagNamesCache(int maximumSize, @Nullable Duration timeToLive) {
+        this.cache = new AccessOrderedCache<>(Math.max(maximumSize, 0));
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Returns the resolved tag names of the specified locale
+     *
+     * @param tagNames the theme-tag and theme-name (message code) mappings
+     * @param messageSource the message source to resolve the theme names
+     * @param locale the locale to resolve the theme names
+     *
+     * @return the unmodifiable resolved tag names of the specified locale
+     */
+    @Nonnull
+    public Map<String, String> getTagNames(@Nonnull Map<String, String> tagNames, @Nullable MessageSource messageSource, @Nonnull Locale locale) {
+        Map<String, String> cached = cache.get(locale);
+        if (cached != null) {
+            hitCount.increment();
+            return cached;
+        }
+        missCount.increment();
+        long expected = generation.get();
+        Map<String, String> result = resolveTagNames(tagNames, messageSource, locale);
+        if (cache.put(locale, result, timeToLive) && generation.get() != expected) {
+            cache.remove(locale, result);
+        }
+        return result;
+    }
+
+    /**
+     * Discards all the cached tag names, including the ones being resolved
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * Returns the number of cached locales
+     *
+     * @return the number of cached locales
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the number of lookups that found the cached tag names
+     *
+     * @return the number of lookups that found the cached tag names
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups that resolved the tag names
+     *
+     * @return the number of lookups that resolved the tag names
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Nonnull
+    protected Map<String, String> resolveTagNames(@Nonnull Map<String, String> tagNames, @Nullable MessageSource messageSource, @Nonnull Locale locale) {
+        Map<String, String> result = new LinkedHashMap<>(tagNames);
+        MapPlainWraps.recompute(result, (key, value) -> MessageSourceWraps.getMessage(messageSource, value, value, locale));
+        return Collections.unmodifiableMap(result);
+    }
+}
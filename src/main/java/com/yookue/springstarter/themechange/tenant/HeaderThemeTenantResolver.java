@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.tenant;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import org.apache.commons.lang3.StringUtils;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link com.yookue.springstarter.themechange.tenant.ThemeTenantResolver} that reads the tenant from a request header
+ *
+ * @author David Hsing
+ */
+@Getter
+@Setter
+public class HeaderThemeTenantResolver implements ThemeTenantResolver {
+    /**
+     * The default name of the request header that holds the tenant
+     */
+    public static final String DEFAULT_HEADER_NAME = "X-Tenant-Id";    // $NON-NLS-1$
+
+    private String headerName = DEFAULT_HEADER_NAME;
+
+    @Nullable
+    @Override
+    public String resolveTenant(@Nonnull HttpServletRequest request) {
+        return StringUtils.isBlank(headerName) ? null : StringUtils.trimToNull(request.getHeader(headerName));
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.tenant;
+
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.ui.context.HierarchicalThemeSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.apachecommons.CommonsLog;
+
+
+/**
+ * {@link org.springframework.ui.context.ThemeSource} that loads the themes of the current tenant from a tenant specific theme source
+ * <p>
+ * The tenant is resolved from the current request, each tenant source is built lazily on the first request of the tenant,
+ * and evicted when it has been idle for a while, or when the number of tenants exceeds the maximum size.
+ * Every tenant source has its own bounded cache, so that one tenant never evicts the themes of another,
+ * and falls back to the default theme source for the themes it does not override.
+ * Requests without a tenant, and lookups outside of any request, use the default theme source,
+ * which also receives the bean lifecycle callbacks of this theme source
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.tenant.ThemeTenantResolver
+ */
+@CommonsLog
+public class TenantThemeSource implements HierarchicalThemeSource, ApplicationEventPublisherAware, BeanClassLoaderAware, InitializingBean, DisposableBean {
+    private static final long TOUCH_NANOS = 1_000_000_000L;
+    private static final Pattern TENANT_PATTERN = Pattern.compile("[\\w.-]{1,64}");    // $NON-NLS-1$
+    private final ConcurrentMap<String, TenantEntry> tenantSources = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    @Getter
+    private final ThemeSource defaultThemeSource;
+
+    @Getter
+    private final ThemeTenantResolver tenantResolver;
+
+    private final Function<String, ThemeSource> sourceFactory;
+
+    @Getter
+    @Setter
+    private int maximumSize = 256;
+
+    @Getter
+    @Setter
+    private Duration idleTimeout = Duration.ofMinutes(30L);
+
+    /**
+     * Construct a new theme source
+     *
+     * @param defaultThemeSource the theme source of the requests without a tenant, and the parent of all the tenant sources
+     * @param tenantResolver the resolver of the tenant
+     * @param sourceFactory the factory that builds the theme source of a tenant, the parent theme source is set after building
+     */
+    public TenantThemeSource(@Nonnull ThemeSource defaultThemeSource, @Nonnull ThemeTenantResolver tenantResolver, @Nonnull Function<String, ThemeSource> sourceFactory) {
+        this.defaultThemeSource = defaultThemeSource;
+        this.tenantResolver = tenantResolver;
+        this.sourceFactory = sourceFactory;
+    }
+
+    @Override
+    public void setParentThemeSource(@Nullable ThemeSource parent) {
+        if (defaultThemeSource instanceof HierarchicalThemeSource) {
+            ((HierarchicalThemeSource) defaultThemeSource).setParentThemeSource(parent);
+        }
+    }
+
+    @Nullable
+    @Override
+    public ThemeSource getParentThemeSource() {
+        return (defaultThemeSource instanceof HierarchicalThemeSource) ? ((HierarchicalThemeSource) defaultThemeSource).getParentThemeSource() : null;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(@Nonnull ApplicationEventPublisher publisher) {
+        if (defaultThemeSource instanceof ApplicationEventPublisherAware) {
+            ((ApplicationEventPublisherAware) defaultThemeSource).setApplicationEventPublisher(publisher);
+        }
+    }
+
+    @Override
+    public void setBeanClassLoader(@Nonnull ClassLoader classLoader) {
+        if (defaultThemeSource instanceof BeanClassLoaderAware) {
+            ((BeanClassLoaderAware) defaultThemeSource).setBeanClassLoader(classLoader);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (defaultThemeSource instanceof InitializingBean) {
+            ((InitializingBean) defaultThemeSource).afterPropertiesSet();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (defaultThemeSource instanceof DisposableBean) {
+            ((DisposableBean) defaultThemeSource).destroy();
+        }
+    }
+
+    @Nullable
+    @Override
+    public Theme getTheme(@Nonnull String themeName) {
+        return getThemeSource(resolveTenant()).getTheme(themeName);
+    }
+
+    /**
+     * Returns the theme source of the tenant, which is built on the first call
+     *
+     * @param tenant the tenant
+     *
+     * @return the theme source of the tenant, or the default theme source if the tenant is {@code null} or invalid
+     */
+    @Nonnull
+    public ThemeSource getThemeSource(@Nullable String tenant) {
+        if (tenant == null || maximumSize <= 0) {
+            return defaultThemeSource;
+        }
+        long now = System.nanoTime();
+        TenantEntry entry = tenantSources.get(tenant);
+        if (entry != null && !entry.isIdle(now, getIdleNanos())) {
+            if (now - entry.accessTime >= TOUCH_NANOS) {
+                entry.accessTime = now;
+            }
+            return entry.source;
+        }
+        if (!isValidTenant(tenant)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Ignored invalid tenant '%s'", tenant));
+            }
+            return defaultThemeSource;
+        }
+        entry = tenantSources.compute(tenant, (key, previous) -> (previous != null && !previous.isIdle(now, getIdleNanos())) ? previous : new TenantEntry(createThemeSource(key), now));
+        if (tenantSources.size() > maximumSize) {
+            evictEntries(now);
+        }
+        return entry.source;
+    }
+
+    /**
+     * Returns the tenant of the request whose theme source is used
+     *
+     * @param request the current request
+     *
+     * @return the tenant of the request, or {@code null} if the default theme source is used
+     */
+    @Nullable
+    public String getTenant(@Nonnull HttpServletRequest request) {
+        String tenant = tenantResolver.resolveTenant(request);
+        return (tenant == null || maximumSize <= 0 || !isValidTenant(tenant)) ? null : tenant;
+    }
+
+    /**
+     * Discards the theme source of the tenant
+     *
+     * @param tenant the tenant
+     */
+    public void evictTenant(@Nonnull String tenant) {
+        tenantSources.remove(tenant);
+    }
+
+    /**
+     * Discards the theme sources of all the tenants
+     */
+    public void clearTenants() {
+        tenantSources.clear();
+    }
+
+    /**
+     * Returns the number of tenants whose theme sources are built
+     *
+     * @return the number of tenants whose theme sources are built
+     */
+    public int getTenantCount() {
+        return tenantSources.size();
+    }
+
+    /**
+     * Returns the tenant of the current request, or {@code null} if none
+     */
+    @Nullable
+    protected String resolveTenant() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        return tenantResolver.resolveTenant(request);
+    }
+
+    @Nonnull
+    protected ThemeSource createThemeSource(@Nonnull String tenant) {
+        ThemeSource result = sourceFactory.apply(tenant);
+        if (result instanceof HierarchicalThemeSource) {
+            ((HierarchicalThemeSource) result).setParentThemeSource(defaultThemeSource);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Built theme source of tenant '%s'", tenant));
+        }
+        return result;
+    }
+
+    private boolean isValidTenant(@Nonnull String tenant) {
+        return TENANT_PATTERN.matcher(tenant).matches() && !tenant.contains("..");    // $NON-NLS-1$
+    }
+
+    private long getIdleNanos() {
+        return (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) ? 0L : idleTimeout.toNanos();
+    }
+
+    private void evictEntries(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long idleNanos = getIdleNanos();
+            tenantSources.values().removeIf(entry -> entry.isIdle(now, idleNanos));
+            while (tenantSources.size() > maximumSize) {
+                Map.Entry<String, TenantEntry> eldest = null;
+                for (Iterator<Map.Entry<String, TenantEntry>> iterator = tenantSources.entrySet().iterator(); iterator.hasNext(); ) {
+                    Map.Entry<String, TenantEntry> candidate = iterator.next();
+                    if (eldest == null || candidate.getValue().accessTime - eldest.getValue().accessTime < 0L) {
+                        eldest = candidate;
+                    }
+                }
+                if (eldest == null) {
+                    break;
+                }
+                tenantSources.remove(eldest.getKey(), eldest.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+
+    /**
+     * Theme source of a tenant, with the last access time, which is written at most once per second
+     */
+    private static final class TenantEntry {
+        private final ThemeSource source;
+        private volatile long accessTime;
+
+        private TenantEntry(@Nonnull ThemeSource source, long accessTime) {
+            this.source = source;
+            this.accessTime = accessTime;
+        }
+
+        private boolean isIdle(long now, long idleNanos) {
+            return idleNanos != 0L && now - accessTime >= idleNanos;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.tenant;
+
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+
+
+/**
+ * Strategy of resolving the tenant of a request, whose themes are loaded from the tenant specific resource bundles
+ *
+ * @author David Hsing
+ * @see com.yookue.springstarter.themechange.tenant.TenantThemeSource
+ */
+@FunctionalInterface
+public interface ThemeTenantResolver {
+    /**
+     * Returns the tenant of the request
+     *
+     * @param request the current request
+     *
+     * @return the tenant of the request, or {@code null} if the request does not belong to any tenant
+     */
+    @Nullable
+    String resolveTenant(@Nonnull HttpServletRequest request);
+}
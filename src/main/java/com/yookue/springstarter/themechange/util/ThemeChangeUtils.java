@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.util;
+
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.HierarchicalMessageSource;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.resource.ResourceUrlThemeSource;
+import com.yookue.springstarter.themechange.source.MemoizingThemeSource;
+import com.yookue.springstarter.themechange.support.EnumerableMessageSource;
+import com.yookue.springstarter.themechange.tenant.TenantThemeSource;
+
+
+/**
+ * Utilities for theme change
+ *
+ * @author David Hsing
+ */
+@SuppressWarnings("unused")
+public abstract class ThemeChangeUtils {
+    private static final String PROPERTIES_SUFFIX = ".properties";    // $NON-NLS-1$
+    private static final Pattern THEME_NAME_PATTERN = Pattern.compile("[\\w-]+(\\.[\\w-]+)*");    // $NON-NLS-1$
+
+    /**
+     * Returns the names of the themes that are allowed to be switched to
+     * <p>
+     * The names are the {@code themeInterceptor.allowedThemes} only, the switching is not restricted unless they are configured explicitly
+     *
+     * @param properties the theme change properties
+     *
+     * @return the unmodifiable names of the allowed themes, or an empty set means that any theme is allowed
+     */
+    @Nonnull
+    public static Set<String> getAllowedThemes(@Nonnull ThemeChangeProperties properties) {
+        return toThemeSet(properties.getThemeInterceptor().getAllowedThemes());
+    }
+
+    /**
+     * Returns the names of the themes that are known by the configuration, such as for preloading and validation
+     * <p>
+     * The names are the {@code themeInterceptor.allowedThemes} if not empty, otherwise the keys of {@code modelAndView.tagNames}
+     *
+     * @param properties the theme change properties
+     *
+     * @return the unmodifiable names of the known themes, or an empty set if none
+     */
+    @Nonnull
+    public static Set<String> getKnownThemes(@Nonnull ThemeChangeProperties properties) {
+        Collection<String> themes = properties.getThemeInterceptor().getAllowedThemes();
+        if (CollectionUtils.isEmpty(themes) && !CollectionUtils.isEmpty(properties.getModelAndView().getTagNames())) {
+            themes = properties.getModelAndView().getTagNames().keySet();
+        }
+        return toThemeSet(themes);
+    }
+
+    /**
+     * Returns an unmodifiable set of the trimmed non-blank theme names
+     *
+     * @param themes the theme names
+     *
+     * @return an unmodifiable set of the trimmed non-blank theme names
+     */
+    @Nonnull
+    public static Set<String> toThemeSet(@Nullable Collection<String> themes) {
+        if (CollectionUtils.isEmpty(themes)) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new LinkedHashSet<>(themes.size());
+        for (String theme : themes) {
+            if (StringUtils.isNotBlank(theme)) {
+                result.add(StringUtils.trim(theme));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Returns whether the theme is allowed to be switched to or not
+     *
+     * @param allowedThemes the names of the allowed themes, an empty set means that any theme is allowed
+     * @param themeName the name of the theme to check
+     *
+     * @return whether the theme is allowed to be switched to or not
+     */
+    public static boolean isAllowedTheme(@Nonnull Set<String> allowedThemes, @Nullable String themeName) {
+        return themeName != null && (allowedThemes.isEmpty() || allowedThemes.contains(themeName));
+    }
+
+    /**
+     * Returns whether the theme name is safe to be used in a resource path or not
+     * <p>
+     * A valid name consists of word characters and hyphens, optionally separated by single dots, such as {@code dark} or {@code brand.dark}
+     *
+     * @param themeName the name of the theme to check
+     *
+     * @return whether the theme name is safe to be used in a resource path or not
+     */
+    public static boolean isValidThemeName(@Nullable String themeName) {
+        return themeName != null && THEME_NAME_PATTERN.matcher(themeName).matches();
+    }
+
+    /**
+     * Returns whether the default resource bundle file of the basename, or the one of the default locale, exists in the classpath or not
+     *
+     * @param classLoader the class loader to find the resources
+     * @param basename the basename of the resource bundle
+     *
+     * @return whether the default resource bundle file of the basename, or the one of the default locale, exists in the classpath or not
+     */
+    public static boolean isBundleAvailable(@Nullable ClassLoader classLoader, @Nonnull String basename) {
+        return isBundleAvailable(classLoader, basename, Collections.singleton(Locale.getDefault()));
+    }
+
+    /**
+     * Returns whether the default resource bundle file of the basename, or the one of any specified locale, exists in the classpath or not
+     * <p>
+     * Only the exact files are probed, such as {@code basename.properties}, {@code basename_en.properties} and {@code basename_en_US.properties}, without any classpath scanning
+     *
+     * @param classLoader the class loader to find the resources
+     * @param basename the basename of the resource bundle
+     * @param locales the locales whose files are probed
+     *
+     * @return whether the default resource bundle file of the basename, or the one of any specified locale, exists in the classpath or not
+     */
+    public static boolean isBundleAvailable(@Nullable ClassLoader classLoader, @Nonnull String basename, @Nullable Collection<Locale> locales) {
+        ClassLoader loader = (classLoader != null) ? classLoader : ClassUtils.getDefaultClassLoader();
+        if (loader == null) {
+            return false;
+        }
+        String path = StringUtils.replaceChars(basename, '.', '/');
+        if (loader.getResource(path + PROPERTIES_SUFFIX) != null) {
+            return true;
+        }
+        if (CollectionUtils.isEmpty(locales)) {
+            return false;
+        }
+        for (Locale locale : locales) {
+            if (locale == null || StringUtils.isEmpty(locale.getLanguage())) {
+                continue;
+            }
+            String localePath = path + '_' + locale.getLanguage();
+            if (loader.getResource(localePath + PROPERTIES_SUFFIX) != null) {
+                return true;
+            }
+            if (StringUtils.isNotEmpty(locale.getCountry())) {
+                localePath = localePath + '_' + locale.getCountry();
+                if (loader.getResource(localePath + PROPERTIES_SUFFIX) != null) {
+                    return true;
+                }
+                if (StringUtils.isNotEmpty(locale.getVariant()) && loader.getResource(localePath + '_' + locale.getVariant() + PROPERTIES_SUFFIX) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the theme source of the specified type, which is either the theme source itself, or one decorated by it
+     * <p>
+     * Looks through {@link com.yookue.springstarter.themechange.source.MemoizingThemeSource}, {@link com.yookue.springstarter.themechange.resource.ResourceUrlThemeSource},
+     * and the default theme source of {@link com.yookue.springstarter.themechange.tenant.TenantThemeSource}
+     *
+     * @param themeSource the theme source to look through
+     * @param type the type of the theme source to find
+     * @param <T> the type of the theme source to find
+     *
+     * @return the theme source of the specified type, or {@code null} if none
+     */
+    @Nullable
+    public static <T extends ThemeSource> T findThemeSource(@Nullable ThemeSource themeSource, @Nonnull Class<T> type) {
+        for (ThemeSource source = themeSource; source != null; ) {
+            if (type.isInstance(source)) {
+                return type.cast(source);
+            }
+            if (source instanceof MemoizingThemeSource) {
+                source = ((MemoizingThemeSource) source).getThemeSource();
+            } else if (source instanceof ResourceUrlThemeSource) {
+                source = ((ResourceUrlThemeSource) source).getThemeSource();
+            } else if (source instanceof TenantThemeSource) {
+                source = ((TenantThemeSource) source).getDefaultThemeSource();
+            } else {
+                source = null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the message codes of the message source and its parents, in alphabetical order
+     * <p>
+     * Supports {@link com.yookue.springstarter.themechange.support.EnumerableMessageSource} and {@link org.springframework.context.support.ResourceBundleMessageSource},
+     * the codes of any other message source are unknown
+     *
+     * @param messageSource the message source to look up
+     * @param locale the locale to look up
+     * @param classLoader the class loader to load the resource bundles
+     *
+     * @return the unmodifiable message codes of the message source and its parents
+     */
+    @Nonnull
+    public static Set<String> getMessageCodes(@Nullable MessageSource messageSource, @Nonnull Locale locale, @Nullable ClassLoader classLoader) {
+        Set<String> result = new TreeSet<>();
+        ClassLoader loader = (classLoader != null) ? classLoader : ClassUtils.getDefaultClassLoader();
+        for (MessageSource source = messageSource; source != null; source = (source instanceof HierarchicalMessageSource) ? ((HierarchicalMessageSource) source).getParentMessageSource() : null) {
+            if (source instanceof EnumerableMessageSource) {
+                result.addAll(((EnumerableMessageSource) source).getMessageCodes(locale));
+            } else if (source instanceof ResourceBundleMessageSource && loader != null) {
+                for (String basename : ((ResourceBundleMessageSource) source).getBasenameSet()) {
+                    try {
+                        result.addAll(ResourceBundle.getBundle(basename, locale, loader).keySet());
+                    } catch (MissingResourceException ignored) {
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
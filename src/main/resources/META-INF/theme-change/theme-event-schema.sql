@@ -0,0 +1,7 @@
+CREATE TABLE theme_event (
+    event_type VARCHAR(16) NOT NULL,
+    old_theme VARCHAR(255),
+    new_theme VARCHAR(255),
+    resolver_type VARCHAR(16),
+    event_time TIMESTAMP NOT NULL
+);
@@ -0,0 +1,6 @@
+CREATE TABLE theme_preference (
+    principal VARCHAR(255) NOT NULL,
+    theme_name VARCHAR(255) NOT NULL,
+    update_time TIMESTAMP NOT NULL,
+    PRIMARY KEY (principal)
+);
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.themechange.event;
+
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.event.ThemeEventRecorder}
+ *
+ * @author David Hsing
+ */
+class ThemeEventRecorderTest {
+    private final List<ThemeChangeEvent> written = new CopyOnWriteArrayList<>();
+
+    @Test
+    void wakesDrainOnFullBatch() throws Exception {
+        ThemeEventRecorder recorder = createRecorder();
+        try {
+            for (int i = 0; i < 4; i++) {
+                recorder.recordThemeSwitched("light", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+            while (written.size() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(10L);
+            }
+            Assertions.assertEquals(4, written.size());
+            Assertions.assertEquals(4L, recorder.getPublishedCount());
+        } finally {
+            recorder.destroy();
+        }
+    }
+
+    @Test
+    void drainsRemainingOnDestroy() throws Exception {
+        ThemeEventRecorder recorder = createRecorder();
+        recorder.recordThemeSwitched(null, "dark");    // $NON-NLS-1$
+        recorder.recordThemeResolved("dark", 0L);    // $NON-NLS-1$
+        Thread.sleep(50L);
+        Assertions.assertTrue(written.isEmpty());
+        recorder.destroy();
+        Assertions.assertEquals(1, written.size());
+        Assertions.assertEquals(0, recorder.getPendingCount());
+    }
+
+    @Nonnull
+    private ThemeEventRecorder createRecorder() throws InterruptedException {
+        ThemeEventRecorder recorder = new ThemeEventRecorder(written::addAll, 16);
+        recorder.setBatchSize(4);
+        recorder.setDrainInterval(Duration.ofHours(1L));
+        recorder.afterPropertiesSet();
+        // Let the drain thread park on its first empty drain
+        Thread.sleep(50L);
+        return recorder;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.themechange.event;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.event.ThemeEventRingBuffer}
+ *
+ * @author David Hsing
+ */
+class ThemeEventRingBufferTest {
+    @Test
+    void roundsCapacityUp() {
+        Assertions.assertEquals(2, new ThemeEventRingBuffer<>(0).capacity());
+        Assertions.assertEquals(8, new ThemeEventRingBuffer<>(5).capacity());
+        Assertions.assertEquals(16, new ThemeEventRingBuffer<>(16).capacity());
+    }
+
+    @Test
+    void drainsInOrderAcrossWraparound() {
+        ThemeEventRingBuffer<Integer> buffer = new ThemeEventRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertTrue(buffer.offer(next++));
+            }
+            Assertions.assertEquals(3, buffer.size());
+            Assertions.assertEquals(2, buffer.drainTo(drained, 2));
+            Assertions.assertEquals(1, buffer.drainTo(drained, 4));
+            Assertions.assertEquals(0, buffer.size());
+        }
+        for (int i = 0; i < next; i++) {
+            Assertions.assertEquals(i, drained.get(i).intValue());
+        }
+        Assertions.assertEquals(0L, buffer.getDroppedCount());
+    }
+
+    @Test
+    void dropsWhenFull() {
+        ThemeEventRingBuffer<Integer> buffer = new ThemeEventRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(buffer.offer(i));
+        }
+        Assertions.assertFalse(buffer.offer(4));
+        Assertions.assertFalse(buffer.offer(5));
+        Assertions.assertEquals(2L, buffer.getDroppedCount());
+        Assertions.assertEquals(4, buffer.size());
+        List<Integer> drained = new ArrayList<>();
+        Assertions.assertEquals(1, buffer.drainTo(drained, 1));
+        Assertions.assertTrue(buffer.offer(6));
+        Assertions.assertEquals(4, buffer.drainTo(drained, 8));
+        Assertions.assertEquals(0, drained.get(0).intValue());
+        Assertions.assertEquals(6, drained.get(4).intValue());
+    }
+
+    @Test
+    void acceptsConcurrentProducers() throws Exception {
+        int producers = 4, perProducer = 20_000;
+        ThemeEventRingBuffer<long[]> buffer = new ThemeEventRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int published = 0;
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(new long[]{producer, i})) {
+                            published++;
+                        }
+                    }
+                    return published;
+                }));
+            }
+            start.countDown();
+            List<long[]> drained = new ArrayList<>();
+            while (futures.stream().anyMatch(future -> !future.isDone())) {
+                buffer.drainTo(drained, 32);
+            }
+            // A claimed slot may be published just after its producer is seen as done
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+            while (buffer.size() > 0 && System.nanoTime() < deadline) {
+                buffer.drainTo(drained, 32);
+            }
+            int published = 0;
+            for (Future<Integer> future : futures) {
+                published += future.get();
+            }
+            Assertions.assertEquals(published, drained.size());
+            Assertions.assertEquals((long) producers * perProducer, published + buffer.getDroppedCount());
+            long[] lastSequences = new long[producers];
+            Arrays.fill(lastSequences, -1L);
+            for (long[] element : drained) {
+                int producer = (int) element[0];
+                Assertions.assertTrue(element[1] > lastSequences[producer], "Elements of a producer must be drained in order");    // $NON-NLS-1$
+                lastSequences[producer] = element[1];
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.filter;
+
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.theme.FixedThemeResolver;
+import com.yookue.springstarter.themechange.interceptor.ThemeVaryInterceptor;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.filter.ThemeAwareEtagHeaderFilter}
+ *
+ * @author David Hsing
+ */
+class ThemeAwareEtagHeaderFilterTest {
+    private final ThemeAwareEtagHeaderFilter filter = new ThemeAwareEtagHeaderFilter();
+
+    @Test
+    void mixesThemeIntoEtag() throws Exception {
+        String plain = filter(null, null).getHeader(HttpHeaders.ETAG);
+        String dark = filter("dark", null).getHeader(HttpHeaders.ETAG);    // $NON-NLS-1$
+        String light = filter("light", null).getHeader(HttpHeaders.ETAG);    // $NON-NLS-1$
+        Assertions.assertNotNull(plain);
+        Assertions.assertNotNull(dark);
+        Assertions.assertNotNull(light);
+        Assertions.assertNotEquals(plain, dark);
+        Assertions.assertNotEquals(dark, light);
+        Assertions.assertEquals(dark, filter("dark", null).getHeader(HttpHeaders.ETAG));    // $NON-NLS-1$
+    }
+
+    @Test
+    void answersNotModifiedForSameTheme() throws Exception {
+        String dark = filter("dark", null).getHeader(HttpHeaders.ETAG);    // $NON-NLS-1$
+        Assertions.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, filter("dark", dark).getStatus());    // $NON-NLS-1$
+        MockHttpServletResponse response = filter("light", dark);    // $NON-NLS-1$
+        Assertions.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        Assertions.assertEquals("Hello", response.getContentAsString());    // $NON-NLS-1$
+    }
+
+    @Test
+    void writesWeakEtag() throws Exception {
+        filter.setWriteWeakETag(true);
+        String dark = filter("dark", null).getHeader(HttpHeaders.ETAG);    // $NON-NLS-1$
+        Assertions.assertNotNull(dark);
+        Assertions.assertTrue(dark.startsWith("W/\""));    // $NON-NLS-1$
+    }
+
+    @Test
+    void keepsEtagOfHandler() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index");    // $NON-NLS-1$ // $NON-NLS-2$
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(@Nonnull ServletRequest servletRequest, @Nonnull ServletResponse servletResponse) throws IOException {
+                markThemed((MockHttpServletRequest) servletRequest, "dark");    // $NON-NLS-1$
+                ((HttpServletResponse) servletResponse).setHeader(HttpHeaders.ETAG, "\"custom\"");    // $NON-NLS-1$
+                servletResponse.getOutputStream().write("Hello".getBytes(StandardCharsets.UTF_8));    // $NON-NLS-1$
+            }
+        });
+        Assertions.assertEquals("\"custom\"", response.getHeader(HttpHeaders.ETAG));    // $NON-NLS-1$
+    }
+
+    /**
+     * Filters a request whose handler marks it as themed, like {@link com.yookue.springstarter.themechange.interceptor.ThemeVaryInterceptor} does during the dispatch
+     */
+    @Nonnull
+    private MockHttpServletResponse filter(@Nullable String themeName, @Nullable String ifNoneMatch) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index");    // $NON-NLS-1$ // $NON-NLS-2$
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(@Nonnull ServletRequest servletRequest, @Nonnull ServletResponse servletResponse) throws IOException {
+                if (themeName != null) {
+                    markThemed((MockHttpServletRequest) servletRequest, themeName);
+                }
+                servletResponse.getOutputStream().write("Hello".getBytes(StandardCharsets.UTF_8));    // $NON-NLS-1$
+            }
+        });
+        return response;
+    }
+
+    private void markThemed(@Nonnull MockHttpServletRequest request, @Nonnull String themeName) {
+        FixedThemeResolver themeResolver = new FixedThemeResolver();
+        themeResolver.setDefaultThemeName(themeName);
+        request.setAttribute(DispatcherServlet.THEME_RESOLVER_ATTRIBUTE, themeResolver);
+        request.setAttribute(ThemeVaryInterceptor.THEMED_REQUEST_ATTRIBUTE, Boolean.TRUE);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.handler;
+
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.i18n.CookieLocaleResolver;
+import org.springframework.web.servlet.i18n.FixedLocaleResolver;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import com.yookue.springstarter.themechange.source.FileSystemThemeSource;
+import com.yookue.springstarter.themechange.tenant.HeaderThemeTenantResolver;
+import com.yookue.springstarter.themechange.tenant.TenantThemeSource;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.handler.ThemeDescriptorHandler}
+ *
+ * @author David Hsing
+ */
+class ThemeDescriptorHandlerTest {
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void negotiatesSupportedLocale() throws Exception {
+        ThemeDescriptorHandler handler = createHandler(createSource(), Arrays.asList(Locale.ENGLISH, Locale.FRANCE));
+        Assertions.assertEquals(Locale.FRANCE, handler.negotiateLocale(Locale.FRENCH));
+        Assertions.assertEquals(Locale.ENGLISH, handler.negotiateLocale(Locale.UK));
+        Assertions.assertEquals(Locale.ENGLISH, handler.negotiateLocale(Locale.GERMAN));
+        MockHttpServletResponse response = handle(handler, "fr-CA", null);    // $NON-NLS-1$
+        Assertions.assertEquals("fr-FR", response.getHeader(HttpHeaders.CONTENT_LANGUAGE));    // $NON-NLS-1$
+        Assertions.assertTrue(response.getHeaders(HttpHeaders.VARY).isEmpty());
+    }
+
+    @Test
+    void variesByLocaleResolverInputs() throws Exception {
+        ThemeDescriptorHandler handler = createHandler(createSource(), null);
+        Assertions.assertEquals(Collections.singletonList(HttpHeaders.ACCEPT_LANGUAGE), handle(handler, null, null).getHeaders(HttpHeaders.VARY));
+        Assertions.assertEquals(Arrays.asList(HttpHeaders.COOKIE, HttpHeaders.ACCEPT_LANGUAGE), handle(handler, null, new CookieLocaleResolver()).getHeaders(HttpHeaders.VARY));
+        Assertions.assertTrue(handle(handler, null, new FixedLocaleResolver(Locale.ENGLISH)).getHeaders(HttpHeaders.VARY).isEmpty());
+    }
+
+    @Test
+    void discardsDescriptorsOnReload() throws Exception {
+        FileSystemThemeSource source = createSource();
+        ThemeDescriptorHandler handler = createHandler(source, null);
+        source.setApplicationEventPublisher(event -> handler.onApplicationEvent((ApplicationEvent) event));
+        Assertions.assertTrue(getBody(handler).contains("\"color\":\"blue\""));    // $NON-NLS-1$
+        writeFile("blue.properties", "color=azure");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertTrue(getBody(handler).contains("\"color\":\"blue\""));    // $NON-NLS-1$
+        source.refreshThemes();
+        Assertions.assertTrue(getBody(handler).contains("\"color\":\"azure\""));    // $NON-NLS-1$
+    }
+
+    @Test
+    void separatesDescriptorsOfTenants() throws Exception {
+        Files.createDirectory(directory.resolve("acme"));    // $NON-NLS-1$
+        writeFile("acme/blue.properties", "color=red");    // $NON-NLS-1$ // $NON-NLS-2$
+        TenantThemeSource source = new TenantThemeSource(createSource(), new HeaderThemeTenantResolver(), tenant -> new FileSystemThemeSource(directory.resolve(tenant)));
+        ThemeChangeProperties properties = new ThemeChangeProperties();
+        properties.getThemeInterceptor().setAllowedThemes(Collections.singletonList("blue"));    // $NON-NLS-1$
+        ThemeDescriptorHandler handler = new ThemeDescriptorHandler(properties, source);
+        MockHttpServletResponse tenantResponse = handle(handler, "en", null, "acme");    // $NON-NLS-1$ // $NON-NLS-2$
+        MockHttpServletResponse defaultResponse = handle(handler, "en", null, null);    // $NON-NLS-1$
+        Assertions.assertTrue(tenantResponse.getContentAsString().contains("\"color\":\"red\""));    // $NON-NLS-1$
+        Assertions.assertTrue(defaultResponse.getContentAsString().contains("\"color\":\"blue\""));    // $NON-NLS-1$
+        Assertions.assertNotEquals(tenantResponse.getHeader(HttpHeaders.ETAG), defaultResponse.getHeader(HttpHeaders.ETAG));
+        Assertions.assertEquals(Collections.singletonList(HeaderThemeTenantResolver.DEFAULT_HEADER_NAME), defaultResponse.getHeaders(HttpHeaders.VARY));
+    }
+
+    @Test
+    void keepsRecentDescriptorsWhenFull() throws Exception {
+        ThemeChangeProperties properties = new ThemeChangeProperties();
+        properties.getThemeInterceptor().setAllowedThemes(Collections.singletonList("blue"));    // $NON-NLS-1$
+        properties.getDescriptor().setCacheSize(8);
+        AtomicInteger renderCount = new AtomicInteger();
+        ThemeDescriptorHandler handler = new ThemeDescriptorHandler(properties, createSource()) {
+            @Nonnull
+            @Override
+            protected String renderDescriptor(@Nonnull Locale locale) {
+                renderCount.incrementAndGet();
+                return super.renderDescriptor(locale);
+            }
+        };
+        for (int i = 0; i < 8; i++) {
+            handler.getDescriptor(null, new Locale("l" + i));    // $NON-NLS-1$
+            Thread.sleep(2L);
+        }
+        handler.getDescriptor(null, new Locale("l0"));    // $NON-NLS-1$
+        Thread.sleep(2L);
+        handler.getDescriptor(null, Locale.ENGLISH);
+        Assertions.assertEquals(9, renderCount.get());
+        handler.getDescriptor(null, new Locale("l0"));    // $NON-NLS-1$
+        handler.getDescriptor(null, Locale.ENGLISH);
+        Assertions.assertEquals(9, renderCount.get());
+        handler.getDescriptor(null, new Locale("l1"));    // $NON-NLS-1$
+        Assertions.assertEquals(10, renderCount.get());
+    }
+
+    @Test
+    void supportsThemeSourceLocalesByDefault() throws Exception {
+        ThemeChangeProperties properties = new ThemeChangeProperties();
+        properties.getThemeInterceptor().setAllowedThemes(Collections.singletonList("blue"));    // $NON-NLS-1$
+        properties.getThemeSource().setLocales(Arrays.asList(Locale.FRENCH, Locale.ENGLISH));
+        ThemeDescriptorHandler handler = new ThemeDescriptorHandler(properties, createSource());
+        Assertions.assertEquals(Locale.ENGLISH, handler.negotiateLocale(Locale.US));
+        Assertions.assertEquals(Locale.FRENCH, handler.negotiateLocale(Locale.GERMAN));
+    }
+
+    @Nonnull
+    private FileSystemThemeSource createSource() throws Exception {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        FileSystemThemeSource source = new FileSystemThemeSource(directory);
+        source.setWatchEnabled(false);
+        source.afterPropertiesSet();
+        return source;
+    }
+
+    @Nonnull
+    private ThemeDescriptorHandler createHandler(@Nonnull FileSystemThemeSource source, @Nullable List<Locale> locales) {
+        ThemeChangeProperties properties = new ThemeChangeProperties();
+        properties.getThemeInterceptor().setAllowedThemes(Collections.singletonList("blue"));    // $NON-NLS-1$
+        properties.getDescriptor().setLocales(locales);
+        return new ThemeDescriptorHandler(properties, source);
+    }
+
+    @Nonnull
+    private MockHttpServletResponse handle(@Nonnull ThemeDescriptorHandler handler, @Nullable String localeValue, @Nullable LocaleResolver localeResolver) throws IOException {
+        return handle(handler, localeValue, localeResolver, null);
+    }
+
+    @Nonnull
+    private MockHttpServletResponse handle(@Nonnull ThemeDescriptorHandler handler, @Nullable String localeValue, @Nullable LocaleResolver localeResolver, @Nullable String tenant) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/theme-descriptor");    // $NON-NLS-1$ // $NON-NLS-2$
+        if (tenant != null) {
+            request.addHeader(HeaderThemeTenantResolver.DEFAULT_HEADER_NAME, tenant);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        if (localeValue != null) {
+            request.setParameter("locale", localeValue);    // $NON-NLS-1$
+        }
+        if (localeResolver != null) {
+            request.setAttribute(DispatcherServlet.LOCALE_RESOLVER_ATTRIBUTE, localeResolver);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+
+    @Nonnull
+    private String getBody(@Nonnull ThemeDescriptorHandler handler) {
+        return new String(handler.getDescriptorBody(Locale.ENGLISH), StandardCharsets.UTF_8);
+    }
+
+    private void writeFile(@Nonnull String fileName, @Nonnull String content) throws IOException {
+        Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
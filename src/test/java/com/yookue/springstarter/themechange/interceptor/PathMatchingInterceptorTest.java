@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.interceptor;
+
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.interceptor.PathMatchingInterceptor}
+ *
+ * @author David Hsing
+ */
+class PathMatchingInterceptorTest {
+    private final AtomicInteger preHandleCount = new AtomicInteger();
+    private final AtomicInteger postHandleCount = new AtomicInteger();
+
+    private final HandlerInterceptor delegate = new HandlerInterceptor() {
+        @Override
+        public boolean preHandle(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler) {
+            preHandleCount.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public void postHandle(@Nonnull HttpServletRequest request, @Nonnull HttpServletResponse response, @Nonnull Object handler, @Nullable ModelAndView modelAndView) {
+            postHandleCount.incrementAndGet();
+        }
+    };
+
+    @Test
+    void invokesDelegateOnMatchedDispatch() throws Exception {
+        PathMatchingInterceptor interceptor = new PathMatchingInterceptor(delegate, new ThemePathMatcher(Collections.singletonList("/pages/**"), null));    // $NON-NLS-1$
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/missing");    // $NON-NLS-1$ // $NON-NLS-2$
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, this);
+        interceptor.postHandle(request, response, this, null);
+        Assertions.assertEquals(0, preHandleCount.get());
+        Assertions.assertEquals(0, postHandleCount.get());
+        // The error dispatch reuses the request attributes of the original dispatch
+        request.setRequestURI("/pages/error");    // $NON-NLS-1$
+        interceptor.preHandle(request, response, this);
+        interceptor.postHandle(request, response, this, null);
+        Assertions.assertEquals(1, preHandleCount.get());
+        Assertions.assertEquals(1, postHandleCount.get());
+    }
+
+    @Test
+    void matchesAntPatterns() throws Exception {
+        PathMatchingInterceptor interceptor = new PathMatchingInterceptor(delegate, new ThemePathMatcher(Collections.singletonList("/**/*.html"), null));    // $NON-NLS-1$
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/pages/index.html"), new MockHttpServletResponse(), this);    // $NON-NLS-1$ // $NON-NLS-2$
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/pages/index.json"), new MockHttpServletResponse(), this);    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(1, preHandleCount.get());
+    }
+}
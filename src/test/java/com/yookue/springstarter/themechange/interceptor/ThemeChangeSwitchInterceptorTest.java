@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.themechange.interceptor;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.theme.SessionThemeResolver;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.interceptor.ThemeChangeSwitchInterceptor}
+ *
+ * @author David Hsing
+ */
+class ThemeChangeSwitchInterceptorTest {
+    private final ThemeChangeSwitchInterceptor interceptor = new ThemeChangeSwitchInterceptor(Collections.singleton("dark"));    // $NON-NLS-1$
+
+    @BeforeEach
+    void enableShortCircuit() {
+        interceptor.setShortCircuit(true);
+    }
+
+    @Test
+    void redirectsWithoutThemeParameter() throws Exception {
+        MockHttpServletResponse response = switchTheme("/pages/index", "a=1&theme=dark&b=2");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(303, response.getStatus());
+        Assertions.assertEquals("/pages/index?a=1&b=2", response.getHeader(HttpHeaders.LOCATION));    // $NON-NLS-1$
+        Assertions.assertEquals("/pages/index", switchTheme("/pages/index", "theme=dark").getHeader(HttpHeaders.LOCATION));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+    }
+
+    @Test
+    void neverRedirectsToAnotherHost() throws Exception {
+        Assertions.assertEquals("/evil.example/x", switchTheme("//evil.example/x", "theme=dark").getHeader(HttpHeaders.LOCATION));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        Assertions.assertEquals("/evil.example/x?a=1", switchTheme("/\\evil.example/x", "theme=dark&a=1").getHeader(HttpHeaders.LOCATION));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        Assertions.assertEquals("/evil.example", switchTheme("///evil.example", "theme=dark").getHeader(HttpHeaders.LOCATION));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+    }
+
+    @Test
+    void ignoresUnknownTheme() throws Exception {
+        MockHttpServletResponse response = switchTheme("/pages/index", "theme=unknown");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertNull(response.getHeader(HttpHeaders.LOCATION));
+    }
+
+    @Test
+    void rejectsInvalidThemeWhenAnyThemeIsAllowed() throws Exception {
+        List<String> rejected = new ArrayList<>();
+        ThemeChangeSwitchInterceptor anyTheme = new ThemeChangeSwitchInterceptor(Collections.emptySet());
+        anyTheme.setRecorder(new ThemeChangeRecorder() {
+            @Override
+            public void recordThemeRejected(@Nullable String themeName, @Nonnull String reason) {
+                rejected.add(reason);
+            }
+        });
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/pages/index");    // $NON-NLS-1$ // $NON-NLS-2$
+        request.addParameter("theme", "../dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Assertions.assertTrue(anyTheme.preHandle(request, response, this));
+        Assertions.assertNull(response.getCookie("theme"));    // $NON-NLS-1$
+        Assertions.assertEquals(Collections.singletonList(ThemeChangeRecorder.REJECT_INVALID_THEME), rejected);
+    }
+
+    @Nonnull
+    private MockHttpServletResponse switchTheme(@Nonnull String requestUri, @Nonnull String queryString) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);    // $NON-NLS-1$
+        request.setQueryString(queryString);
+        for (String pair : queryString.split("&")) {    // $NON-NLS-1$
+            String[] parts = pair.split("=", 2);    // $NON-NLS-1$
+            request.addParameter(parts[0], parts[1]);
+        }
+        request.setAttribute(DispatcherServlet.THEME_RESOLVER_ATTRIBUTE, new SessionThemeResolver());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, this);
+        return response;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.interceptor;
+
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import com.yookue.springstarter.themechange.annotation.ThemeTagNamesOptIn;
+import com.yookue.springstarter.themechange.annotation.ThemeTagNamesOptOut;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.interceptor.ThemeChangeViewInterceptor}
+ *
+ * @author David Hsing
+ */
+class ThemeChangeViewInterceptorTest {
+    private static final String VIEW_ATTRIBUTE = "themeChangeTagNames";    // $NON-NLS-1$
+
+    @AfterEach
+    void resetLocale() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    void addsTagNamesToViewHandlers() throws Exception {
+        ThemeChangeViewInterceptor interceptor = createInterceptor(false, false);
+        Assertions.assertNotNull(handle(interceptor, handlerMethod(new PlainController(), "index")));    // $NON-NLS-1$
+        Assertions.assertNull(handle(interceptor, handlerMethod(new PlainController(), "optOut")));    // $NON-NLS-1$
+        Assertions.assertNull(handle(interceptor, handlerMethod(new PlainController(), "body")));    // $NON-NLS-1$
+        Assertions.assertNull(handle(interceptor, handlerMethod(new OptOutController(), "index")));    // $NON-NLS-1$
+        Assertions.assertNotNull(handle(interceptor, handlerMethod(new OptOutController(), "optIn")));    // $NON-NLS-1$
+        Assertions.assertNull(handle(interceptor, new ResourceHttpRequestHandler()));
+        Assertions.assertNotNull(handle(interceptor, new Object()));
+    }
+
+    @Test
+    void addsTagNamesToOptedInHandlersOnly() throws Exception {
+        ThemeChangeViewInterceptor interceptor = createInterceptor(true, false);
+        Assertions.assertNull(handle(interceptor, handlerMethod(new PlainController(), "index")));    // $NON-NLS-1$
+        Assertions.assertNotNull(handle(interceptor, handlerMethod(new PlainController(), "optIn")));    // $NON-NLS-1$
+        Assertions.assertNotNull(handle(interceptor, handlerMethod(new OptInController(), "index")));    // $NON-NLS-1$
+        Assertions.assertNull(handle(interceptor, handlerMethod(new OptInController(), "optOut")));    // $NON-NLS-1$
+        Assertions.assertNull(handle(interceptor, new Object()));
+    }
+
+    @Test
+    void skipsRedirectViews() throws Exception {
+        ThemeChangeViewInterceptor interceptor = createInterceptor(false, false);
+        ModelAndView view = new ModelAndView("redirect:/index");    // $NON-NLS-1$
+        interceptor.postHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handlerMethod(new PlainController(), "index"), view);    // $NON-NLS-1$
+        Assertions.assertFalse(view.getModel().containsKey(VIEW_ATTRIBUTE));
+    }
+
+    @Test
+    void resolvesMultilingualTagNames() throws Exception {
+        ThemeChangeViewInterceptor interceptor = createInterceptor(false, true);
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("Dark", Locale.FRENCH, "Sombre");    // $NON-NLS-1$ // $NON-NLS-2$
+        interceptor.setMessageSource(messageSource);
+        LocaleContextHolder.setLocale(Locale.FRENCH);
+        Assertions.assertEquals(Collections.singletonMap("dark", "Sombre"), handle(interceptor, handlerMethod(new PlainController(), "index")));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        Assertions.assertEquals(Collections.singletonMap("dark", "Dark"), handle(interceptor, handlerMethod(new PlainController(), "index")));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+    }
+
+    @Nonnull
+    private ThemeChangeViewInterceptor createInterceptor(boolean handlerOptIn, boolean tagMultilingual) {
+        ThemeChangeProperties properties = new ThemeChangeProperties();
+        properties.getModelAndView().setTagNames(Collections.singletonMap("dark", "Dark"));    // $NON-NLS-1$ // $NON-NLS-2$
+        properties.getModelAndView().setHandlerOptIn(handlerOptIn);
+        properties.getModelAndView().setTagMultilingual(tagMultilingual);
+        return new ThemeChangeViewInterceptor(properties);
+    }
+
+    private Object handle(@Nonnull ThemeChangeViewInterceptor interceptor, @Nonnull Object handler) throws Exception {
+        ModelAndView view = new ModelAndView("index");    // $NON-NLS-1$
+        interceptor.postHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler, view);
+        Object result = view.getModel().get(VIEW_ATTRIBUTE);
+        Assertions.assertTrue(result == null || result instanceof Map);
+        return result;
+    }
+
+    @Nonnull
+    private HandlerMethod handlerMethod(@Nonnull Object controller, @Nonnull String methodName) throws NoSuchMethodException {
+        return new HandlerMethod(controller, methodName);
+    }
+
+
+    @SuppressWarnings("unused")
+    static class PlainController {
+        public String index() {
+            return "index";    // $NON-NLS-1$
+        }
+
+        @ThemeTagNamesOptIn
+        public String optIn() {
+            return "index";    // $NON-NLS-1$
+        }
+
+        @ThemeTagNamesOptOut
+        public String optOut() {
+            return "index";    // $NON-NLS-1$
+        }
+
+        @ResponseBody
+        public String body() {
+            return "index";    // $NON-NLS-1$
+        }
+    }
+
+
+    @ThemeTagNamesOptIn
+    @SuppressWarnings("unused")
+    static class OptInController {
+        public String index() {
+            return "index";    // $NON-NLS-1$
+        }
+
+        @ThemeTagNamesOptOut
+        public String optOut() {
+            return "index";    // $NON-NLS-1$
+        }
+    }
+
+
+    @ThemeTagNamesOptOut
+    @SuppressWarnings("unused")
+    static class OptOutController {
+        public String index() {
+            return "index";    // $NON-NLS-1$
+        }
+
+        @ThemeTagNamesOptIn
+        public String optIn() {
+            return "index";    // $NON-NLS-1$
+        }
+    }
+}
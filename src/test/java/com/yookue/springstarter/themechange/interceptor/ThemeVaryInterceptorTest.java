@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.interceptor;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.interceptor.ThemeVaryInterceptor}
+ *
+ * @author David Hsing
+ */
+class ThemeVaryInterceptorTest {
+    @Test
+    void appendsVaryHeadersAndMarksRequest() {
+        ThemeVaryInterceptor interceptor = new ThemeVaryInterceptor(Arrays.asList(HttpHeaders.COOKIE, "X-Theme"));    // $NON-NLS-1$
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader(HttpHeaders.VARY, "Accept-Encoding, cookie");    // $NON-NLS-1$
+        Assertions.assertTrue(interceptor.preHandle(request, response, new Object()));
+        Assertions.assertEquals(Arrays.asList("Accept-Encoding, cookie", "X-Theme"), response.getHeaders(HttpHeaders.VARY));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(Boolean.TRUE, request.getAttribute(ThemeVaryInterceptor.THEMED_REQUEST_ATTRIBUTE));
+        interceptor.preHandle(request, response, new Object());
+        Assertions.assertEquals(2, response.getHeaders(HttpHeaders.VARY).size());
+    }
+
+    @Test
+    void keepsVaryAll() {
+        ThemeVaryInterceptor interceptor = new ThemeVaryInterceptor(Collections.singletonList(HttpHeaders.COOKIE));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader(HttpHeaders.VARY, "*");    // $NON-NLS-1$
+        interceptor.preHandle(new MockHttpServletRequest(), response, new Object());
+        Assertions.assertEquals(Collections.singletonList("*"), response.getHeaders(HttpHeaders.VARY));    // $NON-NLS-1$
+    }
+
+    @Test
+    void marksRequestWithoutVaryHeaders() {
+        ThemeVaryInterceptor interceptor = new ThemeVaryInterceptor(Collections.emptyList());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        Assertions.assertNull(response.getHeader(HttpHeaders.VARY));
+        Assertions.assertEquals(Boolean.TRUE, request.getAttribute(ThemeVaryInterceptor.THEMED_REQUEST_ATTRIBUTE));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.preference;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.preference.JdbcThemePreferenceStore} against an H2 database,
+ * whose table is created by {@code META-INF/theme-change/theme-preference-schema.sql}
+ *
+ * @author David Hsing
+ */
+class JdbcThemePreferenceStoreH2Test {
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcThemePreferenceStore store;
+
+    @BeforeEach
+    void createDatabase() {
+        database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).addScript("classpath:META-INF/theme-change/theme-preference-schema.sql").build();    // $NON-NLS-1$
+        jdbcTemplate = new JdbcTemplate(database);
+        store = new JdbcThemePreferenceStore(jdbcTemplate);
+    }
+
+    @AfterEach
+    void shutdownDatabase() {
+        database.shutdown();
+    }
+
+    @Test
+    void upsertsSinglePreference() {
+        Assertions.assertNull(store.getTheme("alice"));    // $NON-NLS-1$
+        store.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        store.setTheme("alice", "light");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("light", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(1, countRows());
+        store.setTheme("alice", null);    // $NON-NLS-1$
+        Assertions.assertNull(store.getTheme("alice"));    // $NON-NLS-1$
+        Assertions.assertEquals(0, countRows());
+    }
+
+    @Test
+    void upsertsBatchOfPreferences() {
+        store.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        store.setTheme("carol", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        Map<String, String> batch = new LinkedHashMap<>();
+        batch.put("alice", "light");    // $NON-NLS-1$ // $NON-NLS-2$
+        batch.put("bob", "blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        batch.put("carol", null);    // $NON-NLS-1$
+        store.setThemes(batch);
+        Assertions.assertEquals("light", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("blue", store.getTheme("bob"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNull(store.getTheme("carol"));    // $NON-NLS-1$
+        Assertions.assertEquals(2, countRows());
+        store.setThemes(batch);
+        Assertions.assertEquals(2, countRows());
+    }
+
+    @Test
+    void flushesCachedPreferences() {
+        ThemePreferenceCache cache = new ThemePreferenceCache(store);
+        cache.afterPropertiesSet();
+        try {
+            cache.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+            cache.setTheme("bob", "light");    // $NON-NLS-1$ // $NON-NLS-2$
+        } finally {
+            cache.destroy();
+        }
+        Assertions.assertEquals("dark", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("light", store.getTheme("bob"));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    private int countRows() {
+        Integer result = jdbcTemplate.queryForObject(String.format("SELECT COUNT(*) FROM %s", store.getTableName()), Integer.class);    // $NON-NLS-1$
+        return (result == null) ? 0 : result;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.themechange.preference;
+
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.preference.JdbcThemePreferenceStore}
+ *
+ * @author David Hsing
+ */
+class JdbcThemePreferenceStoreTest {
+    @Test
+    void upsertsSinglePreference() {
+        TableJdbcTemplate template = new TableJdbcTemplate(false);
+        JdbcThemePreferenceStore store = new JdbcThemePreferenceStore(template);
+        store.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        store.setTheme("alice", "light");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("light", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(1, template.inserts);
+        store.setTheme("alice", null);    // $NON-NLS-1$
+        Assertions.assertNull(store.getTheme("alice"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void upsertsBatchOfPreferences() {
+        TableJdbcTemplate template = new TableJdbcTemplate(false);
+        JdbcThemePreferenceStore store = new JdbcThemePreferenceStore(template);
+        store.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        store.setTheme("carol", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        store.setThemes(createBatch());
+        Assertions.assertEquals("light", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("blue", store.getTheme("bob"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNull(store.getTheme("carol"));    // $NON-NLS-1$
+        Assertions.assertEquals(3, template.inserts);
+        Assertions.assertEquals(1, template.batches.get(store.getInsertSql()).intValue());
+    }
+
+    @Test
+    void insertsRowsWithoutUpdateCount() {
+        TableJdbcTemplate template = new TableJdbcTemplate(true);
+        JdbcThemePreferenceStore store = new JdbcThemePreferenceStore(template);
+        store.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        store.setThemes(createBatch());
+        Assertions.assertEquals("light", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("blue", store.getTheme("bob"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(2, template.inserts);
+    }
+
+    @Test
+    void rejectsInvalidTableName() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JdbcThemePreferenceStore(new TableJdbcTemplate(false), "theme; DROP TABLE x"));    // $NON-NLS-1$
+    }
+
+    @Nonnull
+    private Map<String, String> createBatch() {
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("alice", "light");    // $NON-NLS-1$ // $NON-NLS-2$
+        result.put("bob", "blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        result.put("carol", null);    // $NON-NLS-1$
+        return result;
+    }
+
+
+    /**
+     * {@link org.springframework.jdbc.core.JdbcTemplate} that runs the statements of the store against an in-memory table
+     */
+    private static final class TableJdbcTemplate extends JdbcTemplate {
+        private final Map<String, String> table = new ConcurrentHashMap<>();
+        private final Map<String, Integer> batches = new ConcurrentHashMap<>();
+        private final boolean batchWithoutCount;
+        private int inserts;
+
+        private TableJdbcTemplate(boolean batchWithoutCount) {
+            this.batchWithoutCount = batchWithoutCount;
+        }
+
+        @Nonnull
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(@Nonnull String sql, @Nonnull Class<T> elementType, @Nullable Object... args) {
+            String themeName = table.get((String) args[0]);
+            return (themeName == null) ? Collections.emptyList() : Collections.singletonList((T) themeName);
+        }
+
+        @Override
+        public int update(@Nonnull String sql, @Nullable Object... args) {
+            if (StringUtils.startsWith(sql, "UPDATE")) {    // $NON-NLS-1$
+                return (table.replace((String) args[2], (String) args[0]) == null) ? 0 : 1;
+            }
+            if (StringUtils.startsWith(sql, "INSERT")) {    // $NON-NLS-1$
+                inserts++;
+                return (table.putIfAbsent((String) args[0], (String) args[1]) == null) ? 1 : 0;
+            }
+            return (table.remove((String) args[0]) == null) ? 0 : 1;
+        }
+
+        @Nonnull
+        @Override
+        public int[] batchUpdate(@Nonnull String sql, @Nonnull List<Object[]> batchArgs) {
+            batches.merge(sql, 1, Integer::sum);
+            List<Integer> counts = new ArrayList<>();
+            for (Object[] args : batchArgs) {
+                int count = update(sql, args);
+                counts.add(batchWithoutCount ? Statement.SUCCESS_NO_INFO : count);
+            }
+            return counts.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
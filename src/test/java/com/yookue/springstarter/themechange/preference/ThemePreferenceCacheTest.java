@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.themechange.preference;
+
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.preference.ThemePreferenceCache}
+ *
+ * @author David Hsing
+ */
+class ThemePreferenceCacheTest {
+    private final CountingPreferenceStore store = new CountingPreferenceStore();
+
+    @Test
+    void cachesPrincipalsWithoutPreference() {
+        ThemePreferenceCache cache = new ThemePreferenceCache(store);
+        cache.setWriteBehind(false);
+        cache.afterPropertiesSet();
+        Assertions.assertNull(cache.getTheme("alice"));    // $NON-NLS-1$
+        Assertions.assertNull(cache.getTheme("alice"));    // $NON-NLS-1$
+        Assertions.assertEquals(1, store.reads.get());
+        cache.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("dark", cache.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(1, store.reads.get());
+        Assertions.assertEquals("dark", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void keepsRecentPreferencesWhenFull() throws InterruptedException {
+        ThemePreferenceCache cache = new ThemePreferenceCache(store);
+        cache.setWriteBehind(false);
+        cache.setMaximumSize(8);
+        cache.afterPropertiesSet();
+        cache.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        for (int i = 0; i < 32; i++) {
+            Thread.sleep(2L);
+            Assertions.assertEquals("dark", cache.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+            Assertions.assertNull(cache.getTheme("user" + i));    // $NON-NLS-1$
+        }
+        int reads = store.reads.get();
+        Assertions.assertEquals("dark", cache.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(reads, store.reads.get());
+        Assertions.assertTrue(cache.getCacheSize() <= 8);
+    }
+
+    @Test
+    void flushesPendingWritesOnDestroy() {
+        ThemePreferenceCache cache = createWriteBehindCache();
+        cache.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        cache.setTheme("bob", "light");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(2, cache.getPendingSize());
+        Assertions.assertNull(store.getTheme("alice"));    // $NON-NLS-1$
+        Assertions.assertEquals("dark", cache.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        cache.destroy();
+        Assertions.assertEquals(0, cache.getPendingSize());
+        Assertions.assertEquals("dark", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("light", store.getTheme("bob"));    // $NON-NLS-1$ // $NON-NLS-2$
+        cache.setTheme("carol", "blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("blue", store.getTheme("carol"));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void requeuesFailedWrites() {
+        ThemePreferenceCache cache = createWriteBehindCache();
+        try {
+            cache.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+            cache.setTheme("bob", "light");    // $NON-NLS-1$ // $NON-NLS-2$
+            store.failing.set(true);
+            cache.flush();
+            Assertions.assertEquals(2, cache.getPendingSize());
+            cache.setTheme("alice", "blue");    // $NON-NLS-1$ // $NON-NLS-2$
+            store.failing.set(false);
+            cache.flush();
+            Assertions.assertEquals(0, cache.getPendingSize());
+            Assertions.assertEquals("blue", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+            Assertions.assertEquals("light", store.getTheme("bob"));    // $NON-NLS-1$ // $NON-NLS-2$
+        } finally {
+            cache.destroy();
+        }
+    }
+
+    @Test
+    void requeueKeepsNewerWrite() {
+        ThemePreferenceCache cache = createWriteBehindCache();
+        try {
+            cache.setTheme("alice", "dark");    // $NON-NLS-1$ // $NON-NLS-2$
+            store.failing.set(true);
+            // Overwritten while the failing batch is being written
+            store.onWrite = () -> cache.setTheme("alice", "blue");    // $NON-NLS-1$ // $NON-NLS-2$
+            cache.flush();
+            store.onWrite = null;
+            store.failing.set(false);
+            Assertions.assertEquals("blue", cache.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+            cache.flush();
+            Assertions.assertEquals("blue", store.getTheme("alice"));    // $NON-NLS-1$ // $NON-NLS-2$
+        } finally {
+            cache.destroy();
+        }
+    }
+
+    @Nonnull
+    private ThemePreferenceCache createWriteBehindCache() {
+        ThemePreferenceCache cache = new ThemePreferenceCache(store);
+        cache.setFlushInterval(Duration.ofHours(1L));
+        cache.afterPropertiesSet();
+        return cache;
+    }
+
+
+    /**
+     * {@link com.yookue.springstarter.themechange.preference.ThemePreferenceStore} that counts the reads, and fails the batch writes on demand
+     */
+    private static final class CountingPreferenceStore extends InMemoryThemePreferenceStore {
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private volatile Runnable onWrite;
+
+        @Nullable
+        @Override
+        public String getTheme(@Nonnull String principal) {
+            reads.incrementAndGet();
+            return super.getTheme(principal);
+        }
+
+        @Override
+        public void setThemes(@Nonnull Map<String, String> themes) {
+            Runnable action = onWrite;
+            if (action != null) {
+                action.run();
+            }
+            if (failing.get()) {
+                throw new IllegalStateException("Store is unavailable");    // $NON-NLS-1$
+            }
+            super.setThemes(themes);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import java.time.Duration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.reactive.CookieServerThemeResolver}
+ *
+ * @author David Hsing
+ */
+class CookieServerThemeResolverTest {
+    @Test
+    void resolvesCookieOrDefault() {
+        CookieServerThemeResolver resolver = new CookieServerThemeResolver("theme");    // $NON-NLS-1$
+        resolver.setDefaultThemeName("light");    // $NON-NLS-1$
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/").cookie(new HttpCookie("theme", "dark")));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        Assertions.assertEquals("dark", resolver.resolveThemeName(exchange).block());    // $NON-NLS-1$
+        Assertions.assertEquals("light", resolver.resolveThemeName(MockServerWebExchange.from(MockServerHttpRequest.get("/"))).block());    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNull(new CookieServerThemeResolver("theme").resolveThemeName(MockServerWebExchange.from(MockServerHttpRequest.get("/"))).block());    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void writesCookieWithAttributes() {
+        CookieServerThemeResolver resolver = new CookieServerThemeResolver("theme");    // $NON-NLS-1$
+        resolver.setCookieMaxAge(3600);
+        resolver.setCookieHttpOnly(true);
+        resolver.setCookieSecure(true);
+        resolver.setCookieSameSite("Lax");    // $NON-NLS-1$
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));    // $NON-NLS-1$
+        resolver.setThemeName(exchange, "dark").block();    // $NON-NLS-1$
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst("theme");    // $NON-NLS-1$
+        Assertions.assertNotNull(cookie);
+        Assertions.assertEquals("dark", cookie.getValue());    // $NON-NLS-1$
+        Assertions.assertEquals(Duration.ofHours(1L), cookie.getMaxAge());
+        Assertions.assertTrue(cookie.isHttpOnly());
+        Assertions.assertTrue(cookie.isSecure());
+        Assertions.assertEquals("Lax", cookie.getSameSite());    // $NON-NLS-1$
+        Assertions.assertEquals("dark", resolver.resolveThemeName(exchange).block());    // $NON-NLS-1$
+    }
+
+    @Test
+    void resetsCookie() {
+        CookieServerThemeResolver resolver = new CookieServerThemeResolver("theme");    // $NON-NLS-1$
+        resolver.setDefaultThemeName("light");    // $NON-NLS-1$
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/").cookie(new HttpCookie("theme", "dark")));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        resolver.setThemeName(exchange, null).block();
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst("theme");    // $NON-NLS-1$
+        Assertions.assertNotNull(cookie);
+        Assertions.assertEquals(Duration.ZERO, cookie.getMaxAge());
+        Assertions.assertEquals("light", resolver.resolveThemeName(exchange).block());    // $NON-NLS-1$
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import java.util.Collections;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.reactive.HeaderServerThemeResolver}
+ *
+ * @author David Hsing
+ */
+class HeaderServerThemeResolverTest {
+    @Test
+    void prefersHeaderOverCookie() {
+        HeaderServerThemeResolver resolver = new HeaderServerThemeResolver("theme");    // $NON-NLS-1$
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/").header("X-Theme", " dark ").cookie(new HttpCookie("theme", "light")));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$ // $NON-NLS-5$
+        Assertions.assertEquals("dark", resolver.resolveThemeName(exchange).block());    // $NON-NLS-1$
+    }
+
+    @Test
+    void fallsBackToCookieForUnknownHeader() {
+        HeaderServerThemeResolver resolver = new HeaderServerThemeResolver("theme");    // $NON-NLS-1$
+        resolver.setAllowedThemes(Collections.singleton("dark"));    // $NON-NLS-1$
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/").header("X-Theme", "neon").cookie(new HttpCookie("theme", "light")));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$ // $NON-NLS-5$
+        Assertions.assertEquals("light", resolver.resolveThemeName(exchange).block());    // $NON-NLS-1$
+    }
+
+    @Test
+    void usesCustomHeaderName() {
+        HeaderServerThemeResolver resolver = new HeaderServerThemeResolver("theme");    // $NON-NLS-1$
+        resolver.setHeaderName("X-Skin");    // $NON-NLS-1$
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/").header("X-Skin", "dark"));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        Assertions.assertEquals("dark", resolver.resolveThemeName(exchange).block());    // $NON-NLS-1$
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebSession;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.reactive.SessionServerThemeResolver}
+ *
+ * @author David Hsing
+ */
+class SessionServerThemeResolverTest {
+    @Test
+    void storesThemeInSession() {
+        SessionServerThemeResolver resolver = new SessionServerThemeResolver();
+        resolver.setDefaultThemeName("light");    // $NON-NLS-1$
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));    // $NON-NLS-1$
+        Assertions.assertEquals("light", resolver.resolveThemeName(exchange).block());    // $NON-NLS-1$
+        resolver.setThemeName(exchange, "dark").block();    // $NON-NLS-1$
+        WebSession session = exchange.getSession().block();
+        Assertions.assertNotNull(session);
+        Assertions.assertEquals("dark", session.getAttribute(SessionServerThemeResolver.THEME_SESSION_ATTRIBUTE));    // $NON-NLS-1$
+        Assertions.assertEquals("dark", resolver.resolveThemeName(exchange).block());    // $NON-NLS-1$
+    }
+
+    @Test
+    void resetsTheme() {
+        SessionServerThemeResolver resolver = new SessionServerThemeResolver();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));    // $NON-NLS-1$
+        resolver.setThemeName(exchange, "dark").block();    // $NON-NLS-1$
+        resolver.setThemeName(exchange, " ").block();    // $NON-NLS-1$
+        WebSession session = exchange.getSession().block();
+        Assertions.assertNotNull(session);
+        Assertions.assertNull(session.getAttribute(SessionServerThemeResolver.THEME_SESSION_ATTRIBUTE));
+        Assertions.assertNull(resolver.resolveThemeName(exchange).block());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.ui.ExtendedModelMap;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.reactive.ThemeChangeModelAdvice}
+ *
+ * @author David Hsing
+ */
+class ThemeChangeModelAdviceTest {
+    @Test
+    void resolvesMultilingualTagNamesLazily() {
+        ThemeChangeProperties properties = new ThemeChangeProperties();
+        properties.getModelAndView().setTagMultilingual(true);
+        properties.getModelAndView().getTagNames().put("dark", "theme.dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("theme.dark", Locale.ENGLISH, "Dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        ThemeChangeModelAdvice advice = new ThemeChangeModelAdvice(properties);
+        advice.setMessageSource(messageSource);
+        ExtendedModelMap model = new ExtendedModelMap();
+        advice.addTagNames(model, MockServerWebExchange.from(MockServerHttpRequest.get("/pages/index").acceptLanguageAsLocales(Locale.ENGLISH)));    // $NON-NLS-1$
+        Object attribute = model.get(properties.getModelAndView().getViewAttribute());
+        Assertions.assertTrue(attribute instanceof Mono);
+        Map<?, ?> tagNames = (Map<?, ?>) ((Mono<?>) attribute).block();
+        Assertions.assertEquals(Collections.singletonMap("dark", "Dark"), tagNames);    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void addsPlainTagNamesDirectly() {
+        ThemeChangeProperties properties = new ThemeChangeProperties();
+        properties.getModelAndView().getTagNames().put("dark", "Dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        ExtendedModelMap model = new ExtendedModelMap();
+        new ThemeChangeModelAdvice(properties).addTagNames(model, MockServerWebExchange.from(MockServerHttpRequest.get("/pages/index")));    // $NON-NLS-1$
+        Assertions.assertEquals(properties.getModelAndView().getTagNames(), model.get(properties.getModelAndView().getViewAttribute()));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.reactive;
+
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import com.yookue.springstarter.themechange.support.ThemePathMatcher;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.reactive.ThemeChangeWebFilter}
+ *
+ * @author David Hsing
+ */
+class ThemeChangeWebFilterTest {
+    @Test
+    void switchesAllowedTheme() {
+        MockServerWebExchange exchange = filter(Collections.singleton("dark"), MockServerHttpRequest.get("/pages/index?theme=dark"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("dark", exchange.getResponse().getCookies().getFirst("theme").getValue());    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("dark", exchange.getAttribute(ServerThemeResolver.THEME_NAME_ATTRIBUTE));    // $NON-NLS-1$
+    }
+
+    @Test
+    void ignoresUnknownAndInvalidThemes() {
+        Assertions.assertTrue(filter(Collections.singleton("dark"), MockServerHttpRequest.get("/pages/index?theme=light")).getResponse().getCookies().isEmpty());    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertTrue(filter(Collections.emptySet(), MockServerHttpRequest.get("/pages/index?theme=../dark")).getResponse().getCookies().isEmpty());    // $NON-NLS-1$
+        Assertions.assertTrue(filter(Collections.emptySet(), MockServerHttpRequest.get("/pages/index")).getResponse().getCookies().isEmpty());    // $NON-NLS-1$
+    }
+
+    @Test
+    void ignoresExcludedPaths() {
+        MockServerWebExchange exchange = filter(Collections.singleton("dark"), MockServerHttpRequest.get("/static/app.css?theme=dark"));    // $NON-NLS-1$
+        Assertions.assertTrue(exchange.getResponse().getCookies().isEmpty());
+    }
+
+    @Test
+    void skipsCurrentTheme() {
+        MockServerWebExchange exchange = filter(Collections.singleton("dark"), MockServerHttpRequest.get("/pages/index?theme=dark").cookie(new HttpCookie("theme", "dark")));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        Assertions.assertTrue(exchange.getResponse().getCookies().isEmpty());
+    }
+
+    @Nonnull
+    private MockServerWebExchange filter(@Nonnull Set<String> allowedThemes, @Nonnull MockServerHttpRequest.BaseBuilder<?> request) {
+        ThemeChangeWebFilter filter = new ThemeChangeWebFilter(new CookieServerThemeResolver("theme"), allowedThemes, new ThemePathMatcher(null, Collections.singletonList("/static/**")));    // $NON-NLS-1$ // $NON-NLS-2$
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        AtomicBoolean chained = new AtomicBoolean(false);
+        filter.filter(exchange, chainExchange -> Mono.fromRunnable(() -> chained.set(true))).block();
+        Assertions.assertTrue(chained.get());
+        return exchange;
+    }
+}
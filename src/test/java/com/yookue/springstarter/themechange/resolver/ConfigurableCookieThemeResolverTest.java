@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.Cookie;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.resolver.ConfigurableCookieThemeResolver}
+ *
+ * @author David Hsing
+ */
+class ConfigurableCookieThemeResolverTest {
+    private final List<String> rejected = new ArrayList<>();
+
+    @Test
+    void writesCookieAttributes() {
+        ConfigurableCookieThemeResolver resolver = createResolver();
+        resolver.setCookieSameSite("Lax");    // $NON-NLS-1$
+        resolver.setCookieSecure(true);
+        resolver.setCookieHttpOnly(true);
+        resolver.setCookieMaxAge(3600);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resolver.setThemeName(new MockHttpServletRequest(), response, "dark");    // $NON-NLS-1$
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        Assertions.assertNotNull(header);
+        Assertions.assertTrue(header.startsWith("theme=dark"));    // $NON-NLS-1$
+        Assertions.assertTrue(header.contains("SameSite=Lax"));    // $NON-NLS-1$
+        Assertions.assertTrue(header.contains("Secure"));    // $NON-NLS-1$
+        Assertions.assertTrue(header.contains("HttpOnly"));    // $NON-NLS-1$
+        Assertions.assertTrue(header.contains("Max-Age=3600"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void removesCookieWithAttributes() {
+        ConfigurableCookieThemeResolver resolver = createResolver();
+        resolver.setCookieSameSite("Strict");    // $NON-NLS-1$
+        resolver.setCookieSecure(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resolver.setThemeName(createRequest("dark"), response, null);    // $NON-NLS-1$
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        Assertions.assertNotNull(header);
+        Assertions.assertTrue(header.startsWith("theme=;"));    // $NON-NLS-1$
+        Assertions.assertTrue(header.contains("Max-Age=0"));    // $NON-NLS-1$
+        Assertions.assertTrue(header.contains("SameSite=Strict"));    // $NON-NLS-1$
+        Assertions.assertTrue(header.contains("Secure"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void writesServletCookieWithoutSameSite() {
+        ConfigurableCookieThemeResolver resolver = createResolver();
+        resolver.setCookieSecure(true);
+        resolver.setCookieHttpOnly(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resolver.setThemeName(new MockHttpServletRequest(), response, "dark");    // $NON-NLS-1$
+        Cookie cookie = response.getCookie("theme");    // $NON-NLS-1$
+        Assertions.assertNotNull(cookie);
+        Assertions.assertEquals("dark", cookie.getValue());    // $NON-NLS-1$
+        Assertions.assertTrue(cookie.getSecure());
+        Assertions.assertTrue(cookie.isHttpOnly());
+    }
+
+    @Test
+    void skipsRedundantCookie() {
+        ConfigurableCookieThemeResolver resolver = createResolver();
+        resolver.setCookieSameSite("Lax");    // $NON-NLS-1$
+        MockHttpServletRequest request = createRequest("dark");    // $NON-NLS-1$
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resolver.setThemeName(request, response, "dark");    // $NON-NLS-1$
+        Assertions.assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+        Assertions.assertEquals("dark", resolver.resolveThemeName(request));    // $NON-NLS-1$
+        response = new MockHttpServletResponse();
+        resolver.setThemeName(new MockHttpServletRequest(), response, null);
+        Assertions.assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void rejectsInvalidCookies() {
+        ConfigurableCookieThemeResolver resolver = createResolver();
+        Assertions.assertEquals("dark", resolver.resolveThemeName(createRequest("dark")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("light", resolver.resolveThemeName(createRequest("neon")));    // $NON-NLS-1$ // $NON-NLS-2$
+        resolver.setAllowedThemes(Collections.emptySet());
+        Assertions.assertEquals("neon", resolver.resolveThemeName(createRequest("neon")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("light", resolver.resolveThemeName(createRequest("../neon")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(Arrays.asList(ThemeChangeRecorder.REJECT_INVALID_COOKIE, ThemeChangeRecorder.REJECT_INVALID_COOKIE), rejected);
+        resolver.setRejectInvalidCookies(false);
+        Assertions.assertEquals("../neon", resolver.resolveThemeName(createRequest("../neon")));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Nonnull
+    private ConfigurableCookieThemeResolver createResolver() {
+        ConfigurableCookieThemeResolver resolver = new ConfigurableCookieThemeResolver();
+        resolver.setCookieName("theme");    // $NON-NLS-1$
+        resolver.setDefaultThemeName("light");    // $NON-NLS-1$
+        resolver.setAllowedThemes(new LinkedHashSet<>(Arrays.asList("dark", "light")));    // $NON-NLS-1$ // $NON-NLS-2$
+        resolver.setRecorder(new ThemeChangeRecorder() {
+            @Override
+            public void recordThemeRejected(@Nullable String themeName, @Nonnull String reason) {
+                rejected.add(reason);
+            }
+        });
+        return resolver;
+    }
+
+    @Nonnull
+    private MockHttpServletRequest createRequest(@Nonnull String cookieValue) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("theme", cookieValue));    // $NON-NLS-1$
+        return request;
+    }
+}
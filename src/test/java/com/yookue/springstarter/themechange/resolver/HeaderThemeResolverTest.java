@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.Cookie;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.resolver.HeaderThemeResolver}
+ *
+ * @author David Hsing
+ */
+class HeaderThemeResolverTest {
+    private final List<String> rejected = new ArrayList<>();
+
+    @Test
+    void prefersHeaderOverCookie() {
+        HeaderThemeResolver resolver = createResolver();
+        MockHttpServletRequest request = createRequest(" dark ");    // $NON-NLS-1$
+        Assertions.assertEquals("dark", resolver.resolveThemeName(request));    // $NON-NLS-1$
+        request.removeHeader(HeaderThemeResolver.DEFAULT_HEADER_NAME);
+        Assertions.assertEquals("dark", resolver.resolveThemeName(request));    // $NON-NLS-1$
+    }
+
+    @Test
+    void fallsBackToCookieForUnknownHeader() {
+        HeaderThemeResolver resolver = createResolver();
+        Assertions.assertEquals("light", resolver.resolveThemeName(createRequest("neon")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(Collections.singletonList(ThemeChangeRecorder.REJECT_INVALID_HEADER), rejected);
+    }
+
+    @Test
+    void acceptsUnknownHeaderUnlessAllowedOnly() {
+        HeaderThemeResolver resolver = createResolver();
+        resolver.setAllowedOnly(false);
+        Assertions.assertEquals("neon", resolver.resolveThemeName(createRequest("neon")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("light", resolver.resolveThemeName(createRequest("../neon")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(Collections.singletonList(ThemeChangeRecorder.REJECT_INVALID_HEADER), rejected);
+    }
+
+    @Test
+    void usesDefaultThemeWithoutHeaderAndCookie() {
+        HeaderThemeResolver resolver = createResolver();
+        resolver.setDefaultThemeName("classic");    // $NON-NLS-1$
+        Assertions.assertEquals("classic", resolver.resolveThemeName(new MockHttpServletRequest()));    // $NON-NLS-1$
+    }
+
+    @Nonnull
+    private HeaderThemeResolver createResolver() {
+        HeaderThemeResolver resolver = new HeaderThemeResolver();
+        resolver.setCookieName("theme");    // $NON-NLS-1$
+        resolver.setAllowedThemes(new LinkedHashSet<>(Arrays.asList("dark", "light")));    // $NON-NLS-1$ // $NON-NLS-2$
+        resolver.setRecorder(new ThemeChangeRecorder() {
+            @Override
+            public void recordThemeRejected(@Nullable String themeName, @Nonnull String reason) {
+                rejected.add(reason);
+            }
+        });
+        return resolver;
+    }
+
+    @Nonnull
+    private MockHttpServletRequest createRequest(@Nonnull String headerValue) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HeaderThemeResolver.DEFAULT_HEADER_NAME, headerValue);
+        request.setCookies(new Cookie("theme", "light"));    // $NON-NLS-1$ // $NON-NLS-2$
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ThemeResolver;
+import org.springframework.web.servlet.theme.CookieThemeResolver;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.resolver.MemoizingThemeResolver}
+ *
+ * @author David Hsing
+ */
+class MemoizingThemeResolverTest {
+    @Test
+    void resolvesThemeNameOncePerRequest() {
+        CountingThemeResolver delegate = new CountingThemeResolver();
+        MemoizingThemeResolver resolver = new MemoizingThemeResolver(delegate);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Assertions.assertEquals("dark", resolver.resolveThemeName(request));    // $NON-NLS-1$
+        Assertions.assertEquals("dark", resolver.resolveThemeName(request));    // $NON-NLS-1$
+        Assertions.assertEquals("dark", MemoizingThemeResolver.getThemeName(request));    // $NON-NLS-1$
+        Assertions.assertEquals(1, delegate.resolveCount.get());
+        resolver.setThemeName(request, new MockHttpServletResponse(), "light");    // $NON-NLS-1$
+        resolver.resolveThemeName(request);
+        Assertions.assertEquals(2, delegate.resolveCount.get());
+    }
+
+    @Test
+    void leavesCookieResolverToItsOwnMemo() {
+        ConfigurableCookieThemeResolver cookieResolver = new ConfigurableCookieThemeResolver();
+        cookieResolver.setCookieName("theme");    // $NON-NLS-1$
+        cookieResolver.setDefaultThemeName("dark");    // $NON-NLS-1$
+        MemoizingThemeResolver resolver = new MemoizingThemeResolver(new RecordingThemeResolver(cookieResolver, new ThemeChangeRecorder() {
+        }));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Assertions.assertEquals("dark", resolver.resolveThemeName(request));    // $NON-NLS-1$
+        Assertions.assertNull(request.getAttribute(MemoizingThemeResolver.THEME_NAME_ATTRIBUTE));
+        Assertions.assertEquals("dark", request.getAttribute(CookieThemeResolver.THEME_REQUEST_ATTRIBUTE_NAME));    // $NON-NLS-1$
+    }
+
+
+    private static class CountingThemeResolver implements ThemeResolver {
+        private final AtomicInteger resolveCount = new AtomicInteger();
+        private String themeName = "dark";    // $NON-NLS-1$
+
+        @Nonnull
+        @Override
+        public String resolveThemeName(@Nonnull HttpServletRequest request) {
+            resolveCount.incrementAndGet();
+            return themeName;
+        }
+
+        @Override
+        public void setThemeName(@Nonnull HttpServletRequest request, @Nullable HttpServletResponse response, @Nullable String themeName) {
+            this.themeName = themeName;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.resolver;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.theme.FixedThemeResolver;
+import com.yookue.springstarter.themechange.support.ThemeChangeRecorder;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.resolver.RecordingThemeResolver}
+ *
+ * @author David Hsing
+ */
+class RecordingThemeResolverTest {
+    @Test
+    void recordsOncePerRequest() {
+        List<String> resolved = new ArrayList<>();
+        FixedThemeResolver delegate = new FixedThemeResolver();
+        delegate.setDefaultThemeName("dark");    // $NON-NLS-1$
+        RecordingThemeResolver resolver = new RecordingThemeResolver(delegate, new ThemeChangeRecorder() {
+            @Override
+            public void recordThemeResolved(@Nullable String themeName, long nanos) {
+                resolved.add(themeName);
+            }
+        });
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("dark", resolver.resolveThemeName(request));    // $NON-NLS-1$
+        }
+        resolver.resolveThemeName(new MockHttpServletRequest());
+        Assertions.assertEquals(2, resolved.size());
+    }
+}
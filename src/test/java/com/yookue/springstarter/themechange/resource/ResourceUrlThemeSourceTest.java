@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.resource;
+
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.support.SimpleTheme;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.resource.ResourceUrlThemeSource}
+ *
+ * @author David Hsing
+ */
+class ResourceUrlThemeSourceTest {
+    private final VersioningResourceResolver resourceResolver = new VersioningResourceResolver();
+    private final ResourceUrlProvider urlProvider = createUrlProvider(resourceResolver);
+    private final AtomicReference<Theme> sourceTheme = new AtomicReference<>(createTheme("/themes/dark.css"));    // $NON-NLS-1$
+
+    @Test
+    void rewritesAssetUrls() {
+        ResourceUrlThemeSource themeSource = new ResourceUrlThemeSource(this::getSourceTheme, "/themes/", () -> urlProvider);    // $NON-NLS-1$
+        Theme theme = themeSource.getTheme("dark");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("/themes/dark-v1.css", getMessage(theme, "stylesheet"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("Dark", getMessage(theme, "title"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("/themes/dark-v1.css", getMessage(theme, "stylesheet"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(1, resourceResolver.lookups.get());
+        Assertions.assertNull(themeSource.getTheme("missing"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void recomputesAfterClearCache() {
+        ResourceUrlThemeSource themeSource = new ResourceUrlThemeSource(this::getSourceTheme, "/themes/", () -> urlProvider);    // $NON-NLS-1$
+        Theme theme = themeSource.getTheme("dark");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        getMessage(theme, "stylesheet");    // $NON-NLS-1$
+        resourceResolver.version = "v2";    // $NON-NLS-1$
+        Assertions.assertEquals("/themes/dark-v1.css", getMessage(theme, "stylesheet"));    // $NON-NLS-1$ // $NON-NLS-2$
+        themeSource.clearCache();
+        Assertions.assertEquals("/themes/dark-v2.css", getMessage(theme, "stylesheet"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(2, resourceResolver.lookups.get());
+    }
+
+    @Test
+    void decoratesReloadedTheme() {
+        ResourceUrlThemeSource themeSource = new ResourceUrlThemeSource(this::getSourceTheme, "/themes/", () -> urlProvider);    // $NON-NLS-1$
+        Theme theme = themeSource.getTheme("dark");    // $NON-NLS-1$
+        Assertions.assertSame(theme, themeSource.getTheme("dark"));    // $NON-NLS-1$
+        sourceTheme.set(createTheme("/themes/night.css"));    // $NON-NLS-1$
+        Theme reloaded = themeSource.getTheme("dark");    // $NON-NLS-1$
+        Assertions.assertNotNull(reloaded);
+        Assertions.assertNotSame(theme, reloaded);
+        Assertions.assertEquals("/themes/night-v1.css", getMessage(reloaded, "stylesheet"));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void keepsUrlsWithoutProvider() {
+        AtomicReference<ResourceUrlProvider> provider = new AtomicReference<>();
+        ResourceUrlThemeSource themeSource = new ResourceUrlThemeSource(this::getSourceTheme, "/themes/", provider::get);    // $NON-NLS-1$
+        Theme theme = themeSource.getTheme("dark");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("/themes/dark.css", getMessage(theme, "stylesheet"));    // $NON-NLS-1$ // $NON-NLS-2$
+        // Not cached, so that the urls are versioned once the provider is available
+        provider.set(urlProvider);
+        Assertions.assertEquals("/themes/dark-v1.css", getMessage(theme, "stylesheet"));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void boundsDecoratedThemes() {
+        ResourceUrlThemeSource themeSource = new ResourceUrlThemeSource(themeName -> sourceTheme.get(), "/themes/", () -> urlProvider);    // $NON-NLS-1$
+        themeSource.setMaximumSize(8);
+        for (int i = 0; i < 64; i++) {
+            Assertions.assertNotNull(themeSource.getTheme("dark" + i));    // $NON-NLS-1$
+        }
+        Assertions.assertTrue(themeSource.getCacheSize() <= 8);
+        Assertions.assertSame(sourceTheme.get(), themeSource.getTheme("../dark"));    // $NON-NLS-1$
+        Assertions.assertTrue(themeSource.getCacheSize() <= 8);
+    }
+
+    @Nullable
+    private Theme getSourceTheme(@Nonnull String themeName) {
+        return "dark".equals(themeName) ? sourceTheme.get() : null;    // $NON-NLS-1$
+    }
+
+    @Nonnull
+    private static ResourceUrlProvider createUrlProvider(@Nonnull VersioningResourceResolver resolver) {
+        ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler();
+        handler.setResourceResolvers(Collections.singletonList(resolver));
+        ResourceUrlProvider result = new ResourceUrlProvider();
+        result.setHandlerMap(Collections.singletonMap("/themes/**", handler));    // $NON-NLS-1$
+        return result;
+    }
+
+    @Nonnull
+    private static Theme createTheme(@Nonnull String stylesheet) {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("stylesheet", Locale.ENGLISH, stylesheet);    // $NON-NLS-1$
+        messageSource.addMessage("title", Locale.ENGLISH, "Dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        return new SimpleTheme("dark", messageSource);    // $NON-NLS-1$
+    }
+
+    @Nullable
+    private static String getMessage(@Nonnull Theme theme, @Nonnull String code) {
+        return theme.getMessageSource().getMessage(code, null, null, Locale.ENGLISH);
+    }
+
+
+    /**
+     * {@link org.springframework.web.servlet.resource.ResourceResolver} that appends a version to the file names, and counts the lookups
+     */
+    private static final class VersioningResourceResolver extends AbstractResourceResolver {
+        private final AtomicInteger lookups = new AtomicInteger();
+        private volatile String version = "v1";    // $NON-NLS-1$
+
+        @Nullable
+        @Override
+        protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, @Nonnull String requestPath, @Nonnull List<? extends Resource> locations, @Nonnull ResourceResolverChain chain) {
+            return null;
+        }
+
+        @Nonnull
+        @Override
+        protected String resolveUrlPathInternal(@Nonnull String resourceUrlPath, @Nonnull List<? extends Resource> locations, @Nonnull ResourceResolverChain chain) {
+            lookups.incrementAndGet();
+            int index = resourceUrlPath.lastIndexOf('.');
+            return resourceUrlPath.substring(0, index) + '-' + version + resourceUrlPath.substring(index);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ui.context.Theme;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.source.CachingThemeSource}
+ *
+ * @author David Hsing
+ */
+class CachingThemeSourceTest {
+    @TempDir
+    Path directory;
+
+    private URLClassLoader classLoader;
+
+    @BeforeEach
+    void createClassLoader() throws IOException {
+        classLoader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, null);
+    }
+
+    @AfterEach
+    void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @Test
+    void cachesLoadedTheme() throws IOException {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        CachingThemeSource source = createSource();
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertSame(theme, source.getTheme("blue"));    // $NON-NLS-1$
+        Assertions.assertEquals(1L, source.getMissCount());
+        Assertions.assertEquals(1L, source.getHitCount());
+        Assertions.assertNull(source.getTheme("../blue"));    // $NON-NLS-1$
+        Assertions.assertEquals(1L, source.getMissCount());
+    }
+
+    @Test
+    void probesSupportedLocales() throws IOException {
+        writeFile("blue_fr.properties", "color=bleu");    // $NON-NLS-1$ // $NON-NLS-2$
+        CachingThemeSource source = createSource();
+        source.setSupportedLocales(Arrays.asList(Locale.ENGLISH, Locale.CANADA_FRENCH));
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("bleu", theme.getMessageSource().getMessage("color", null, Locale.FRENCH));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void keepsMissingThemesApart() throws IOException {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        CachingThemeSource source = createSource();
+        source.setMaximumSize(2);
+        source.setNegativeMaximumSize(8);
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        for (int i = 0; i < 32; i++) {
+            Assertions.assertNull(source.getTheme("junk" + i));    // $NON-NLS-1$
+        }
+        Assertions.assertSame(theme, source.getTheme("blue"));    // $NON-NLS-1$
+        Assertions.assertTrue(source.getCacheSize() <= 9);
+        long misses = source.getMissCount();
+        Assertions.assertNull(source.getTheme("junk31"));    // $NON-NLS-1$
+        Assertions.assertEquals(misses, source.getMissCount());
+    }
+
+    @Test
+    void loadsMissingThemeWithoutNegativeCaching() throws IOException {
+        CachingThemeSource source = createSource();
+        source.setNegativeCaching(false);
+        Assertions.assertNull(source.getTheme("blue"));    // $NON-NLS-1$
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNotNull(source.getTheme("blue"));    // $NON-NLS-1$
+    }
+
+    @Nonnull
+    private CachingThemeSource createSource() {
+        CachingThemeSource source = new CachingThemeSource();
+        source.setBeanClassLoader(classLoader);
+        source.setSupportedLocales(Collections.singletonList(Locale.ENGLISH));
+        return source;
+    }
+
+    private void writeFile(@Nonnull String fileName, @Nonnull String content) throws IOException {
+        Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.source.CompactThemeMessageSource}
+ *
+ * @author David Hsing
+ */
+class CompactThemeMessageSourceTest {
+    private final AtomicInteger loadCount = new AtomicInteger();
+    private MessageKeyIndex keyIndex;
+    private CompactThemeMessageSource messageSource;
+
+    @BeforeEach
+    void createMessageSource() {
+        keyIndex = new MessageKeyIndex();
+        keyIndex.register("unused");    // $NON-NLS-1$
+        messageSource = new CompactThemeMessageSource("blue", keyIndex, locale -> {    // $NON-NLS-1$
+            loadCount.incrementAndGet();
+            String[] values = new String[3];
+            values[keyIndex.register("color")] = Locale.FRENCH.equals(locale) ? "bleu" : "blue";    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+            values[keyIndex.register("greeting")] = "Hello {0}";    // $NON-NLS-1$ // $NON-NLS-2$
+            return values;
+        });
+    }
+
+    @Test
+    void resolvesMessages() {
+        Assertions.assertEquals("blue", messageSource.getMessage("color", null, Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("bleu", messageSource.getMessage("color", null, Locale.FRENCH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("Hello world", messageSource.getMessage("greeting", new Object[] {"world"}, Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        Assertions.assertEquals("fallback", messageSource.getMessage("unused", null, "fallback", Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("fallback", messageSource.getMessage("unknown", null, "fallback", Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    void listsMessageCodes() {
+        Assertions.assertEquals(2, messageSource.getMessageCodes(Locale.ENGLISH).size());
+        Assertions.assertTrue(messageSource.getMessageCodes(Locale.ENGLISH).contains("greeting"));    // $NON-NLS-1$
+        Assertions.assertFalse(messageSource.getMessageCodes(Locale.ENGLISH).contains("unused"));    // $NON-NLS-1$
+        Assertions.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void boundsCachedLocales() {
+        for (int i = 0; i < 100; i++) {
+            messageSource.getMessage("color", null, new Locale("x" + i));    // $NON-NLS-1$ // $NON-NLS-2$
+        }
+        Assertions.assertEquals(100, loadCount.get());
+        messageSource.getMessage("color", null, new Locale("x0"));    // $NON-NLS-1$ // $NON-NLS-2$
+        messageSource.getMessage("color", null, new Locale("x99"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(101, loadCount.get());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.SimpleTheme;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.source.CompactThemeSource}
+ *
+ * @author David Hsing
+ */
+class CompactThemeSourceTest {
+    @TempDir
+    Path directory;
+
+    private URLClassLoader classLoader;
+
+    @BeforeEach
+    void createClassLoader() throws IOException {
+        classLoader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, null);
+    }
+
+    @AfterEach
+    void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @Test
+    void overlaysLocaleFiles() throws IOException {
+        writeFile("blue.properties", "color=blue\nlogo=/logo.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        writeFile("blue_fr.properties", "color=bleu");    // $NON-NLS-1$ // $NON-NLS-2$
+        CompactThemeSource source = createSource();
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertSame(theme, source.getTheme("blue"));    // $NON-NLS-1$
+        Assertions.assertEquals("bleu", theme.getMessageSource().getMessage("color", null, Locale.FRANCE));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("/logo.png", theme.getMessageSource().getMessage("logo", null, Locale.FRANCE));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("blue", theme.getMessageSource().getMessage("color", null, Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNull(source.getTheme("../blue"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void probesSupportedLocales() throws IOException {
+        writeFile("blue_fr.properties", "color=bleu");    // $NON-NLS-1$ // $NON-NLS-2$
+        CompactThemeSource source = createSource();
+        Assertions.assertNull(source.getTheme("green"));    // $NON-NLS-1$
+        source.setSupportedLocales(Arrays.asList(Locale.ENGLISH, Locale.CANADA_FRENCH));
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("bleu", theme.getMessageSource().getMessage("color", null, Locale.FRENCH));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void sharesCodesAcrossThemes() throws IOException {
+        writeFile("blue.properties", "color=blue\nlogo=/logo.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        writeFile("green.properties", "color=green\nlogo=/logo.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        CompactThemeSource source = createSource();
+        Theme blue = source.getTheme("blue");    // $NON-NLS-1$
+        Theme green = source.getTheme("green");    // $NON-NLS-1$
+        Assertions.assertNotNull(blue);
+        Assertions.assertNotNull(green);
+        Assertions.assertEquals("blue", blue.getMessageSource().getMessage("color", null, Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("green", green.getMessageSource().getMessage("color", null, Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(2, source.getKeyIndex().size());
+    }
+
+    @Test
+    void inheritsParentTheme() throws IOException {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        StaticMessageSource parentMessages = new StaticMessageSource();
+        parentMessages.addMessage("logo", Locale.ENGLISH, "/parent.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        Theme parentTheme = new SimpleTheme("blue", parentMessages);    // $NON-NLS-1$
+        ThemeSource parent = themeName -> "blue".equals(themeName) ? parentTheme : null;    // $NON-NLS-1$
+        CompactThemeSource source = createSource();
+        source.setParentThemeSource(parent);
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("/parent.png", theme.getMessageSource().getMessage("logo", null, Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNull(source.getTheme("green"));    // $NON-NLS-1$
+    }
+
+    @Nonnull
+    private CompactThemeSource createSource() {
+        CompactThemeSource source = new CompactThemeSource();
+        source.setBeanClassLoader(classLoader);
+        source.setFallbackToSystemLocale(false);
+        source.setSupportedLocales(Collections.singletonList(Locale.ENGLISH));
+        return source;
+    }
+
+    private void writeFile(@Nonnull String fileName, @Nonnull String content) throws IOException {
+        Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
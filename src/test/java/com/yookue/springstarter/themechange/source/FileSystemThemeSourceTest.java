@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ui.context.Theme;
+import com.yookue.springstarter.themechange.resource.ResourceUrlThemeSource;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.source.FileSystemThemeSource}
+ *
+ * @author David Hsing
+ */
+class FileSystemThemeSourceTest {
+    private static final long WATCH_TIMEOUT_MILLIS = 10_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsThemeOfLocale() throws Exception {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        writeFile("blue_fr.properties", "color=bleu");    // $NON-NLS-1$ // $NON-NLS-2$
+        FileSystemThemeSource source = createSource(false);
+        source.afterPropertiesSet();
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("blue", getMessage(theme, Locale.ENGLISH));    // $NON-NLS-1$
+        Assertions.assertEquals("bleu", getMessage(theme, Locale.FRENCH));    // $NON-NLS-1$
+    }
+
+    @Test
+    void resolvesUnknownThemeFromIndex() throws Exception {
+        writeFile("blue_dark.properties", "color=navy");    // $NON-NLS-1$ // $NON-NLS-2$
+        FileSystemThemeSource source = createSource(false);
+        source.afterPropertiesSet();
+        Assertions.assertNotNull(source.getTheme("blue_dark"));    // $NON-NLS-1$
+        Assertions.assertNotNull(source.getTheme("blue"));    // $NON-NLS-1$
+        Assertions.assertNull(source.getTheme("../blue"));    // $NON-NLS-1$
+        // Not indexed yet, so the directory is not listed for it
+        writeFile("red.properties", "color=red");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNull(source.getTheme("red"));    // $NON-NLS-1$
+        source.refreshThemes();
+        Theme theme = source.getTheme("red");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("red", getMessage(theme, Locale.ENGLISH));    // $NON-NLS-1$
+    }
+
+    @Test
+    void reloadsChangedTheme() throws Exception {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        FileSystemThemeSource source = createSource(true);
+        source.afterPropertiesSet();
+        try {
+            Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+            Assertions.assertNotNull(theme);
+            writeFile("blue.properties", "color=azure");    // $NON-NLS-1$ // $NON-NLS-2$
+            writeFile("red.properties", "color=red");    // $NON-NLS-1$ // $NON-NLS-2$
+            awaitMessage(source, "blue", "azure");    // $NON-NLS-1$ // $NON-NLS-2$
+            Assertions.assertSame(theme, source.getTheme("blue"));    // $NON-NLS-1$
+            awaitMessage(source, "red", "red");    // $NON-NLS-1$ // $NON-NLS-2$
+        } finally {
+            source.destroy();
+        }
+    }
+
+    @Test
+    void watchesWhenWrapped() throws Exception {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        FileSystemThemeSource source = createSource(true);
+        ResourceUrlThemeSource wrapper = new ResourceUrlThemeSource(source, "/themes/", () -> null);    // $NON-NLS-1$
+        wrapper.afterPropertiesSet();
+        try {
+            Assertions.assertNotNull(wrapper.getTheme("blue"));    // $NON-NLS-1$
+            writeFile("blue.properties", "color=azure");    // $NON-NLS-1$ // $NON-NLS-2$
+            awaitMessage(source, "blue", "azure");    // $NON-NLS-1$ // $NON-NLS-2$
+        } finally {
+            wrapper.destroy();
+        }
+    }
+
+    @Test
+    void failsOnMissingDirectory() {
+        FileSystemThemeSource source = new FileSystemThemeSource(directory.resolve("missing"));    // $NON-NLS-1$
+        ResourceUrlThemeSource wrapper = new ResourceUrlThemeSource(source, "/themes/", () -> null);    // $NON-NLS-1$
+        Assertions.assertThrows(IllegalStateException.class, wrapper::afterPropertiesSet);
+    }
+
+    @Nonnull
+    private FileSystemThemeSource createSource(boolean watchEnabled) {
+        FileSystemThemeSource source = new FileSystemThemeSource(directory);
+        source.setWatchEnabled(watchEnabled);
+        source.setWatchDelayMillis(50L);
+        return source;
+    }
+
+    private void writeFile(@Nonnull String fileName, @Nonnull String content) throws IOException {
+        Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String getMessage(@Nonnull Theme theme, @Nonnull Locale locale) {
+        return theme.getMessageSource().getMessage("color", null, null, locale);    // $NON-NLS-1$
+    }
+
+    private void awaitMessage(@Nonnull FileSystemThemeSource source, @Nonnull String themeName, @Nonnull String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Theme theme = source.getTheme(themeName);
+            if (theme != null && expected.equals(getMessage(theme, Locale.ENGLISH))) {
+                return;
+            }
+            Thread.sleep(50L);
+        }
+        Assertions.fail(String.format("Theme '%s' was not reloaded", themeName));
+    }
+}
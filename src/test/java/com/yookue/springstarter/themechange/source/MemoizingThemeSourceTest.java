@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.ResolvableType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.SimpleTheme;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.servlet.theme.FixedThemeResolver;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.source.MemoizingThemeSource}
+ *
+ * @author David Hsing
+ */
+class MemoizingThemeSourceTest {
+    private final CountingThemeSource delegate = new CountingThemeSource();
+    private final MemoizingThemeSource themeSource = new MemoizingThemeSource(delegate);
+
+    @AfterEach
+    void resetRequestAttributes() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void memoizesSpringLookupsPerRequest() {
+        MockHttpServletRequest request = createRequest("dark");    // $NON-NLS-1$
+        Theme theme = RequestContextUtils.getTheme(request);
+        Assertions.assertNotNull(theme);
+        Assertions.assertSame(theme, RequestContextUtils.getTheme(request));
+        Assertions.assertSame(theme, themeSource.getTheme("dark"));    // $NON-NLS-1$
+        Assertions.assertEquals(1, delegate.lookupCount.get());
+        Assertions.assertEquals("light", themeSource.getTheme("light").getName());    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(2, delegate.lookupCount.get());
+        RequestContextUtils.getTheme(createRequest("dark"));    // $NON-NLS-1$
+        Assertions.assertEquals(3, delegate.lookupCount.get());
+    }
+
+    @Test
+    void passesThroughOutsideOfRequests() {
+        themeSource.getTheme("dark");    // $NON-NLS-1$
+        themeSource.getTheme("dark");    // $NON-NLS-1$
+        Assertions.assertEquals(2, delegate.lookupCount.get());
+    }
+
+    @Test
+    void passesThroughApplicationEvents() {
+        Assertions.assertTrue(themeSource.supportsEventType(ResolvableType.forClass(ContextRefreshedEvent.class)));
+        Assertions.assertFalse(themeSource.supportsEventType(ResolvableType.forClass(ContextClosedEvent.class)));
+        themeSource.onApplicationEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+        Assertions.assertEquals(1, delegate.refreshCount.get());
+        Assertions.assertFalse(new MemoizingThemeSource(name -> null).supportsEventType(ResolvableType.forClass(ContextRefreshedEvent.class)));
+    }
+
+    @Nonnull
+    private MockHttpServletRequest createRequest(@Nonnull String themeName) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        FixedThemeResolver themeResolver = new FixedThemeResolver();
+        themeResolver.setDefaultThemeName(themeName);
+        request.setAttribute(DispatcherServlet.THEME_RESOLVER_ATTRIBUTE, themeResolver);
+        request.setAttribute(DispatcherServlet.THEME_SOURCE_ATTRIBUTE, themeSource);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
+
+
+    private static class CountingThemeSource implements ThemeSource, ApplicationListener<ContextRefreshedEvent> {
+        private final AtomicInteger lookupCount = new AtomicInteger();
+        private final AtomicInteger refreshCount = new AtomicInteger();
+
+        @Nullable
+        @Override
+        public Theme getTheme(@Nonnull String themeName) {
+            lookupCount.incrementAndGet();
+            return new SimpleTheme(themeName, new StaticMessageSource());
+        }
+
+        @Override
+        public void onApplicationEvent(@Nonnull ContextRefreshedEvent event) {
+            refreshCount.incrementAndGet();
+        }
+    }
+}
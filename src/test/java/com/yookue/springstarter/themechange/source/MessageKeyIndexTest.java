@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.source.MessageKeyIndex}
+ *
+ * @author David Hsing
+ */
+class MessageKeyIndexTest {
+    @Test
+    void registersStablePositions() {
+        MessageKeyIndex keyIndex = new MessageKeyIndex();
+        Assertions.assertEquals(-1, keyIndex.indexOf("color"));    // $NON-NLS-1$
+        Assertions.assertEquals(-1, keyIndex.indexOf(null));
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i, keyIndex.register("code" + i));    // $NON-NLS-1$
+        }
+        Assertions.assertEquals(1000, keyIndex.size());
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i, keyIndex.register("code" + i));    // $NON-NLS-1$
+            Assertions.assertEquals(i, keyIndex.indexOf("code" + i));    // $NON-NLS-1$
+            Assertions.assertEquals("code" + i, keyIndex.codeAt(i));    // $NON-NLS-1$
+        }
+        Assertions.assertEquals(1000, keyIndex.size());
+    }
+
+    @Test
+    void registersConcurrently() throws Exception {
+        MessageKeyIndex keyIndex = new MessageKeyIndex();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        int position = keyIndex.register("code" + i);    // $NON-NLS-1$
+                        Assertions.assertEquals("code" + i, keyIndex.codeAt(position));    // $NON-NLS-1$
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(500, keyIndex.size());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.support.SimpleTheme;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.source.PrecomputedThemeSource}
+ *
+ * @author David Hsing
+ */
+class PrecomputedThemeSourceTest {
+    @TempDir
+    Path directory;
+
+    private URLClassLoader classLoader;
+
+    @BeforeEach
+    void createClassLoader() throws IOException {
+        classLoader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, null);
+    }
+
+    @AfterEach
+    void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @Test
+    void precomputesAfterClassLoaderIsSet() throws IOException {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        PrecomputedThemeSource source = new PrecomputedThemeSource();
+        source.setThemeNames(Collections.singletonList("blue"));    // $NON-NLS-1$
+        source.setSupportedLocales(Collections.singletonList(Locale.ENGLISH));
+        source.setBeanClassLoader(classLoader);
+        Assertions.assertNull(source.getTheme("blue"));    // $NON-NLS-1$
+        source.afterPropertiesSet();
+        Assertions.assertNotNull(source.getTheme("blue"));    // $NON-NLS-1$
+        Assertions.assertNull(source.getTheme("green"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void negotiatesLocales() throws IOException {
+        writeFile("blue.properties", "color=blue\nlogo=/blue.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        writeFile("blue_fr.properties", "color=bleu");    // $NON-NLS-1$ // $NON-NLS-2$
+        writeFile("blue_fr_CA.properties", "color=bleu-ca");    // $NON-NLS-1$ // $NON-NLS-2$
+        PrecomputedThemeSource source = createSource(Arrays.asList(Locale.ENGLISH, Locale.CANADA_FRENCH, Locale.FRENCH), "blue");    // $NON-NLS-1$
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("bleu-ca", getMessage(theme, "color", Locale.CANADA_FRENCH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("bleu", getMessage(theme, "color", Locale.FRANCE));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("blue", getMessage(theme, "color", Locale.GERMANY));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("blue", getMessage(theme, "color", Locale.ROOT));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("/blue.png", getMessage(theme, "logo", Locale.CANADA_FRENCH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(Arrays.asList(Locale.ENGLISH, Locale.CANADA_FRENCH, Locale.FRENCH), Arrays.asList(((PrecomputedThemeMessageSource) theme.getMessageSource()).getSupportedLocales().toArray()));
+    }
+
+    @Test
+    void inheritsParentThemes() throws IOException {
+        writeFile("blue.properties", "color=blue\nlogo=/blue.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        writeFile("navy.properties", "color=navy");    // $NON-NLS-1$ // $NON-NLS-2$
+        PrecomputedThemeSource source = new PrecomputedThemeSource();
+        Map<String, String> parents = new LinkedHashMap<>();
+        parents.put("navy", "blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        parents.put("night", "navy");    // $NON-NLS-1$ // $NON-NLS-2$
+        source.setParentThemes(parents);
+        initSource(source, Collections.singletonList(Locale.ENGLISH), "navy", "night");    // $NON-NLS-1$ // $NON-NLS-2$
+        Theme navy = source.getTheme("navy");    // $NON-NLS-1$
+        Theme night = source.getTheme("night");    // $NON-NLS-1$
+        Assertions.assertNotNull(navy);
+        Assertions.assertNotNull(night);
+        Assertions.assertEquals("navy", getMessage(navy, "color", Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("/blue.png", getMessage(navy, "logo", Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("navy", getMessage(night, "color", Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNotNull(source.getTheme("blue"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void rejectsCyclicParents() throws IOException {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        PrecomputedThemeSource source = new PrecomputedThemeSource();
+        Map<String, String> parents = new LinkedHashMap<>();
+        parents.put("blue", "navy");    // $NON-NLS-1$ // $NON-NLS-2$
+        parents.put("navy", "blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        source.setParentThemes(parents);
+        source.setThemeNames(Collections.singletonList("blue"));    // $NON-NLS-1$
+        source.setBeanClassLoader(classLoader);
+        Assertions.assertThrows(IllegalStateException.class, source::afterPropertiesSet);
+    }
+
+    @Test
+    void delegatesUnknownThemes() throws IOException {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        StaticMessageSource parentMessages = new StaticMessageSource();
+        parentMessages.addMessage("logo", Locale.ENGLISH, "/parent.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        Theme parentBlue = new SimpleTheme("blue", parentMessages);    // $NON-NLS-1$
+        Theme parentGreen = new SimpleTheme("green", parentMessages);    // $NON-NLS-1$
+        PrecomputedThemeSource source = createSource(Collections.singletonList(Locale.ENGLISH), "blue");    // $NON-NLS-1$
+        source.setParentThemeSource(themeName -> "blue".equals(themeName) ? parentBlue : ("green".equals(themeName) ? parentGreen : null));    // $NON-NLS-1$ // $NON-NLS-2$
+        Theme theme = source.getTheme("blue");    // $NON-NLS-1$
+        Assertions.assertNotNull(theme);
+        Assertions.assertEquals("/parent.png", getMessage(theme, "logo", Locale.ENGLISH));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertSame(parentGreen, source.getTheme("green"));    // $NON-NLS-1$
+    }
+
+    @Nonnull
+    private PrecomputedThemeSource createSource(@Nonnull List<Locale> locales, @Nonnull String... themeNames) {
+        PrecomputedThemeSource source = new PrecomputedThemeSource();
+        initSource(source, locales, themeNames);
+        return source;
+    }
+
+    private void initSource(@Nonnull PrecomputedThemeSource source, @Nonnull List<Locale> locales, @Nonnull String... themeNames) {
+        source.setThemeNames(Arrays.asList(themeNames));
+        source.setSupportedLocales(locales);
+        source.setFallbackToSystemLocale(false);
+        source.setBeanClassLoader(classLoader);
+        source.afterPropertiesSet();
+    }
+
+    @Nonnull
+    private static String getMessage(@Nonnull Theme theme, @Nonnull String code, @Nonnull Locale locale) {
+        return theme.getMessageSource().getMessage(code, null, locale);
+    }
+
+    private void writeFile(@Nonnull String fileName, @Nonnull String content) throws IOException {
+        Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
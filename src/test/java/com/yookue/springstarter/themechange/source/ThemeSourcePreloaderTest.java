@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.source;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.ui.context.support.SimpleTheme;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.source.ThemeSourcePreloader}
+ *
+ * @author David Hsing
+ */
+class ThemeSourcePreloaderTest {
+    @Test
+    void preloadsEveryThemeAndLocale() {
+        Set<String> loaded = ConcurrentHashMap.newKeySet();
+        ThemeSourcePreloader preloader = new ThemeSourcePreloader(themeName -> {
+            loaded.add(themeName);
+            return new SimpleTheme(themeName, new StaticMessageSource());
+        });
+        preloader.setThemeNames(Arrays.asList("dark", "light"));    // $NON-NLS-1$ // $NON-NLS-2$
+        preloader.setLocales(Arrays.asList(Locale.ENGLISH, Locale.FRENCH));
+        Assertions.assertEquals(0, preloader.preload());
+        Assertions.assertEquals(2, loaded.size());
+    }
+
+    @Test
+    void countsMissingThemes() {
+        ThemeSourcePreloader preloader = new ThemeSourcePreloader(themeName -> "dark".equals(themeName) ? new SimpleTheme(themeName, new StaticMessageSource()) : null);    // $NON-NLS-1$
+        preloader.setThemeNames(Arrays.asList("dark", "missing"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(1, preloader.preload());
+    }
+
+    @Test
+    void failsFastOnMissingThemes() {
+        ThemeSourcePreloader preloader = new ThemeSourcePreloader(themeName -> null);
+        preloader.setThemeNames(Collections.singletonList("missing"));    // $NON-NLS-1$
+        preloader.setFailFast(true);
+        IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, preloader::preload);
+        Assertions.assertTrue(ex.getMessage().contains("missing"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void failsFastOnTimeout() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        ThemeSourcePreloader preloader = new ThemeSourcePreloader(themeName -> {
+            try {
+                latch.await(10L, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return new SimpleTheme(themeName, new StaticMessageSource());
+        });
+        preloader.setThemeNames(Collections.singletonList("slow"));    // $NON-NLS-1$
+        preloader.setTimeoutMillis(50L);
+        try {
+            Assertions.assertEquals(1, preloader.preload());
+            preloader.setFailFast(true);
+            IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, preloader::preload);
+            Assertions.assertTrue(ex.getMessage().contains("timed out"));    // $NON-NLS-1$
+        } finally {
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.time.Duration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.support.AccessOrderedCache}
+ *
+ * @author David Hsing
+ */
+class AccessOrderedCacheTest {
+    @Test
+    void evictsLeastRecentlyUsedEntriesInBatch() throws InterruptedException {
+        AccessOrderedCache<Integer, String> cache = new AccessOrderedCache<>(16);
+        for (int i = 0; i < 16; i++) {
+            cache.put(i, "v" + i, null);    // $NON-NLS-1$
+            Thread.sleep(2L);
+        }
+        Assertions.assertEquals("v0", cache.get(0));    // $NON-NLS-1$
+        Thread.sleep(2L);
+        cache.put(16, "v16", null);    // $NON-NLS-1$
+        Assertions.assertEquals(14, cache.size());
+        Assertions.assertNotNull(cache.get(0));
+        Assertions.assertNotNull(cache.get(16));
+        Assertions.assertNull(cache.get(1));
+        Assertions.assertNull(cache.get(2));
+        Assertions.assertNull(cache.get(3));
+        Assertions.assertNotNull(cache.get(4));
+    }
+
+    @Test
+    void expiresEntries() throws InterruptedException {
+        AccessOrderedCache<String, String> cache = new AccessOrderedCache<>(4);
+        cache.put("a", "1", Duration.ofMillis(20L));    // $NON-NLS-1$ // $NON-NLS-2$
+        cache.put("b", "2", null);    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("1", cache.get("a"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Thread.sleep(40L);
+        Assertions.assertNull(cache.get("a"));    // $NON-NLS-1$
+        Assertions.assertEquals("2", cache.get("b"));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void removesOnlyExpectedValue() {
+        AccessOrderedCache<String, String> cache = new AccessOrderedCache<>(4);
+        cache.put("a", "1", null);    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertFalse(cache.remove("a", "2"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertTrue(cache.remove("a", cache.get("a")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertFalse(new AccessOrderedCache<String, String>(0).put("a", "1", null));    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.ResourceBundleThemeSource;
+import com.yookue.springstarter.themechange.property.ThemeChangeProperties;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.support.ThemeChangeValidator}
+ *
+ * @author David Hsing
+ */
+class ThemeChangeValidatorTest {
+    @TempDir
+    Path directory;
+
+    private URLClassLoader classLoader;
+    private ResourceBundleThemeSource themeSource;
+
+    @BeforeEach
+    void createThemeSource() throws IOException {
+        classLoader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, null);
+        themeSource = new ResourceBundleThemeSource();
+        themeSource.setBeanClassLoader(classLoader);
+    }
+
+    @AfterEach
+    void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @Test
+    void acceptsConsistentThemes() throws IOException {
+        writeFile("blue.properties", "color=blue\nlogo=/blue.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        writeFile("green.properties", "color=green\nlogo=/green.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        ThemeChangeValidator validator = createValidator(themeSource, "blue", "green");    // $NON-NLS-1$ // $NON-NLS-2$
+        validator.setFailFast(true);
+        validator.afterSingletonsInstantiated();
+        Assertions.assertTrue(validator.getProblems().isEmpty());
+    }
+
+    @Test
+    void reportsMissingKeys() throws IOException {
+        writeFile("blue.properties", "color=blue\nlogo=/blue.png");    // $NON-NLS-1$ // $NON-NLS-2$
+        writeFile("green.properties", "color=green");    // $NON-NLS-1$ // $NON-NLS-2$
+        ThemeChangeValidator validator = createValidator(themeSource, "blue", "green");    // $NON-NLS-1$ // $NON-NLS-2$
+        validator.afterSingletonsInstantiated();
+        Assertions.assertEquals(Collections.singletonList("Theme 'green' is missing key(s) [logo]"), validator.getProblems());    // $NON-NLS-1$
+        validator.setCheckKeys(false);
+        Assertions.assertTrue(validator.validate().isEmpty());
+    }
+
+    @Test
+    void reportsMissingThemes() throws IOException {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        ThemeChangeValidator validator = createValidator(themeSource, "blue", "red");    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(Collections.singletonList("Theme 'red' has no messages, check the basename prefix"), validator.validate());    // $NON-NLS-1$
+        validator = createValidator(themeName -> null, "blue");    // $NON-NLS-1$
+        Assertions.assertEquals(Collections.singletonList("Theme 'blue' is not found in the theme source"), validator.validate());    // $NON-NLS-1$
+    }
+
+    @Test
+    void failsFastOnProblems() throws IOException {
+        writeFile("blue.properties", "color=blue");    // $NON-NLS-1$ // $NON-NLS-2$
+        ThemeChangeValidator validator = createValidator(themeSource, "blue", "red");    // $NON-NLS-1$ // $NON-NLS-2$
+        validator.setFailFast(true);
+        IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class, validator::afterSingletonsInstantiated);
+        Assertions.assertTrue(ex.getMessage().contains("Theme 'red'"));    // $NON-NLS-1$
+    }
+
+    @Nonnull
+    private ThemeChangeValidator createValidator(@Nonnull ThemeSource source, @Nonnull String... themes) {
+        ThemeChangeProperties properties = new ThemeChangeProperties();
+        properties.getThemeInterceptor().setAllowedThemes(Arrays.asList(themes));
+        ThemeChangeValidator validator = new ThemeChangeValidator(ThemeChangeSnapshot.of(properties), source);
+        validator.setBeanClassLoader(classLoader);
+        return validator;
+    }
+
+    private void writeFile(@Nonnull String fileName, @Nonnull String content) throws IOException {
+        Files.write(directory.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.i18n.SimpleTimeZoneAwareLocaleContext;
+import org.springframework.context.i18n.TimeZoneAwareLocaleContext;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.support.ThemeContextTaskDecorator}
+ *
+ * @author David Hsing
+ */
+class ThemeContextTaskDecoratorTest {
+    private final ThemeContextTaskDecorator decorator = new ThemeContextTaskDecorator();
+
+    @AfterEach
+    void resetContexts() {
+        ThemeContextHolder.resetThemeContext();
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    void capturesLocaleSnapshot() {
+        AtomicReference<Locale> requestLocale = new AtomicReference<>(Locale.FRENCH);
+        LocaleContextHolder.setLocaleContext(requestLocale::get);
+        ThemeContextHolder.setThemeContext(new ThemeContext("dark", null, Locale.FRENCH));    // $NON-NLS-1$
+        AtomicReference<Locale> taskLocale = new AtomicReference<>();
+        AtomicReference<String> taskTheme = new AtomicReference<>();
+        Runnable task = decorator.decorate(() -> {
+            taskLocale.set(LocaleContextHolder.getLocale());
+            taskTheme.set(ThemeContextHolder.getThemeName());
+        });
+        // The request resolves another locale, or has been recycled, before the task runs
+        requestLocale.set(Locale.GERMAN);
+        resetContexts();
+        task.run();
+        Assertions.assertEquals(Locale.FRENCH, taskLocale.get());
+        Assertions.assertEquals("dark", taskTheme.get());    // $NON-NLS-1$
+        Assertions.assertNull(LocaleContextHolder.getLocaleContext());
+        Assertions.assertNull(ThemeContextHolder.getBoundThemeContext());
+    }
+
+    @Test
+    void keepsTimeZone() {
+        TimeZone timeZone = TimeZone.getTimeZone("Asia/Shanghai");    // $NON-NLS-1$
+        LocaleContextHolder.setLocaleContext(new SimpleTimeZoneAwareLocaleContext(Locale.CHINA, timeZone));
+        AtomicReference<LocaleContext> taskContext = new AtomicReference<>();
+        Runnable task = decorator.decorate(() -> taskContext.set(LocaleContextHolder.getLocaleContext()));
+        resetContexts();
+        task.run();
+        Assertions.assertTrue(taskContext.get() instanceof TimeZoneAwareLocaleContext);
+        Assertions.assertEquals(timeZone, ((TimeZoneAwareLocaleContext) taskContext.get()).getTimeZone());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.support.ThemePathMatcher}
+ *
+ * @author David Hsing
+ */
+class ThemePathMatcherTest {
+    @Test
+    void matchesPathPatterns() {
+        ThemePathMatcher matcher = new ThemePathMatcher(Collections.singletonList("/pages/**"), Arrays.asList("/pages/static/**", "/pages/*.json"));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        Assertions.assertTrue(matcher.matches("/pages/index"));    // $NON-NLS-1$
+        Assertions.assertFalse(matcher.matches("/pages/static/app.css"));    // $NON-NLS-1$
+        Assertions.assertFalse(matcher.matches("/pages/data.json"));    // $NON-NLS-1$
+        Assertions.assertFalse(matcher.matches("/api/index"));    // $NON-NLS-1$
+    }
+
+    @Test
+    void matchesAntPatternsOfServerRequests() {
+        ThemePathMatcher matcher = new ThemePathMatcher(Collections.singletonList("/**/*.html"), Collections.singletonList("/**/admin/**"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertTrue(matcher.matches(PathContainer.parsePath("/pages/index.html")));    // $NON-NLS-1$
+        Assertions.assertFalse(matcher.matches(PathContainer.parsePath("/pages/admin/index.html")));    // $NON-NLS-1$
+        Assertions.assertFalse(matcher.matches(PathContainer.parsePath("/pages/index.js")));    // $NON-NLS-1$
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.yookue.springstarter.themechange.support;
+
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.StaticMessageSource;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.support.ThemeTagNamesCache}
+ *
+ * @author David Hsing
+ */
+class ThemeTagNamesCacheTest {
+    private static final Map<String, String> TAG_NAMES = Collections.singletonMap("dark", "theme.dark");    // $NON-NLS-1$ // $NON-NLS-2$
+
+    @Test
+    void resolvesOncePerLocale() {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("theme.dark", Locale.ENGLISH, "Dark");    // $NON-NLS-1$ // $NON-NLS-2$
+        ThemeTagNamesCache cache = new ThemeTagNamesCache(4);
+        Assertions.assertEquals("Dark", cache.getTagNames(TAG_NAMES, messageSource, Locale.ENGLISH).get("dark"));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertSame(cache.getTagNames(TAG_NAMES, messageSource, Locale.ENGLISH), cache.getTagNames(TAG_NAMES, messageSource, Locale.ENGLISH));
+        Assertions.assertEquals(1L, cache.getMissCount());
+        Assertions.assertEquals(2L, cache.getHitCount());
+    }
+
+    @Test
+    void resolvesAgainAfterTimeToLive() throws InterruptedException {
+        CountingCache cache = new CountingCache(4, Duration.ofMillis(20L));
+        cache.getTagNames(TAG_NAMES, null, Locale.ENGLISH);
+        cache.getTagNames(TAG_NAMES, null, Locale.ENGLISH);
+        Assertions.assertEquals(1, cache.resolveCount.get());
+        Thread.sleep(40L);
+        cache.getTagNames(TAG_NAMES, null, Locale.ENGLISH);
+        Assertions.assertEquals(2, cache.resolveCount.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedLocales() throws InterruptedException {
+        CountingCache cache = new CountingCache(8, null);
+        for (int i = 0; i < 8; i++) {
+            cache.getTagNames(TAG_NAMES, null, new Locale("l" + i));    // $NON-NLS-1$
+            Thread.sleep(2L);
+        }
+        cache.getTagNames(TAG_NAMES, null, new Locale("l0"));    // $NON-NLS-1$
+        Thread.sleep(2L);
+        cache.getTagNames(TAG_NAMES, null, Locale.ENGLISH);
+        Assertions.assertEquals(7, cache.size());
+        int resolved = cache.resolveCount.get();
+        cache.getTagNames(TAG_NAMES, null, new Locale("l0"));    // $NON-NLS-1$
+        cache.getTagNames(TAG_NAMES, null, Locale.ENGLISH);
+        Assertions.assertEquals(resolved, cache.resolveCount.get());
+        cache.getTagNames(TAG_NAMES, null, new Locale("l1"));    // $NON-NLS-1$
+        Assertions.assertEquals(resolved + 1, cache.resolveCount.get());
+    }
+
+    @Test
+    void discardsValuesResolvedDuringClear() {
+        ThemeTagNamesCache cache = new ThemeTagNamesCache(4) {
+            @Nonnull
+            @Override
+            protected Map<String, String> resolveTagNames(@Nonnull Map<String, String> tagNames, @Nullable MessageSource messageSource, @Nonnull Locale locale) {
+                clear();
+                return super.resolveTagNames(tagNames, messageSource, locale);
+            }
+        };
+        cache.getTagNames(TAG_NAMES, null, Locale.ENGLISH);
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void cachesNothingWithoutSize() {
+        CountingCache cache = new CountingCache(0, null);
+        cache.getTagNames(TAG_NAMES, null, Locale.ENGLISH);
+        cache.getTagNames(TAG_NAMES, null, Locale.ENGLISH);
+        Assertions.assertEquals(2, cache.resolveCount.get());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+
+    private static class CountingCache extends ThemeTagNamesCache {
+        private final AtomicInteger resolveCount = new AtomicInteger();
+
+        private CountingCache(int maximumSize, @Nullable Duration timeToLive) {
+            super(maximumSize, timeToLive);
+        }
+
+        @Nonnull
+        @Override
+        protected Map<String, String> resolveTagNames(@Nonnull Map<String, String> tagNames, @Nullable MessageSource messageSource, @Nonnull Locale locale) {
+            resolveCount.incrementAndGet();
+            return super.resolveTagNames(tagNames, messageSource, locale);
+        }
+    }
+}
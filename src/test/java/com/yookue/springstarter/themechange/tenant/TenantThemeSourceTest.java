@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.springstarter.themechange.tenant;
+
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.ui.context.Theme;
+import org.springframework.ui.context.ThemeSource;
+import org.springframework.ui.context.support.SimpleTheme;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+
+/**
+ * Tests for {@link com.yookue.springstarter.themechange.tenant.TenantThemeSource}
+ *
+ * @author David Hsing
+ */
+class TenantThemeSourceTest {
+    private final Map<String, AtomicInteger> buildCounts = new ConcurrentHashMap<>();
+    private final ThemeSource defaultSource = themeName -> createTheme("default", themeName);    // $NON-NLS-1$
+    private final TenantThemeSource themeSource = new TenantThemeSource(defaultSource, new HeaderThemeTenantResolver(), tenant -> {
+        buildCounts.computeIfAbsent(tenant, key -> new AtomicInteger()).incrementAndGet();
+        return themeName -> createTheme(tenant, themeName);
+    });
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void resolvesThemeOfRequestTenant() {
+        Assertions.assertEquals("default:dark", getThemeName(themeSource.getTheme("dark")));    // $NON-NLS-1$ // $NON-NLS-2$
+        bindRequest("acme");    // $NON-NLS-1$
+        Assertions.assertEquals("acme:dark", getThemeName(themeSource.getTheme("dark")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals("acme:light", getThemeName(themeSource.getTheme("light")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(1, buildCounts.get("acme").get());    // $NON-NLS-1$
+        bindRequest("../acme");    // $NON-NLS-1$
+        Assertions.assertEquals("default:dark", getThemeName(themeSource.getTheme("dark")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertEquals(1, themeSource.getTenantCount());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedTenant() {
+        themeSource.setMaximumSize(2);
+        ThemeSource first = themeSource.getThemeSource("first");    // $NON-NLS-1$
+        themeSource.getThemeSource("second");    // $NON-NLS-1$
+        themeSource.getThemeSource("third");    // $NON-NLS-1$
+        Assertions.assertEquals(2, themeSource.getTenantCount());
+        Assertions.assertNotSame(first, themeSource.getThemeSource("first"));    // $NON-NLS-1$
+        Assertions.assertEquals(2, buildCounts.get("first").get());    // $NON-NLS-1$
+        Assertions.assertEquals(2, themeSource.getTenantCount());
+    }
+
+    @Test
+    void rebuildsIdleTenant() throws InterruptedException {
+        themeSource.setIdleTimeout(Duration.ofMillis(20L));
+        ThemeSource source = themeSource.getThemeSource("acme");    // $NON-NLS-1$
+        Assertions.assertSame(source, themeSource.getThemeSource("acme"));    // $NON-NLS-1$
+        Thread.sleep(50L);
+        Assertions.assertNotSame(source, themeSource.getThemeSource("acme"));    // $NON-NLS-1$
+        Assertions.assertEquals(2, buildCounts.get("acme").get());    // $NON-NLS-1$
+    }
+
+    @Test
+    void evictsTenantsOnDemand() {
+        themeSource.getThemeSource("first");    // $NON-NLS-1$
+        themeSource.getThemeSource("second");    // $NON-NLS-1$
+        themeSource.evictTenant("first");    // $NON-NLS-1$
+        Assertions.assertEquals(1, themeSource.getTenantCount());
+        themeSource.clearTenants();
+        Assertions.assertEquals(0, themeSource.getTenantCount());
+    }
+
+    @Test
+    void resolvesEffectiveTenant() {
+        Assertions.assertEquals("acme", themeSource.getTenant(createRequest("acme")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNull(themeSource.getTenant(createRequest("../acme")));    // $NON-NLS-1$
+        themeSource.setMaximumSize(0);
+        Assertions.assertNull(themeSource.getTenant(createRequest("acme")));    // $NON-NLS-1$
+        Assertions.assertSame(defaultSource, themeSource.getThemeSource("acme"));    // $NON-NLS-1$
+    }
+
+    private void bindRequest(@Nonnull String tenant) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(createRequest(tenant)));
+    }
+
+    @Nonnull
+    private static MockHttpServletRequest createRequest(@Nonnull String tenant) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HeaderThemeTenantResolver.DEFAULT_HEADER_NAME, tenant);
+        return request;
+    }
+
+    @Nonnull
+    private static Theme createTheme(@Nonnull String tenant, @Nonnull String themeName) {
+        return new SimpleTheme(tenant + ':' + themeName, new StaticMessageSource());
+    }
+
+    @Nullable
+    private static String getThemeName(@Nullable Theme theme) {
+        return (theme == null) ? null : theme.getName();
+    }
+}